@@ -1,12 +1,25 @@
 package com.webcheckers;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 import com.google.gson.Gson;
+import com.webcheckers.app.BotPlayers;
+import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.HintCache;
+import com.webcheckers.app.HintEngine;
+import com.webcheckers.app.OpeningBook;
+import com.webcheckers.app.OpeningBookRecorder;
 import com.webcheckers.app.PlayerLobby;
+import com.webcheckers.app.Ponderer;
+import com.webcheckers.app.Tablebase;
+import com.webcheckers.app.TranspositionTable;
 import com.webcheckers.ui.WebServer;
 
 import spark.TemplateEngine;
@@ -60,6 +73,117 @@ public final class Application {
     }
   }
 
+  /**
+   * Reads a positive integer system property.
+   *
+   * @param name
+   *    The name of the property.
+   * @param defaultValue
+   *    The value used when the property is not set or is not a positive integer.
+   *
+   * @return the value of the property
+   */
+  static int getIntProperty(final String name, final int defaultValue) {
+    final String value = System.getProperty(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      final int parsed = Integer.parseInt(value.trim());
+      if (parsed > 0) {
+        return parsed;
+      }
+    } catch (NumberFormatException e) {
+      // fall through to the warning
+    }
+    LOG.warning(String.format("Bad '%s' value, '%s'; must be a positive integer.", name, value));
+    return defaultValue;
+  }
+  private static final String HINT_TABLE_MEGABYTES_PROPERTY = "hintTableMegabytes";
+  private static final String HINT_BUDGET_MILLIS_PROPERTY = "hintBudgetMillis";
+  private static final String HINT_THREADS_PROPERTY = "hintThreads";
+  private static final String HINT_CACHE_ENTRIES_PROPERTY = "hintCacheEntries";
+  private static final String BOT_NAMES_PROPERTY = "botNames";
+  private static final String BOT_THREADS_PROPERTY = "botThreads";
+  private static final String BOT_QUEUE_TURNS_PROPERTY = "botQueueTurns";
+  private static final String BOT_THINK_MILLIS_PROPERTY = "botThinkMillis";
+  private static final String DEFAULT_BOT_NAMES = "Computer";
+  private static final String PONDER_PROPERTY = "ponderHints";
+  private static final String PONDER_THREADS_PROPERTY = "ponderThreads";
+  private static final String GAME_THREADS_PROPERTY = "gameThreads";
+  private static final String GAME_IDLE_MILLIS_PROPERTY = "gameIdleMillis";
+  private static final String GAME_FINISHED_MILLIS_PROPERTY = "gameFinishedMillis";
+
+  /**
+   * Opens the endgame table named by the 'tablebase' property.
+   *
+   * @return the table, or an empty table if the property is not set or the
+   * file cannot be read
+   */
+  static Tablebase openTablebase() {
+    final String file = System.getProperty(TABLEBASE_PROPERTY);
+    if (file == null) {
+      return Tablebase.EMPTY;
+    }
+    try {
+      return Tablebase.open(Paths.get(file));
+    } catch (IOException e) {
+      LOG.warning(String.format("Could not open the '%s' endgame table: %s", file, e.getMessage()));
+      return Tablebase.EMPTY;
+    }
+  }
+  private static final String TABLEBASE_PROPERTY = "tablebase";
+
+  /**
+   * Reads the opening book named by the 'openingBook' property.
+   *
+   * @return the book, or an empty book if the property is not set or the
+   * file cannot be read
+   */
+  static OpeningBook readOpeningBook() {
+    final String file = System.getProperty(OPENING_BOOK_PROPERTY);
+    if (file == null) {
+      return OpeningBook.EMPTY;
+    }
+    try {
+      return OpeningBook.read(Paths.get(file));
+    } catch (IOException e) {
+      LOG.warning(String.format("Could not read the '%s' opening book: %s", file, e.getMessage()));
+      return OpeningBook.EMPTY;
+    }
+  }
+  private static final String OPENING_BOOK_PROPERTY = "openingBook";
+
+  /**
+   * Creates the archive of the games removed from the server: they are
+   * logged and, if the 'openingBookRecord' property names a file, the
+   * finished ones are learnt into an opening book written to that file
+   * every 'openingBookRecordEvery' games and when the server stops.
+   *
+   * @return the archive
+   */
+  static Consumer<Game> createArchive() {
+    final Consumer<Game> log = game -> LOG.fine(String.format("Game %s between %s and %s removed after %d turns.",
+        game.getEncodedID(), game.getRedPlayer(), game.getWhitePlayer(), game.getTurnCount()));
+    final String file = System.getProperty(OPENING_BOOK_RECORD_PROPERTY);
+    if (file == null) {
+      return log;
+    }
+    final OpeningBookRecorder recorder = new OpeningBookRecorder(
+        new OpeningBook.Builder(OpeningBook.Builder.DEFAULT_MAX_TURNS, 1), Paths.get(file),
+        getIntProperty(OPENING_BOOK_RECORD_EVERY_PROPERTY, OpeningBookRecorder.DEFAULT_WRITE_EVERY));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        recorder.write();
+      } catch (IOException e) {
+        LOG.warning(String.format("Could not write the '%s' opening book: %s", file, e.getMessage()));
+      }
+    }, "opening-book-recorder"));
+    return log.andThen(recorder);
+  }
+  private static final String OPENING_BOOK_RECORD_PROPERTY = "openingBookRecord";
+  private static final String OPENING_BOOK_RECORD_EVERY_PROPERTY = "openingBookRecordEvery";
+
   //
   // Application Launch method
   //
@@ -97,8 +221,58 @@ public final class Application {
     final Gson gson = new Gson();
 
     final PlayerLobby playerLobby = new PlayerLobby();
+
+    // Hints search with a transposition table shared by every game; its memory
+    // is capped by the 'hintTableMegabytes' property, each hint's time by
+    // the 'hintBudgetMillis' property, and the threads searching each hint
+    // by the 'hintThreads' property. Openings are answered from the book file
+    // named by the 'openingBook' property. Endings are answered, and games
+    // adjudicated, by the endgame table file named by the 'tablebase' property.
+    // Results are cached across games, up to the 'hintCacheEntries' property.
+    final TranspositionTable hintTable = new TranspositionTable(
+        getIntProperty(HINT_TABLE_MEGABYTES_PROPERTY, HintEngine.DEFAULT_TABLE_MEGABYTES));
+    final HintEngine hintEngine = new HintEngine.Builder()
+        .budget(HintEngine.DEFAULT_MAX_DEPTH, HintEngine.DEFAULT_MAX_NODES,
+            getIntProperty(HINT_BUDGET_MILLIS_PROPERTY, (int) HintEngine.DEFAULT_TIME_BUDGET_MILLIS))
+        .table(hintTable)
+        .threads(getIntProperty(HINT_THREADS_PROPERTY, HintEngine.DEFAULT_THREADS))
+        .tablebase(openTablebase())
+        .openingBook(readOpeningBook())
+        .cache(new HintCache(getIntProperty(HINT_CACHE_ENTRIES_PROPERTY, HintCache.DEFAULT_ENTRIES)))
+        .build();
+
+    // Games are updated one request at a time each, on 'gameThreads' threads
+    // shared by every game. Games in play go after 'gameIdleMillis' without
+    // a request, finished games after 'gameFinishedMillis'; finished games
+    // may be recorded into an opening book as they go.
+    final GameCenter gameCenter = new GameCenter(hintEngine.getTablebase(),
+        getIntProperty(GAME_THREADS_PROPERTY, GameCenter.DEFAULT_THREADS), createArchive());
+    gameCenter.startReaper(getIntProperty(GAME_IDLE_MILLIS_PROPERTY, (int) GameCenter.DEFAULT_IDLE_MILLIS),
+        getIntProperty(GAME_FINISHED_MILLIS_PROPERTY, (int) GameCenter.DEFAULT_FINISHED_MILLIS));
+
+    // Bots named by the 'botNames' property, comma separated, wait in the
+    // lobby. They think on 'botThreads' threads of their own, for up to
+    // 'botThinkMillis' a turn, less when turns queue up, with at most
+    // 'botQueueTurns' turns waiting.
+    final BotPlayers bots = new BotPlayers(hintEngine, gameCenter,
+        getIntProperty(BOT_THREADS_PROPERTY, BotPlayers.DEFAULT_THREADS),
+        getIntProperty(BOT_QUEUE_TURNS_PROPERTY, BotPlayers.DEFAULT_QUEUE_TURNS),
+        getIntProperty(BOT_THINK_MILLIS_PROPERTY, (int) BotPlayers.DEFAULT_THINK_MILLIS));
+    for (String botName : System.getProperty(BOT_NAMES_PROPERTY, DEFAULT_BOT_NAMES).split(",")) {
+      if (!botName.trim().isEmpty() && playerLobby.addBot(botName.trim()) == null) {
+        LOG.warning(String.format("Bot name '%s' is taken.", botName.trim()));
+      }
+    }
+
+    // With the 'ponderHints' property set to true, hints of the next turns are
+    // searched ahead on 'ponderThreads' low-priority threads while players wait.
+    final Ponderer ponderer = Boolean.getBoolean(PONDER_PROPERTY) && hintEngine.getCache().capacity() > 0
+        ? new Ponderer(hintEngine, getIntProperty(PONDER_THREADS_PROPERTY, Ponderer.DEFAULT_THREADS))
+        : Ponderer.NONE;
+
     // inject the game center and freemarker engine into web server
-    final WebServer webServer = new WebServer(templateEngine, gson, playerLobby);
+    final WebServer webServer = new WebServer(templateEngine, gson, playerLobby, gameCenter, hintEngine, bots,
+        ponderer);
 
     // inject web server into application
     final Application app = new Application(webServer);
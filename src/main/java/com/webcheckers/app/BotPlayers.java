@@ -0,0 +1,336 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.util.Message;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application-tier driver of the players the computer plays for, so a player
+ * signing in to an empty lobby has someone to challenge
+ * <p>
+ * Bots sit in the {@link PlayerLobby} like anyone else, and may be in any
+ * number of games at once. Their turns are searched on a pool of their own
+ * with a bounded queue, never on a web thread. The busier the pool, the less
+ * a turn thinks: a turn that starts with other turns queued behind it gets
+ * half the time for each queued turn per thread, down to an eighth. When even
+ * the queue is full, the turn goes to a thread of its own with a queue as
+ * long, which plays it after a tiny search; when that is full too, the turn
+ * waits until a turn on either pool is over. A turn reads the position and
+ * makes its moves through the {@link GameCenter}'s queue of the game, and
+ * searches outside it, so requests for the game are answered while the bot
+ * thinks.
+ *
+ * @author Anh Nguyen
+ */
+public class BotPlayers {
+    private static final Logger LOG = Logger.getLogger(BotPlayers.class.getName());
+
+    /**
+     * Default thinking time of a turn on an idle pool
+     */
+    public static final long DEFAULT_THINK_MILLIS = 500;
+
+    /**
+     * Default number of threads bots think on
+     */
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Default number of turns that may wait for a thread
+     */
+    public static final int DEFAULT_QUEUE_TURNS = 64;
+
+    /**
+     * Driver that never plays, for servers without bots
+     */
+    public static final BotPlayers NONE = new BotPlayers();
+
+    // thinking times, each half the one before
+    private static final int LEVELS = 4;
+
+    // budget of a turn played when the queue is full
+    private static final int QUICK_DEPTH = 2;
+    private static final long QUICK_NODES = 1_000;
+
+    // game center the bots' games are updated through
+    private final GameCenter gameCenter;
+
+    // pool the turns are searched on, or null if bots never play
+    private final ThreadPoolExecutor executor;
+
+    // thread turns that find the pool full are played on, after a tiny search
+    private final ThreadPoolExecutor quickExecutor;
+
+    // games whose turn found both pools full
+    private final Queue<Game> deferred = new ConcurrentLinkedQueue<>();
+
+    // engine of each thinking time, longest first, and the engine of a turn played at once
+    private final HintEngine[] engines;
+    private final HintEngine quick;
+
+    // statistics
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder shortenedTurns = new LongAdder();
+    private final LongAdder quickTurns = new LongAdder();
+
+    /**
+     * Constructor for a driver that never plays
+     */
+    private BotPlayers() {
+        this.gameCenter = null;
+        this.executor = null;
+        this.quickExecutor = null;
+        this.engines = new HintEngine[0];
+        this.quick = null;
+    }
+
+    /**
+     * Constructor for a driver playing with an engine's tables
+     *
+     * @param engine       engine whose helper threads, tables, book and cache are shared
+     * @param gameCenter   game center holding the bots' games
+     * @param threads      threads bots think on
+     * @param queueTurns   turns that may wait for a thread
+     * @param thinkMillis  thinking time of a turn on an idle pool
+     */
+    public BotPlayers(HintEngine engine, GameCenter gameCenter, int threads, int queueTurns, long thinkMillis) {
+        if (threads < 1 || queueTurns < 1 || thinkMillis < 1) {
+            throw new IllegalArgumentException("The bot threads, queue and thinking time must be positive.");
+        }
+        this.gameCenter = Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+        this.engines = new HintEngine[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            engines[level] = engine.withBudget(HintEngine.DEFAULT_MAX_DEPTH, HintEngine.DEFAULT_MAX_NODES,
+                    Math.max(1, thinkMillis >> level));
+        }
+        this.quick = engine.withBudget(QUICK_DEPTH, QUICK_NODES, Search.NO_TIME_LIMIT);
+        this.executor = pool("bot-", threads, queueTurns);
+        this.quickExecutor = pool("bot-quick-", 1, queueTurns);
+    }
+
+    /**
+     * Creates a pool of bot threads with a bounded queue
+     */
+    private static ThreadPoolExecutor pool(String name, int threads, int queueTurns) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueTurns), runnable -> {
+            Thread thread = new Thread(runnable, name + count.incrementAndGet());
+            thread.setDaemon(true);
+            // the players' own requests come first
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a bot's turn in a game if it is a bot's turn
+     *
+     * @param game the game, read from within an update of the game
+     * @return true if a bot is to play
+     */
+    public boolean play(Game game) {
+        if (executor == null || !isBotTurn(game)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                // the turns queued behind this one
+                int waiting = executor.getQueue().size() / executor.getMaximumPoolSize();
+                int level = Math.min(LEVELS - 1, waiting);
+                if (level > 0) {
+                    shortenedTurns.increment();
+                }
+                takeTurn(game, engines[level]);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                return false;
+            }
+        }
+        try {
+            quickExecutor.execute(() -> takeTurn(game, quick));
+            quickTurns.increment();
+        } catch (RejectedExecutionException e) {
+            if (quickExecutor.isShutdown()) {
+                return false;
+            }
+            // never searched on the caller's thread, which is serving a request
+            deferred.add(game);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a game waits on a bot
+     *
+     * @param game the game
+     * @return true if the game is not over and a bot is in turn
+     */
+    private static boolean isBotTurn(Game game) {
+        return !game.isGameOver()
+                && (game.isRedPlayerTurn() ? game.getRedPlayer() : game.getWhitePlayer()).isBot();
+    }
+
+    /**
+     * Plays a bot's whole turn, chain of jumps and all, and hands the turn over
+     * <p>
+     * Each move is searched outside the game's queue; the queue runs the
+     * reading of the position and, once searched, the move, which is given up
+     * if the position changed meanwhile.
+     *
+     * @param game   the game
+     * @param engine engine choosing the moves
+     */
+    private void takeTurn(Game game, HintEngine engine) {
+        try {
+            int[] position = new int[4];
+            int[] current = new int[4];
+            boolean over = false;
+            while (!over) {
+                Integer chainSquare = gameCenter.update(game, g -> readPosition(g, position));
+                if (chainSquare == null) {
+                    return;
+                }
+                Piece.Color color = position[3] == 1 ? Piece.Color.RED : Piece.Color.WHITE;
+                SearchResult result = engine.search(position[0], position[1], position[2], color, chainSquare);
+                over = gameCenter.update(game, g -> {
+                    // a resignation, or a move backed up, since the position was read
+                    if (!chainSquare.equals(readPosition(g, current)) || !Arrays.equals(position, current)) {
+                        return true;
+                    }
+                    if (playMove(g, result.getMove())) {
+                        turns.increment();
+                        g.setPlayerInTurn(g.isRedPlayerTurn() ? g.getWhitePlayer() : g.getRedPlayer());
+                        // a bot may be playing another bot
+                        play(g);
+                        return true;
+                    }
+                    return g.isGameOver();
+                });
+            }
+        } catch (GameRemovedException e) {
+            // the game went while the bot was thinking
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "A bot could not play its turn.", e);
+        } finally {
+            playDeferred();
+        }
+    }
+
+    /**
+     * Reads the position a bot is to move in
+     *
+     * @param game     the game
+     * @param position buffer of the masks, as {@link Game#pendingPosition(int[])}
+     *                 writes them, then 1 if red moves
+     * @return square a pending chain of jumps ends on or -1, or null if no bot is to move
+     */
+    private static Integer readPosition(Game game, int[] position) {
+        if (!isBotTurn(game)) {
+            return null;
+        }
+        int chainSquare = game.pendingPosition(position);
+        position[3] = game.isRedPlayerTurn() ? 1 : 0;
+        return chainSquare;
+    }
+
+    /**
+     * Makes a bot's move, resigning for the bot if it has none or the game rejects it
+     *
+     * @param game the game
+     * @param move the move, or null if there is none
+     * @return true if the turn is over, false if a chain of jumps goes on
+     */
+    private static boolean playMove(Game game, Move move) {
+        Player bot = game.isRedPlayerTurn() ? game.getRedPlayer() : game.getWhitePlayer();
+        Player other = game.isRedPlayerTurn() ? game.getWhitePlayer() : game.getRedPlayer();
+        if (move == null) {
+            // no move left loses
+            game.resign(bot);
+            game.setGameOverMessage(other + " won! " + bot + " cannot move.");
+            return false;
+        }
+        Message message = game.validateMove(move);
+        if (!message.isSuccessful()) {
+            // searching again would find the same move
+            LOG.warning(String.format("A bot chose a move the game rejects: %s", message.getText()));
+            game.resign(bot);
+            game.setGameOverMessage(other + " won! " + bot + " resigned.");
+            return false;
+        }
+        return game.makeMove();
+    }
+
+    /**
+     * Starts the turns that found both pools full, now that a turn is over
+     */
+    private void playDeferred() {
+        Game game;
+        while ((game = deferred.poll()) != null) {
+            try {
+                gameCenter.update(game, this::play);
+            } catch (GameRemovedException e) {
+                continue;
+            }
+            // room ran out again; the rest wait for the next turn to end
+            if (deferred.contains(game)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stops the pool; turns not yet started are dropped
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            quickExecutor.shutdownNow();
+        }
+        deferred.clear();
+    }
+
+    /**
+     * Returns the number of turns bots played
+     *
+     * @return turn count
+     */
+    public long getTurns() {
+        return turns.sum();
+    }
+
+    /**
+     * Returns the number of turns that thought for less than the full time,
+     * as other turns were waiting
+     *
+     * @return turn count
+     */
+    public long getShortenedTurns() {
+        return shortenedTurns.sum();
+    }
+
+    /**
+     * Returns the number of turns played after a tiny search, as the queue was full
+     *
+     * @return turn count
+     */
+    public long getQuickTurns() {
+        return quickTurns.sum();
+    }
+}
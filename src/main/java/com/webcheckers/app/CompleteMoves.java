@@ -0,0 +1,159 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.MoveGenerator;
+import com.webcheckers.model.MoveTables;
+import com.webcheckers.model.PackedMove;
+import com.webcheckers.model.Piece;
+
+import java.util.Arrays;
+
+/**
+ * Application-tier list of the whole moves of a position
+ * <p>
+ * The {@link MoveGenerator} works one step at a time; this follows each
+ * chain of jumps to its end and crowns a piece whose move ends on its king
+ * row, giving the position after each whole move. The lists are reused from
+ * one call to the next, so an instance is not thread-safe.
+ *
+ * @author Anh Nguyen
+ */
+final class CompleteMoves {
+
+    // most jumps in one chain: every piece of the other side
+    private static final int MAX_CHAIN = 13;
+
+    // number of moves in the lists
+    private int count;
+
+    // [move] -> masks of the moving side, the other side and the kings after it
+    private int[] own = new int[MoveGenerator.MAX_MOVES];
+    private int[] opponent = new int[MoveGenerator.MAX_MOVES];
+    private int[] kings = new int[MoveGenerator.MAX_MOVES];
+
+    // [move] -> first step of it, as a packed move
+    private int[] firstSteps = new int[MoveGenerator.MAX_MOVES];
+
+    // step buffers, one per jump of a chain
+    private final int[][] steps = new int[MAX_CHAIN][MoveGenerator.MAX_MOVES];
+
+    /**
+     * Lists the whole moves of a position
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @return number of moves
+     */
+    int generate(int own, int opponent, int kings, Piece.Color color, int chainSquare) {
+        count = 0;
+        int stepCount;
+        if (chainSquare >= 0) {
+            stepCount = MoveGenerator.generateJumps(own, opponent, kings, color, 1 << chainSquare, steps[0], 0);
+        } else {
+            stepCount = MoveGenerator.generate(own, opponent, kings, color, steps[0], false);
+        }
+        for (int i = 0; i < stepCount; i++) {
+            play(own, opponent, kings, color, steps[0][i], steps[0][i], 0);
+        }
+        return count;
+    }
+
+    /**
+     * Plays one step, following a chain of jumps on to its end
+     *
+     * @param own       mask of the moving side's pieces
+     * @param opponent  mask of the other side's pieces
+     * @param kings     mask of the kings
+     * @param color     color of the moving side
+     * @param step      packed step to play
+     * @param firstStep first step of the move
+     * @param jumps     jumps of the chain already played
+     */
+    private void play(int own, int opponent, int kings, Piece.Color color, int step, int firstStep, int jumps) {
+        int fromBit = 1 << PackedMove.from(step);
+        int to = PackedMove.to(step);
+        int toBit = 1 << to;
+        boolean king = (kings & fromBit) != 0;
+        own = own & ~fromBit | toBit;
+        if (king) {
+            kings = kings & ~fromBit | toBit;
+        }
+        if (PackedMove.isJump(step)) {
+            int capturedBit = 1 << PackedMove.captured(step);
+            opponent &= ~capturedBit;
+            kings &= ~capturedBit;
+            int[] next = steps[jumps + 1];
+            int nextCount = MoveGenerator.generateJumps(own, opponent, kings, color, toBit, next, 0);
+            for (int i = 0; i < nextCount; i++) {
+                play(own, opponent, kings, color, next[i], firstStep, jumps + 1);
+            }
+            if (nextCount > 0) {
+                return;
+            }
+        }
+        if (!king && (toBit & MoveTables.kingRow(color)) != 0) {
+            kings |= toBit;
+        }
+        add(own, opponent, kings, firstStep);
+    }
+
+    /**
+     * Adds a move to the lists, growing them if they are full
+     */
+    private void add(int own, int opponent, int kings, int firstStep) {
+        if (count == this.own.length) {
+            int size = count * 2;
+            this.own = Arrays.copyOf(this.own, size);
+            this.opponent = Arrays.copyOf(this.opponent, size);
+            this.kings = Arrays.copyOf(this.kings, size);
+            this.firstSteps = Arrays.copyOf(this.firstSteps, size);
+        }
+        this.own[count] = own;
+        this.opponent[count] = opponent;
+        this.kings[count] = kings;
+        this.firstSteps[count] = firstStep;
+        count++;
+    }
+
+    /**
+     * Returns the moving side's pieces after a move
+     *
+     * @param move index of the move
+     * @return mask of the pieces
+     */
+    int own(int move) {
+        return own[move];
+    }
+
+    /**
+     * Returns the other side's pieces after a move
+     *
+     * @param move index of the move
+     * @return mask of the pieces
+     */
+    int opponent(int move) {
+        return opponent[move];
+    }
+
+    /**
+     * Returns the kings after a move
+     *
+     * @param move index of the move
+     * @return mask of the kings
+     */
+    int kings(int move) {
+        return kings[move];
+    }
+
+    /**
+     * Returns the first step of a move
+     *
+     * @param move index of the move
+     * @return packed step
+     */
+    int firstStep(int move) {
+        return firstSteps[move];
+    }
+}
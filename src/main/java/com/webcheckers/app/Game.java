@@ -4,6 +4,8 @@ import com.webcheckers.model.*;
 import com.webcheckers.util.Message;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Application-tier Entity Game to represent a game
@@ -11,6 +13,31 @@ import java.util.*;
  * @author Anh Nguyen
  */
 public class Game {
+    /**
+     * Room for pending moves before the buffer has to grow
+     */
+    private static final int INITIAL_PENDING_MOVES = 16;
+
+    /**
+     * Room for turns before the history has to grow
+     */
+    private static final int INITIAL_TURNS = 64;
+
+    /**
+     * ID of no game, as returned for an ID that cannot be decoded
+     */
+    public static final long NO_ID = -1;
+
+    /**
+     * Radix IDs are written in, for short URLs
+     */
+    private static final int ID_RADIX = Character.MAX_RADIX;
+
+    /**
+     * Next ID to hand out; IDs are never reused while the server runs
+     */
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
     /**
      * Red player
      */
@@ -29,7 +56,12 @@ public class Game {
     /**
      * Identification for the game
      */
-    private final int ID;
+    private final long ID;
+
+    /**
+     * Endgame table the game is adjudicated by
+     */
+    private final Tablebase tablebase;
 
     /**
      * Player whose turn it is
@@ -37,9 +69,30 @@ public class Game {
     private Player playerInTurn;
 
     /**
-     * Double-ended queue of pending moves
+     * Pending moves of the turn as {@link PackedMove}s, oldest first
      */
-    private final Deque<Move> moveDeque;
+    private int[] pendingMoves;
+
+    /**
+     * Number of pending moves
+     */
+    private int numPendingMoves;
+
+    /**
+     * Position hash before each turn made, and the turn's first move as a {@link PackedMove}
+     */
+    private long[] turnHashes;
+    private int[] turnMoves;
+
+    /**
+     * Number of turns made
+     */
+    private int numTurns;
+
+    /**
+     * Color of the winner, or null while the game goes on or if it is drawn
+     */
+    private Piece.Color winner;
 
     /**
      * Boolean to check if the game is over
@@ -51,6 +104,27 @@ public class Game {
      */
     private String gameOverMessage;
 
+    /**
+     * Scratch buffer for generated moves
+     */
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Scratch buffer for the masks of the board after the pending jumps
+     */
+    private final int[] pendingMasks = new int[3];
+
+    /**
+     * Pieces of each color that currently have a jump available
+     */
+    private int redJumpers;
+    private int whiteJumpers;
+
+    /**
+     * Board change count the jumpers were last brought up to date with
+     */
+    private int jumpersModCount = -1;
+
     /**
      * Constructor for the Game class
      *
@@ -58,12 +132,26 @@ public class Game {
      * @param whitePlayer given white player
      */
     public Game(Player redPlayer, Player whitePlayer) {
+        this(redPlayer, whitePlayer, Tablebase.EMPTY);
+    }
+
+    /**
+     * Constructor for a game that ends as soon as an endgame table knows its result
+     *
+     * @param redPlayer   given red player
+     * @param whitePlayer given white player
+     * @param tablebase   endgame table, or {@link Tablebase#EMPTY}
+     */
+    public Game(Player redPlayer, Player whitePlayer, Tablebase tablebase) {
+        this.tablebase = Objects.requireNonNull(tablebase, "tablebase must not be null");
         this.redPlayer = redPlayer;
         this.whitePlayer = whitePlayer;
         this.board = new BoardView();
-        this.ID = Objects.hash(redPlayer, whitePlayer);
+        this.ID = NEXT_ID.getAndIncrement();
         this.playerInTurn = redPlayer; // red player starts first
-        this.moveDeque = new LinkedList<>();
+        this.pendingMoves = new int[INITIAL_PENDING_MOVES];
+        this.turnHashes = new long[INITIAL_TURNS];
+        this.turnMoves = new int[INITIAL_TURNS];
         this.gameOver = false;
     }
 
@@ -79,20 +167,10 @@ public class Game {
     /**
      * BoardView for the white player, which is backwards
      *
-     * @return newly built backward board
+     * @return read-only backward view of the board
      */
     public BoardView whitePlayerBoard() {
-        List<Row> whiteBoard = new ArrayList<>();
-        // iterate backward to build board backward for orientation
-        for (int r = BoardView.BOARD_LENGTH - 1; r >= 0; r--) {
-            Row row = new Row(board.getRow(r).getIndex());
-            for (int c = BoardView.BOARD_LENGTH - 1; c >= 0; c--) {
-                Space space = board.getRow(r).getSpace(c);
-                row.addSpace(space);
-            }
-            whiteBoard.add(row);
-        }
-        return new BoardView(whiteBoard);
+        return board.flipped();
     }
 
     /**
@@ -116,20 +194,62 @@ public class Game {
     /**
      * Returns the game's ID
      *
-     * @return game's ID
+     * @return game's ID, unique to the game
      */
-    public int getID() {
+    public long getID() {
         return ID;
     }
 
+    /**
+     * Returns the game's ID as written in its URL
+     *
+     * @return game's ID in base 36
+     */
+    public String getEncodedID() {
+        return Long.toString(ID, ID_RADIX);
+    }
+
+    /**
+     * Reads a game ID written by {@link #getEncodedID()}
+     *
+     * @param encodedID the ID in base 36
+     * @return the ID, or {@link #NO_ID} if it is null or not an ID
+     */
+    public static long decodeID(String encodedID) {
+        if (encodedID == null || encodedID.isEmpty()) {
+            return NO_ID;
+        }
+        long id = 0;
+        for (int i = 0; i < encodedID.length(); i++) {
+            int digit = Character.digit(encodedID.charAt(i), ID_RADIX);
+            // an ID that would not fit is not one handed out
+            if (digit < 0 || id > (Long.MAX_VALUE - digit) / ID_RADIX) {
+                return NO_ID;
+            }
+            id = id * ID_RADIX + digit;
+        }
+        return id;
+    }
+
     /**
      * Sets the turn to a player
      * @param playerInTurn player in turn
      */
     public void setPlayerInTurn(Player playerInTurn) {
+        if (isRedPlayer(playerInTurn) != isRedPlayerTurn()) {
+            board.switchSideToMove();
+        }
         this.playerInTurn = playerInTurn;
     }
 
+    /**
+     * Returns the Zobrist hash of the position, including the side to move
+     * @return position hash
+     */
+    public long getHash() {
+        return board.getHash();
+    }
+
     /**
      * Checks if the given player is the red player
      * @return true if given player is the red player
@@ -186,6 +306,49 @@ public class Game {
         this.gameOverMessage = gameOverMessage;
     }
 
+    /**
+     * Returns the winner's color
+     * @return color of the winner, or null if the game is not over or is drawn
+     */
+    public Piece.Color getWinner() {
+        return winner;
+    }
+
+    /**
+     * Ends the game with a player resigning
+     * @param player player who resigned
+     */
+    public void resign(Player player) {
+        winner = isRedPlayer(player) ? Piece.Color.WHITE : Piece.Color.RED;
+        setGameOver();
+    }
+
+    /**
+     * Returns the number of turns made
+     * @return turn count
+     */
+    public int getTurnCount() {
+        return numTurns;
+    }
+
+    /**
+     * Returns the hash of the position a turn was made in
+     * @param turn turn number, from 0
+     * @return Zobrist hash of the position, including the side to move
+     */
+    public long getTurnHash(int turn) {
+        return turnHashes[turn];
+    }
+
+    /**
+     * Returns the first move of a turn
+     * @param turn turn number, from 0
+     * @return the move as a {@link PackedMove}
+     */
+    public int getTurnMove(int turn) {
+        return turnMoves[turn];
+    }
+
     /**
      * Sets the game to be over
      */
@@ -197,177 +360,150 @@ public class Game {
 
 
     /**
-     * Checks if the move is a simple move
-     * @param move given move
-     * @return true if move is a simple move
-     */
-    private boolean isSimpleMove(Move move) {
-        boolean valid = false;
-
-        int startRow = move.getStart().getRow();
-        int startCell = move.getStart().getCell();
-        int endRow = move.getEnd().getRow();
-        int endCell = move.getEnd().getCell();
-
-        Piece startPiece = board.getRow(startRow).getSpace(startCell).getPiece();   // should be not null if valid move
-        Piece endPiece = board.getRow(endRow).getSpace(endCell).getPiece();         // should be null if valid move
-        // perform check
-        if (startPiece != null && endPiece == null) {
-            switch (startPiece.getType()) {
-                case SINGLE:
-                    // red's board is different from white's
-                    valid = isRedPlayer(playerInTurn) ?
-                            endRow == startRow - 1 && (endCell == startCell + 1 || endCell == startCell - 1) :  // red
-                            endRow == startRow + 1 && (endCell == startCell + 1 || endCell == startCell - 1);   // white
-                    break;
-                case KING:
-                    // king can move diagonally backwards
-                    valid = (endRow == startRow + 1 || endRow == startRow - 1) &&
-                            (endCell == startCell + 1 || endCell == startCell - 1);
-                    break;
+     * Returns the mask of the opponent's pieces
+     * @return opponent's mask
+     */
+    private int opponentMask() {
+        return isRedPlayer(playerInTurn) ? board.getWhiteMask() : board.getRedMask();
+    }
+
+    /**
+     * Generates the legal moves of the player in turn as {@link PackedMove}s.
+     * Jumps are forced, so simple moves are only generated when there is no jump.
+     * While a chain of jumps is pending, only the jumps continuing it are generated.
+     * Nothing is allocated, so this is safe to call in tight loops.
+     *
+     * @param moves buffer of at least {@link MoveGenerator#MAX_MOVES} entries
+     * @param capturesOnly true to only generate jumps
+     * @return number of moves written into the buffer
+     */
+    public int generateMoves(int[] moves, boolean capturesOnly) {
+        Piece.Color color = playerColor();
+        int own = board.getMask(color);
+        int opponent = opponentMask();
+        int kings = board.getKingMask();
+
+        if (!isChainPending()) {
+            // only pieces known to have a jump need to be looked at for jumps
+            int count = MoveGenerator.generateJumps(own, opponent, kings, color, jumpers(color), moves, 0);
+            if (count == 0 && !capturesOnly) {
+                count = MoveGenerator.generateSimpleMoves(own, opponent, kings, color, moves, 0);
             }
+            return count;
         }
 
-        return valid;
+        // only the jumping piece may continue
+        int end = pendingPosition(pendingMasks);
+        return MoveGenerator.generateJumps(pendingMasks[0], pendingMasks[1], pendingMasks[2], color,
+                1 << end, moves, 0);
     }
 
     /**
-     * Checks if the move is a jump move
-     * @param move given move
-     * @return true if move is a jump move
-     */
-    private boolean isJumpMove(Move move) {
-        boolean valid = false;
-
-        int startRow = move.getStart().getRow();
-        int startCell = move.getStart().getCell();
-        int endRow = move.getEnd().getRow();
-        int endCell = move.getEnd().getCell();
-
-        Piece startPiece = board.getRow(startRow).getSpace(startCell).getPiece();   // should be not null if valid move
-        Piece endPiece = board.getRow(endRow).getSpace(endCell).getPiece();         // should be null if valid move
-        Piece capturePiece = board.getRow((startRow + endRow) / 2).
-                getSpace((startCell + endCell) / 2).getPiece();               // should be not null valid move
-
-        // multiple jump case
-        if (!moveDeque.isEmpty() && moveDeque.peekFirst().getMoveType().equals(Move.MoveType.JUMP)) {
-            // startPiece must be the piece from the start of the chain of jumps
-            // removing the move from the moveDeque and adding it back for good practice
-            Move firstJumpMove = moveDeque.removeFirst();
-            startPiece = board.getRow(firstJumpMove.getStart().getRow()).
-                    getSpace(firstJumpMove.getStart().getCell()).getPiece();
-            moveDeque.addFirst(firstJumpMove);
-        }
-
-        // perform check
-        if (startPiece != null && endPiece == null && capturePiece != null) {
-            switch (startPiece.getType()) {
-                case SINGLE:
-                    valid = isRedPlayer(playerInTurn) ?
-                            endRow == startRow - 2 && (endCell == startCell + 2 || endCell == startCell - 2)
-                                    && !capturePiece.getColor().equals(playerColor()) :           // red
-                            endRow == startRow + 2 && (endCell == startCell + 2 || endCell == startCell - 2)
-                                    && !capturePiece.getColor().equals(playerColor());            // white
-                    break;
-                case KING:
-                    valid = (endRow == startRow + 2 || endRow == startRow - 2) &&
-                            (endCell == startCell + 2 || endCell == startCell - 2) &&
-                            !capturePiece.getColor().equals(playerColor());
-                    break;
+     * Writes the masks of the board as it will be once the pending chain of jumps
+     * is made: the pieces of the player in turn, the other player's pieces and the kings.
+     * Pending simple moves are not applied, as the moves are generated without them.
+     *
+     * @param masks buffer of at least 3 entries
+     * @return square the pending chain of jumps ends on, or -1 if no chain is pending
+     */
+    public int pendingPosition(int[] masks) {
+        int own = board.getMask(playerColor());
+        int opponent = opponentMask();
+        int kings = board.getKingMask();
+        boolean chainPending = isChainPending();
+        for (int i = 0; chainPending && i < numPendingMoves; i++) {
+            int move = pendingMoves[i];
+            if (PackedMove.isJump(move)) {
+                int from = PackedMove.from(move);
+                int to = PackedMove.to(move);
+                own = own & ~(1 << from) | 1 << to;
+                if ((kings & 1 << from) != 0) {
+                    kings = kings & ~(1 << from) | 1 << to;
+                }
+                opponent &= ~(1 << PackedMove.captured(move));
+                kings &= ~(1 << PackedMove.captured(move));
             }
         }
+        masks[0] = own;
+        masks[1] = opponent;
+        masks[2] = kings;
+        return chainPending ? PackedMove.to(pendingMoves[numPendingMoves - 1]) : -1;
+    }
 
-        return valid;
+    /**
+     * Checks if the last pending move is a jump, so only a continuing jump may follow
+     * @return true if a chain of jumps is pending
+     */
+    private boolean isChainPending() {
+        return numPendingMoves > 0 && PackedMove.isJump(pendingMoves[numPendingMoves - 1]);
     }
 
     /**
-     * Checks if there is a move in bound from any start to end
-     * @return true if there is a move is in bounds
+     * Adds a turn to the history
+     * @param hash position hash before the turn
+     * @param move first move of the turn
      */
-    private boolean checkIfEndPosiionInBounds(Position start, Position end) {
-        if (Position.isInBounds(end)) {
-            Move move = new Move(start, end, Move.MoveType.JUMP);
-            return isJumpMove(move);
+    private void addTurn(long hash, int move) {
+        if (numTurns == turnHashes.length) {
+            turnHashes = Arrays.copyOf(turnHashes, numTurns * 2);
+            turnMoves = Arrays.copyOf(turnMoves, numTurns * 2);
         }
-        return false;
+        turnHashes[numTurns] = hash;
+        turnMoves[numTurns++] = move;
     }
 
     /**
-     * Takes a start position as a parameter, and creates an array based of squares the checker may move
-     * @return an array of Position type, for all possible moves.
+     * Adds a move to the pending moves
+     * @param move packed move
      */
-    private ArrayList<Position> makeAllEndPositions(Position start){
-        Position endBottomLeft = new Position(start.getRow() - 2, start.getCell() - 2);
-        Position endTopLeft = new Position(start.getRow() - 2, start.getCell() + 2);
-        Position endBottomRight = new Position(start.getRow() + 2, start.getCell() - 2);
-        Position endTopRight = new Position(start.getRow() + 2, start.getCell() + 2);
-
-        ArrayList<Position> endPositions = new ArrayList<>();
-        endPositions.add(endBottomLeft);
-        endPositions.add(endTopLeft);
-        endPositions.add(endBottomRight);
-        endPositions.add(endTopRight);
+    private void addPendingMove(int move) {
+        if (numPendingMoves == pendingMoves.length) {
+            pendingMoves = Arrays.copyOf(pendingMoves, numPendingMoves * 2);
+        }
+        pendingMoves[numPendingMoves++] = move;
+    }
 
-        return endPositions;
+    /**
+     * Returns the pieces of a color that have a jump available
+     * The pieces are tracked by {@link #makeMove()}, and only found again from scratch
+     * when the board was changed outside of this game
+     * @param color given color
+     * @return mask of the pieces that can jump
+     */
+    private int jumpers(Piece.Color color) {
+        if (jumpersModCount != board.getModCount()) {
+            updateJumpers(~0);
+        }
+        return color == Piece.Color.RED ? redJumpers : whiteJumpers;
     }
 
     /**
-     * Checks if there is a jump move available from any piece
-     * @return true if there is a jump move available
+     * Finds again which pieces near the changed squares have a jump available
+     * @param changed mask of the squares whose pieces were moved, captured or crowned
      */
-    private boolean allPossibleJumpMovesCheck() {
-        for (Row row : board) {
-            for (Space space : row) {
-                Piece piece = space.getPiece();
-                if (piece != null && piece.getColor().equals(playerColor())) {
-                    Position start = new Position(row.getIndex(), space.getCellIdx());
-                    //Old Code Metrics
-//                    for (int r = -2; r <= 2; r += 4) {      // -2 and +2 to rowIndex
-//                        for (int c = -2; c <= 2; c += 4) {  // -2 and +2 to cellIdx
-//                            Position end = new Position(start.getRow() + r, start.getCell() + c);
-//                            if (Position.isInBounds(end)) {
-//                                Move move = new Move(start, end, Move.MoveType.JUMP);
-//                                if (isJumpMove(move)) {
-//                                    return true;
-//                                }
-//                            }
-//                        }
-//                    }
-
-                    //New Code Metrics
-                    ArrayList<Position> endPositions = makeAllEndPositions(start);
-
-                    for (Position p : endPositions){
-                        if(checkIfEndPosiionInBounds(start,p)){
-                            return true;
-                        }
-                    }
-                }
-            }
+    private void updateJumpers(int changed) {
+        int affected = changed;
+        while (changed != 0) {
+            int square = Integer.numberOfTrailingZeros(changed);
+            changed &= changed - 1;
+            affected |= MoveTables.nearby(square);
         }
-        return false;
+        int red = board.getRedMask();
+        int white = board.getWhiteMask();
+        int kings = board.getKingMask();
+        redJumpers = redJumpers & ~affected |
+                MoveGenerator.jumpers(red, white, kings, Piece.Color.RED, affected);
+        whiteJumpers = whiteJumpers & ~affected |
+                MoveGenerator.jumpers(white, red, kings, Piece.Color.WHITE, affected);
+        jumpersModCount = board.getModCount();
     }
 
     /**
-     * Checks if there is a jump move available of a given Move
-     * @param move given move
+     * Checks if the jumping piece can continue the pending chain of jumps
      * @return true if there is a jump move available
      */
-    private boolean singlePossibleJumpMoveCheck(Move move) {
-        Position start = move.getStart();
-        Position end = move.getEnd();
-        for (int r = -2; r <= 2; r += 4) {
-            for (int c = -2; c <= 2; c += 4) {
-                Position newEnd = new Position(end.getRow() + r, end.getCell() + c);
-                if (!newEnd.equals(start) && Position.isInBounds(newEnd)) {
-                    Move m = new Move(end, newEnd, Move.MoveType.JUMP);
-                    if (isJumpMove(m)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    private boolean singlePossibleJumpMoveCheck() {
+        return generateMoves(moveBuffer, true) > 0;
     }
 
     /**
@@ -377,20 +513,42 @@ public class Game {
      */
     public Message validateMove(Move move) {
         Message message = Message.error("Invalid move.");
-        if (isSimpleMove(move)) {
-            if (allPossibleJumpMovesCheck()) {
-                message = Message.error("Jump move available. Must make jump moves.");
-            } else {
+        int from = BoardView.squareOf(move.getStart());
+        int to = BoardView.squareOf(move.getEnd());
+        if (from < 0 || to < 0) {
+            return message;
+        }
+
+        // a simple move ends the turn, so nothing may follow it
+        boolean chainPending = isChainPending();
+        if (numPendingMoves > 0 && !chainPending) {
+            return Message.error("A move has been made already. Submit the turn or back the move up.");
+        }
+
+        int count = generateMoves(moveBuffer, false);
+        for (int i = 0; i < count; i++) {
+            if (PackedMove.from(moveBuffer[i]) == from && PackedMove.to(moveBuffer[i]) == to) {
+                addPendingMove(moveBuffer[i]);
+                if (PackedMove.isJump(moveBuffer[i])) {
+                    move.setMoveType(Move.MoveType.JUMP);
+                    return Message.info("Valid jump move.");
+                }
                 move.setMoveType(Move.MoveType.SIMPLE);
-                moveDeque.add(move);
-                message = Message.info("Valid simple move.");
+                return Message.info("Valid simple move.");
             }
-        } else if (isJumpMove(move)) {
-            move.setMoveType(Move.MoveType.JUMP);
-            moveDeque.add(move);
-            message = Message.info("Valid jump move.");
         }
 
+        // a simple move the player could make, were a jump not forced
+        if (!chainPending && count > 0 && PackedMove.isJump(moveBuffer[0])) {
+            Piece.Color color = playerColor();
+            int simpleCount = MoveGenerator.generateSimpleMoves(board.getMask(color), opponentMask(),
+                    board.getKingMask(), color, moveBuffer, 0);
+            for (int i = 0; i < simpleCount; i++) {
+                if (PackedMove.from(moveBuffer[i]) == from && PackedMove.to(moveBuffer[i]) == to) {
+                    return Message.error("Jump move available. Must make jump moves.");
+                }
+            }
+        }
         return message;
     }
 
@@ -404,52 +562,55 @@ public class Game {
         boolean movesMade = false;
 
         // if a jump move is still possible with the latest move
-        if (!moveDeque.isEmpty() && moveDeque.getLast().getMoveType().equals(Move.MoveType.JUMP) && singlePossibleJumpMoveCheck(moveDeque.getLast())) {
+        if (isChainPending() && singlePossibleJumpMoveCheck()) {
             return false;
         }
 
+        // bring the jumpers up to date before changing the board
+        jumpers(playerColor());
+        if (numPendingMoves > 0) {
+            addTurn(board.getHash(), pendingMoves[0]);
+        }
+
         // makes all the moves
-        while (!moveDeque.isEmpty()) {
-            Move move = moveDeque.remove();
-
-            int startRow = move.getStart().getRow();
-            int startCell = move.getStart().getCell();
-            int endRow = move.getEnd().getRow();
-            int endCell = move.getEnd().getCell();
-
-            Space start = board.getRow(startRow).getSpace(startCell);
-            Space end = board.getRow(endRow).getSpace(endCell);
-            switch (move.getMoveType()) {
-                case SIMPLE:
-                    end.setPiece(start.getPiece());
-                    start.setPiece(null);
-                    break;
-                case JUMP:
-                    end.setPiece(start.getPiece());
-                    start.setPiece(null);
-                    Space capture = board.getRow((startRow + endRow) / 2).
-                            getSpace((startCell + endCell) / 2);
-                    capture.setPiece(null);
-                    if (isRedPlayerTurn()) {
-                        board.decreaseNumWhitePieces();
-                    } else {
-                        board.decreaseNumRedPieces();
-                    }
-                    break;
+        for (int i = 0; i < numPendingMoves; i++) {
+            int move = pendingMoves[i];
+
+            int start = PackedMove.from(move);
+            int end = PackedMove.to(move);
+            board.movePiece(start, end);
+            int changed = 1 << start | 1 << end;
+            if (PackedMove.isJump(move)) {
+                int captured = PackedMove.captured(move);
+                board.removePiece(captured);
+                changed |= 1 << captured;
+                if (isRedPlayerTurn()) {
+                    board.decreaseNumWhitePieces();
+                } else {
+                    board.decreaseNumRedPieces();
+                }
             }
+            int endRow = BoardView.rowOf(end);
             if ((isRedPlayerTurn() && endRow == 0) ||                             // red
                     (!isRedPlayerTurn() && endRow == BoardView.BOARD_LENGTH - 1)) {   // white
-                end.getPiece().setType(Piece.Type.KING);
+                board.crownPiece(end);
             }
+            updateJumpers(changed);
             if (board.getNumRedPieces() == 0) {
                 gameOverMessage = getWhitePlayer() + "won! " + getRedPlayer() + "ran out of pieces.";
+                winner = Piece.Color.WHITE;
                 setGameOver();
             } else if (board.getNumWhitePieces() == 0) {
                 gameOverMessage = getRedPlayer() + "won! " + getWhitePlayer() + "ran out of pieces.";
+                winner = Piece.Color.RED;
                 setGameOver();
             }
             movesMade = true;
         }
+        numPendingMoves = 0;
+        if (movesMade && !gameOver) {
+            adjudicate();
+        }
 
         // TODO (Optional): lose if run out of moves
 
@@ -457,12 +618,36 @@ public class Game {
     }
 
     /**
-     * Backups the move by removing the last move from the moveDeque
+     * Ends the game if the endgame table knows its result, with the other
+     * player to move
+     */
+    private void adjudicate() {
+        boolean whiteToMove = isRedPlayerTurn();
+        int value = tablebase.probe(board.getRedMask(), board.getWhiteMask(), board.getKingMask(), whiteToMove);
+        if (value == Tablebase.NOT_FOUND) {
+            return;
+        }
+        Player toMove = whiteToMove ? whitePlayer : redPlayer;
+        Player other = whiteToMove ? redPlayer : whitePlayer;
+        if (Tablebase.isLoss(value)) {
+            gameOverMessage = other + " won! " + toMove + " cannot avoid losing.";
+            winner = whiteToMove ? Piece.Color.RED : Piece.Color.WHITE;
+        } else if (Tablebase.isWin(value)) {
+            gameOverMessage = toMove + " won! " + other + " cannot avoid losing.";
+            winner = whiteToMove ? Piece.Color.WHITE : Piece.Color.RED;
+        } else {
+            gameOverMessage = "The game is a draw. Neither player can force a win.";
+        }
+        setGameOver();
+    }
+
+    /**
+     * Backups the move by removing the last pending move
      * @return true if the move was backed up
      */
     public boolean backupMove() {
-        if (!moveDeque.isEmpty()) {
-            moveDeque.removeLast();
+        if (numPendingMoves > 0) {
+            numPendingMoves--;
             return true;
         }
         return false;
@@ -474,61 +659,23 @@ public class Game {
      * @return a random jump move
      */
     public Move findRandomJumpMove() {
-        List<Move> jumpMoves = new ArrayList<>();
-        for (Row row : board) {
-            for (Space space : row) {
-                Piece piece = space.getPiece();
-                if (piece != null && piece.getColor().equals(playerColor())) {
-                    Position start = new Position(row.getIndex(), space.getCellIdx());
-                    for (int r = -2; r <= 2; r += 4) {      // -2 and +2 to rowIndex
-                        for (int c = -2; c <= 2; c += 4) {  // -2 and +2 to cellIdx
-                            Position end = new Position(start.getRow() + r, start.getCell() + c);
-                            if (Position.isInBounds(end)) {
-                                Move move = new Move(start, end, Move.MoveType.JUMP);
-                                if (isJumpMove(move)) {
-                                    jumpMoves.add(move);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        if (jumpMoves.isEmpty()) {
+        int count = generateMoves(moveBuffer, true);
+        if (count == 0) {
             return null;
         }
-        return jumpMoves.get(new Random().nextInt(jumpMoves.size()));
+        return PackedMove.toMove(moveBuffer[ThreadLocalRandom.current().nextInt(count)]);
     }
 
     /**
      * Finds all possible simple moves for the current player
      * and returns a random one
-     * @return a random simple move
+     * @return a random simple move, or null if there is none or a jump is forced
      */
     public Move findRandomSimpleMove() {
-        List<Move> simpleMoves = new ArrayList<>();
-        for (Row row : board) {
-            for (Space space : row) {
-                Piece piece = space.getPiece();
-                if (piece != null && piece.getColor().equals(playerColor())) {
-                    Position start = new Position(row.getIndex(), space.getCellIdx());
-                    for (int r = -1; r <= 1; r += 2) {      // -1 and +1 to rowIndex
-                        for (int c = -1; c <= 1; c += 2) {  // -1 and +1 to cellIdx
-                            Position end = new Position(start.getRow() + r, start.getCell() + c);
-                            if (Position.isInBounds(end)) {
-                                Move move = new Move(start, end, Move.MoveType.SIMPLE);
-                                if (isSimpleMove(move)) {
-                                    simpleMoves.add(move);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        if (simpleMoves.isEmpty()) {
+        int count = generateMoves(moveBuffer, false);
+        if (count == 0 || PackedMove.isJump(moveBuffer[0])) {
             return null;
         }
-        return simpleMoves.get(new Random().nextInt(simpleMoves.size()));
+        return PackedMove.toMove(moveBuffer[ThreadLocalRandom.current().nextInt(count)]);
     }
 }
@@ -0,0 +1,586 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Player;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application-tier home of the games being played, shared by every route
+ * <p>
+ * Games are kept in a concurrent map, so they may be created, looked up and
+ * removed from any number of request threads at once, and iterating over
+ * them never fails while games come and go. A {@link Game} itself is not
+ * thread-safe: whatever reads or changes one goes through
+ * {@link #update(Game, Function)}. Each game has a queue of its own the
+ * updates wait in, in the order they came; a shared pool of threads runs the
+ * queues, one update of a game at a time but any number of games at once,
+ * while the route that asked waits for the result. The {@link BotPlayers}
+ * make their moves through the same queue, so a game has a single writer.
+ * <p>
+ * Each player's games are also indexed by the player's name, newest first,
+ * so finding a player's game does not look at anyone else's.
+ * <p>
+ * Once {@link #startReaper(long, long)} is called, games nobody has touched
+ * for a while are removed on their own, so games whose players closed the
+ * page do not stay in memory. Every game removed, by the reaper or not, is
+ * handed to the archive the center was made with. A removal goes through the
+ * game's queue like an update: it runs after the updates already waiting,
+ * the archive gets the game once they are over, and updates asked for later
+ * fail with a {@link GameRemovedException}.
+ *
+ * @author Anh Nguyen
+ */
+public class GameCenter {
+    private static final Logger LOG = Logger.getLogger(GameCenter.class.getName());
+
+    /**
+     * Default number of threads updating games
+     */
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    // updates of a game run before its queue makes way for other games
+    private static final int UPDATES_PER_TURN = 16;
+
+    // time an idle pool thread is kept
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * Default time a game in play may go without an update before it is removed
+     */
+    public static final long DEFAULT_IDLE_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Default time a finished game may go without an update before it is removed
+     */
+    public static final long DEFAULT_FINISHED_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Archive that keeps nothing
+     */
+    public static final Consumer<Game> NO_ARCHIVE = game -> { };
+
+    // game ID -> game
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+
+    // player name -> the player's games, newest first
+    private final Map<String, ConcurrentLinkedDeque<Game>> playerGames = new ConcurrentHashMap<>();
+
+    // game ID -> queue of the game's updates
+    private final Map<Long, UpdateQueue> queues = new ConcurrentHashMap<>();
+
+    // endgame table new games are adjudicated by
+    private final Tablebase tablebase;
+
+    // pool the update queues run on
+    private final ThreadPoolExecutor executor;
+
+    // true once the pool is shut down
+    private volatile boolean closed;
+
+    // hook every removed game is handed to
+    private final Consumer<Game> archive;
+
+    // thread removing idle games, or null until started
+    private ScheduledExecutorService reaper;
+
+    // time a game in play, and a finished game, may go without an update
+    private volatile long idleNanos = Long.MAX_VALUE;
+    private volatile long finishedNanos = Long.MAX_VALUE;
+
+    /**
+     * Constructor for a game center whose games are not adjudicated
+     */
+    public GameCenter() {
+        this(Tablebase.EMPTY);
+    }
+
+    /**
+     * Constructor for a game center whose games end as soon as an endgame table knows their result
+     *
+     * @param tablebase endgame table, or {@link Tablebase#EMPTY}
+     */
+    public GameCenter(Tablebase tablebase) {
+        this(tablebase, DEFAULT_THREADS);
+    }
+
+    /**
+     * Constructor for a game center updating its games on a pool of a given size
+     *
+     * @param tablebase endgame table, or {@link Tablebase#EMPTY}
+     * @param threads   threads updating games
+     */
+    public GameCenter(Tablebase tablebase, int threads) {
+        this(tablebase, threads, NO_ARCHIVE);
+    }
+
+    /**
+     * Constructor for a game center handing the games it removes to an archive
+     *
+     * @param tablebase endgame table, or {@link Tablebase#EMPTY}
+     * @param threads   threads updating games
+     * @param archive   hook every removed game is handed to, or {@link #NO_ARCHIVE}
+     */
+    public GameCenter(Tablebase tablebase, int threads, Consumer<Game> archive) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Games need at least one thread to be updated on.");
+        }
+        this.tablebase = Objects.requireNonNull(tablebase, "tablebase must not be null");
+        this.archive = Objects.requireNonNull(archive, "archive must not be null");
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "game-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // an idle game center holds no threads
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Creates a game and makes it available to every route
+     *
+     * @param redPlayer   player moving first
+     * @param whitePlayer the other player
+     * @return the new game
+     */
+    public Game createGame(Player redPlayer, Player whitePlayer) {
+        Game game = new Game(redPlayer, whitePlayer, tablebase);
+        queues.put(game.getID(), new UpdateQueue(executor));
+        games.put(game.getID(), game);
+        index(redPlayer, game);
+        index(whitePlayer, game);
+        return game;
+    }
+
+    /**
+     * Looks a game up
+     *
+     * @param gameID the game's ID, as in its URL
+     * @return the game, or null if there is no such game
+     */
+    public Game getGame(String gameID) {
+        return getGame(Game.decodeID(gameID));
+    }
+
+    /**
+     * Looks a game up
+     *
+     * @param gameID the game's ID
+     * @return the game, or null if there is no such game
+     */
+    public Game getGame(long gameID) {
+        return gameID == Game.NO_ID ? null : games.get(gameID);
+    }
+
+    /**
+     * Finds the game a player is in
+     *
+     * @param player the player
+     * @return the player's newest game, or null if the player is in none
+     */
+    public Game findGame(Player player) {
+        if (player == null) {
+            return null;
+        }
+        ConcurrentLinkedDeque<Game> own = playerGames.get(player.getName());
+        return own == null ? null : own.peekFirst();
+    }
+
+    /**
+     * Removes a game and, once the updates waiting in its queue have run,
+     * hands it to the archive. Unless called from within an update of the
+     * game, this waits for the archive.
+     *
+     * @param game the game
+     * @return true if the game was removed, false if it had been already
+     */
+    public boolean removeGame(Game game) {
+        return removeGame(game, true);
+    }
+
+    /**
+     * Removes a game, handing it to the archive once the updates waiting in
+     * its queue have run
+     *
+     * @param game the game
+     * @param wait true to wait for the archive, unless called from within an update of the game
+     * @return true if the game was removed, false if it had been already
+     */
+    private boolean removeGame(Game game, boolean wait) {
+        UpdateQueue queue = queues.get(game.getID());
+        if (!games.remove(game.getID(), game)) {
+            return false;
+        }
+        unindex(game.getRedPlayer(), game);
+        unindex(game.getWhitePlayer(), game);
+        // the last thing the queue runs; nothing can be added behind it
+        Update<Void> removal = new Update<>(game, g -> {
+            queues.remove(g.getID());
+            archive.accept(g);
+            return null;
+        });
+        queue.close(removal);
+        if (closed) {
+            queue.rejectAll();
+        }
+        if (wait && !queue.isRunningOn(Thread.currentThread())) {
+            join(removal);
+        }
+        return true;
+    }
+
+    /**
+     * Starts removing games nobody has updated for a while
+     *
+     * @param idleMillis     time a game in play may go without an update
+     * @param finishedMillis time a finished game may go without an update
+     */
+    public synchronized void startReaper(long idleMillis, long finishedMillis) {
+        if (idleMillis < 1 || finishedMillis < 1) {
+            throw new IllegalArgumentException("The idle and finished times must be positive.");
+        }
+        if (reaper != null) {
+            throw new IllegalStateException("The reaper is already running.");
+        }
+        idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        finishedNanos = TimeUnit.MILLISECONDS.toNanos(finishedMillis);
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "game-reaper");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // a game goes at most half its time late
+        long period = Math.max(1, Math.min(idleMillis, finishedMillis) / 2);
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                reap(System.nanoTime());
+            } catch (RuntimeException e) {
+                // a failing archive must not stop the reaper
+                LOG.log(Level.WARNING, "Games could not be reaped.", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        reaper = scheduler;
+    }
+
+    /**
+     * Removes the games not updated for longer than they may be. Whether a
+     * game is over is what its queue saw after its last update, so nothing
+     * is run on the games, and the removals are not waited for.
+     *
+     * @param now the time, as {@link System#nanoTime()}
+     * @return number of games removed
+     */
+    int reap(long now) {
+        int reaped = 0;
+        for (Game game : games.values()) {
+            UpdateQueue queue = queues.get(game.getID());
+            if (queue == null) {
+                continue;
+            }
+            long allowed = queue.over ? finishedNanos : idleNanos;
+            if (now - queue.lastUpdate < allowed || !removeGame(game, false)) {
+                continue;
+            }
+            reaped++;
+            // players who left without coming back may start other games
+            free(game.getRedPlayer());
+            free(game.getWhitePlayer());
+        }
+        return reaped;
+    }
+
+    /**
+     * Lets a player start a game if the player is in none
+     */
+    private void free(Player player) {
+        if (!player.isBot() && findGame(player) == null) {
+            player.setPlaying(false);
+        }
+    }
+
+    /**
+     * Adds a game to a player's games
+     */
+    private void index(Player player, Game game) {
+        playerGames.compute(player.getName(), (name, own) -> {
+            if (own == null) {
+                own = new ConcurrentLinkedDeque<>();
+            }
+            own.addFirst(game);
+            return own;
+        });
+    }
+
+    /**
+     * Removes a game from a player's games, and the player from the index once
+     * the player has none left
+     */
+    private void unindex(Player player, Game game) {
+        playerGames.computeIfPresent(player.getName(), (name, own) -> {
+            own.remove(game);
+            return own.isEmpty() ? null : own;
+        });
+    }
+
+    /**
+     * Reads or changes a game while no other thread does, after the updates
+     * of the game asked for before
+     *
+     * @param game   the game
+     * @param action what to do with the game
+     * @param <T>    type of the action's result
+     * @return the action's result
+     * @throws GameRemovedException if the game has been removed
+     */
+    public <T> T update(Game game, Function<Game, T> action) {
+        UpdateQueue queue = queues.get(game.getID());
+        if (queue == null) {
+            throw new GameRemovedException(game);
+        }
+        if (queue.isRunningOn(Thread.currentThread())) {
+            // an update made from within an update of the same game
+            return action.apply(game);
+        }
+        if (closed) {
+            throw new RejectedExecutionException("The game center is shut down.");
+        }
+        Update<T> update = new Update<>(game, action);
+        if (!queue.add(update)) {
+            throw new GameRemovedException(game);
+        }
+        if (closed) {
+            // shut down while the update was added; it may have missed the drain
+            queue.rejectAll();
+        }
+        return join(update);
+    }
+
+    /**
+     * Waits for an update to run
+     *
+     * @param update the update
+     * @param <T>    type of the update's result
+     * @return the update's result
+     */
+    private static <T> T join(Update<T> update) {
+        try {
+            return update.result.join();
+        } catch (CompletionException e) {
+            // the action's own exception reaches the route
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the games being played
+     *
+     * @return read-only view of the games, safe to iterate while games come and go
+     */
+    public Collection<Game> getGames() {
+        return Collections.unmodifiableCollection(games.values());
+    }
+
+    /**
+     * Returns the number of games being played
+     *
+     * @return game count
+     */
+    public int size() {
+        return games.size();
+    }
+
+    /**
+     * Stops the pool and the reaper; updates still queued fail, so no route waits for them
+     */
+    public synchronized void shutdown() {
+        closed = true;
+        executor.shutdownNow();
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+        for (UpdateQueue queue : queues.values()) {
+            queue.rejectAll();
+        }
+    }
+
+    /**
+     * Returns the endgame table new games are adjudicated by
+     *
+     * @return the table, or {@link Tablebase#EMPTY}
+     */
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * An update waiting in a game's queue, and its result
+     */
+    private static final class Update<T> implements Runnable {
+
+        private final Game game;
+        private final Function<Game, T> action;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Update(Game game, Function<Game, T> action) {
+            this.game = game;
+            this.action = action;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(action.apply(game));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Fails the update, as it will never run
+         */
+        void reject() {
+            result.completeExceptionally(new RejectedExecutionException("The game center is shut down."));
+        }
+    }
+
+    /**
+     * Updates of one game, run one at a time in the order they were added
+     */
+    private class UpdateQueue implements Runnable {
+
+        // pool the queue runs on
+        private final Executor executor;
+
+        // updates waiting
+        private final ConcurrentLinkedQueue<Update<?>> updates = new ConcurrentLinkedQueue<>();
+
+        // true while the queue is on the pool, running or waiting to
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // thread running the queue, or null
+        private volatile Thread runner;
+
+        // time of the last update added, as System.nanoTime()
+        private volatile long lastUpdate = System.nanoTime();
+
+        // whether the game was over after the last update run
+        private volatile boolean over;
+
+        // true once the game's removal is queued, guarded by this queue
+        private boolean removed;
+
+        UpdateQueue(Executor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Adds an update, putting the queue on the pool if it is not there,
+         * and marks the game as just updated
+         *
+         * @return false if the game's removal is queued, so the update is not added
+         */
+        boolean add(Update<?> update) {
+            synchronized (this) {
+                if (removed) {
+                    return false;
+                }
+                lastUpdate = System.nanoTime();
+                updates.add(update);
+            }
+            schedule();
+            return true;
+        }
+
+        /**
+         * Adds the game's removal, after which no update is added
+         */
+        void close(Update<?> removal) {
+            synchronized (this) {
+                removed = true;
+                updates.add(removal);
+            }
+            schedule();
+        }
+
+        /**
+         * Checks if the queue is running on a thread
+         */
+        boolean isRunningOn(Thread thread) {
+            return runner == thread;
+        }
+
+        /**
+         * Fails every update waiting
+         */
+        void rejectAll() {
+            Update<?> update;
+            while ((update = updates.poll()) != null) {
+                update.reject();
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // the pool is shut down
+                    scheduled.set(false);
+                    rejectAll();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            runner = Thread.currentThread();
+            try {
+                // once shut down, the updates left are failed, not run
+                for (int i = 0; i < UPDATES_PER_TURN && !closed; i++) {
+                    Update<?> update = updates.poll();
+                    if (update == null) {
+                        break;
+                    }
+                    update.run();
+                    over = update.game.isGameOver();
+                }
+            } finally {
+                runner = null;
+                scheduled.set(false);
+            }
+            // an update added since the last poll, or one left for the next turn
+            if (!updates.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.webcheckers.app;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown by {@link GameCenter#update(Game, java.util.function.Function)} for a
+ * game that has been removed, as its updates are over
+ *
+ * @author Anh Nguyen
+ */
+public class GameRemovedException extends RejectedExecutionException {
+
+    /**
+     * Constructor for the exception
+     *
+     * @param game the removed game
+     */
+    public GameRemovedException(Game game) {
+        super("Game " + game.getEncodedID() + " has been removed.");
+    }
+}
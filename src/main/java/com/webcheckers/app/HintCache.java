@@ -0,0 +1,254 @@
+package com.webcheckers.app;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Application-tier cache of hint results, shared by every game
+ * <p>
+ * A result is kept under the hash of its position, which takes in the side
+ * to move, and under the budget it was searched with, so a cheap search
+ * never answers for a deeper one. Like the {@link TranspositionTable}, the
+ * cache is two primitive arrays sized once, read and written without locks,
+ * with each key stored XORed with its data so a torn entry reads as missing.
+ * Entries sit in buckets of four; a new entry takes the place of the entry
+ * of its bucket used least recently, whose stamp is furthest behind the
+ * clock of uses, so the order holds as the stamps wrap.
+ *
+ * @author Anh Nguyen
+ */
+public class HintCache {
+
+    /**
+     * Default number of results kept
+     */
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+
+    /**
+     * Cache keeping no results
+     */
+    public static final HintCache NONE = new HintCache(0);
+
+    // entries in a bucket
+    private static final int WAYS = 4;
+
+    // data layout: move in bits 0-15, score in bits 16-31, depth in bits 32-39,
+    // source in bits 40-41, last use in bits 42-63
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int SOURCE_SHIFT = 40;
+    private static final int STAMP_SHIFT = 42;
+    static final long STAMP_MASK = (1L << (Long.SIZE - STAMP_SHIFT)) - 1;
+    private static final int MAX_DEPTH = 0xFF;
+
+    // key XOR data, and data, by entry
+    private final long[] keys;
+    private final long[] data;
+
+    // index mask of the first entry of a bucket
+    private final int bucketMask;
+
+    // clock of uses, for finding the entry used least recently
+    private final AtomicLong clock;
+
+    // statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor for a cache keeping at most a number of results
+     *
+     * @param entries most results kept, rounded down to a power of two; 0 keeps none
+     */
+    public HintCache(int entries) {
+        this(entries, 0);
+    }
+
+    /**
+     * Constructor for a cache whose clock of uses starts at a time
+     *
+     * @param entries most results kept, rounded down to a power of two; 0 keeps none
+     * @param clock   time of the clock of uses
+     */
+    HintCache(int entries, long clock) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("The cache size must not be negative.");
+        }
+        int capacity = entries < WAYS ? 0 : Integer.highestOneBit(entries);
+        this.keys = new long[capacity];
+        this.data = new long[capacity];
+        this.bucketMask = capacity - WAYS;
+        this.clock = new AtomicLong(clock);
+    }
+
+    /**
+     * Returns the number of results the cache can keep
+     *
+     * @return capacity in entries
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Looks up the result of a position searched with a budget
+     *
+     * @param hash   Zobrist hash of the position, including the side to move
+     * @param budget key of the search budget
+     * @return the result, or null if it is not cached
+     */
+    public SearchResult get(long hash, long budget) {
+        if (keys.length == 0) {
+            return null;
+        }
+        long key = key(hash, budget);
+        int index = (int) key & bucketMask;
+        for (int i = index; i < index + WAYS; i++) {
+            long entry = data[i];
+            if ((keys[i] ^ entry) == key && entry != 0) {
+                hits.increment();
+                touch(i, key, entry);
+                return new SearchResult((int) entry & 0xFFFF, (short) (entry >>> SCORE_SHIFT),
+                        (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH, 0, 0,
+                        SearchResult.Source.values()[(int) (entry >>> SOURCE_SHIFT) & 3]);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Keeps the result of a position searched with a budget
+     *
+     * @param hash   Zobrist hash of the position, including the side to move
+     * @param budget key of the search budget
+     * @param result result with a move
+     */
+    public void put(long hash, long budget, SearchResult result) {
+        if (keys.length == 0 || result.getPackedMove() < 0) {
+            return;
+        }
+        long key = key(hash, budget);
+        int index = (int) key & bucketMask;
+        int slot = index;
+        long oldest = -1;
+        long now = clock.get();
+        for (int i = index; i < index + WAYS; i++) {
+            long entry = data[i];
+            if (entry == 0 || (keys[i] ^ entry) == key) {
+                slot = i;
+                oldest = -1;
+                break;
+            }
+            long age = (now - (entry >>> STAMP_SHIFT)) & STAMP_MASK;
+            if (age > oldest) {
+                oldest = age;
+                slot = i;
+            }
+        }
+        if (oldest >= 0) {
+            evictions.increment();
+        }
+        long entry = (result.getPackedMove() & 0xFFFFL)
+                | (result.getScore() & 0xFFFFL) << SCORE_SHIFT
+                | (long) Math.min(result.getDepth(), MAX_DEPTH) << DEPTH_SHIFT
+                | (long) result.getSource().ordinal() << SOURCE_SHIFT
+                | nextStamp() << STAMP_SHIFT;
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    /**
+     * Marks an entry as just used
+     */
+    private void touch(int slot, long key, long entry) {
+        long touched = entry & ~(STAMP_MASK << STAMP_SHIFT) | nextStamp() << STAMP_SHIFT;
+        data[slot] = touched;
+        keys[slot] = key ^ touched;
+    }
+
+    /**
+     * Moves the clock of uses on
+     *
+     * @return the new time
+     */
+    private long nextStamp() {
+        // wraps after millions of uses; ages are taken relative to the clock, so the order holds
+        return clock.incrementAndGet() & STAMP_MASK;
+    }
+
+    /**
+     * Mixes a position hash with a budget key
+     */
+    private static long key(long hash, long budget) {
+        long key = hash ^ budget * 0x9E3779B97F4A7C15L;
+        // 0 marks an empty entry
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * Returns the key of a search budget
+     *
+     * @param maxDepth         deepest search, in moves
+     * @param maxNodes         most positions searched
+     * @param timeBudgetMillis wall-clock budget
+     * @return key to look results up under
+     */
+    public static long budget(int maxDepth, long maxNodes, long timeBudgetMillis) {
+        return (maxDepth * 31L + maxNodes) * 31L + timeBudgetMillis;
+    }
+
+    /**
+     * Empties the cache, keeping the statistics
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Returns the number of lookups that found a result
+     *
+     * @return hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found nothing
+     *
+     * @return miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of results pushed out to make room
+     *
+     * @return eviction count
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the share of lookups that found a result
+     *
+     * @return hit rate from 0 to 1, or 0 before any lookup
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses (%.1f%%), %d evictions",
+                getHits(), getMisses(), getHitRate() * 100, getEvictions());
+    }
+}
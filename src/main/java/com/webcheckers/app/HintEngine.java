@@ -0,0 +1,565 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.MoveGenerator;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Zobrist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-tier service answering hint requests with a lookahead {@link Search}
+ * <p>
+ * Hints are asked for on the web server's request threads, so each thread
+ * keeps its own Search and its buffers. Every search deepens until a
+ * wall-clock budget runs out, so a hint takes about the same time in a
+ * crowded middle game as in a sparse endgame; depth and node caps stop it
+ * early when more search would not help. All the searches share one
+ * {@link TranspositionTable}, so positions that come up in many games, like
+ * the openings, are only searched once.
+ * <p>
+ * A hint may search on several cores at once: helper searches of the same
+ * position run on a pool of threads next to the request thread, and the
+ * request thread's search picks up their results through the shared table.
+ * The pool has a fixed number of threads, so a burst of hints cannot take
+ * more cores than that from the rest of the server. A hint that finds every
+ * helper busy with other hints searches with fewer helpers, rather than wait.
+ * <p>
+ * Openings are answered from an {@link OpeningBook}, and endings with few
+ * enough pieces from a {@link Tablebase}, without searching. Other hints are
+ * kept in a {@link HintCache} shared by every game, so asking again in the
+ * same position, in this game or another, does not search again.
+ *
+ * @author Anh Nguyen
+ */
+public class HintEngine {
+
+    /**
+     * Default deepest search, in moves
+     */
+    public static final int DEFAULT_MAX_DEPTH = 32;
+
+    /**
+     * Default most positions searched per hint
+     */
+    public static final long DEFAULT_MAX_NODES = 5_000_000;
+
+    /**
+     * Default wall-clock budget per hint, in milliseconds
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+
+    /**
+     * Default memory cap of the transposition table, in megabytes
+     */
+    public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    /**
+     * Default number of threads searching each hint: half the cores, as the
+     * server needs the rest, and at most four
+     */
+    public static final int DEFAULT_THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    // budget of each hint
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long timeBudgetMillis;
+
+    // table shared by every search
+    private final TranspositionTable table;
+
+    // a Search per request or helper thread
+    private final ThreadLocal<Search> searches;
+
+    // threads searching each hint, and the pool running all but the first, or null
+    private final int threads;
+    private final ThreadPoolExecutor helpers;
+    // whether the pool is this engine's, rather than shared from the engine it was derived from
+    private final boolean ownsHelpers;
+
+    // opening book and endgame table consulted before searching
+    private final OpeningBook openingBook;
+    private final Tablebase tablebase;
+
+    // results of earlier searches, and the key of this engine's budget in it
+    private final HintCache cache;
+    private final long budgetKey;
+
+    /**
+     * Constructor for a hint engine with the default budget and table size
+     */
+    public HintEngine() {
+        this(new Builder());
+    }
+
+    /**
+     * Constructor for an untimed hint engine with the default table size
+     *
+     * @param maxDepth deepest search, in moves
+     * @param maxNodes most positions searched per hint
+     */
+    public HintEngine(int maxDepth, long maxNodes) {
+        this(new Builder().budget(maxDepth, maxNodes, Search.NO_TIME_LIMIT));
+    }
+
+    /**
+     * Constructor for a hint engine set up by a builder
+     *
+     * @param builder the settings
+     */
+    private HintEngine(Builder builder) {
+        this(builder, null);
+    }
+
+    /**
+     * Constructor for a hint engine set up by a builder
+     *
+     * @param builder the settings
+     * @param helpers pool of another engine to run the helpers on, or null
+     *                for a pool of this engine's own if it needs one
+     */
+    private HintEngine(Builder builder, ThreadPoolExecutor helpers) {
+        this.maxDepth = builder.maxDepth;
+        this.maxNodes = builder.maxNodes;
+        this.timeBudgetMillis = builder.timeBudgetMillis;
+        this.table = builder.table != null ? builder.table : new TranspositionTable(DEFAULT_TABLE_MEGABYTES);
+        this.searches = ThreadLocal.withInitial(() -> new Search(table));
+        this.threads = builder.threads;
+        this.tablebase = builder.tablebase;
+        this.openingBook = builder.openingBook;
+        this.cache = builder.cache;
+        this.budgetKey = HintCache.budget(maxDepth, maxNodes, timeBudgetMillis);
+        this.ownsHelpers = helpers == null && threads > 1;
+        if (ownsHelpers) {
+            // no queue: a helper either starts at once on an idle thread or not at all,
+            // as by the time a queued one ran the hint would be over
+            AtomicInteger count = new AtomicInteger();
+            this.helpers = new ThreadPoolExecutor(threads - 1, threads - 1, 0, TimeUnit.MILLISECONDS,
+                    new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "hint-helper-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.helpers.prestartAllCoreThreads();
+        } else {
+            this.helpers = helpers;
+        }
+    }
+
+    /**
+     * Finds the best move for the player in turn of a game no other thread changes
+     *
+     * @param game given game
+     * @return the search result, whose move is null if there is no legal move
+     */
+    public SearchResult findHint(Game game) {
+        int[] masks = new int[3];
+        int chainSquare = game.pendingPosition(masks);
+        return search(masks[0], masks[1], masks[2],
+                game.isRedPlayerTurn() ? Piece.Color.RED : Piece.Color.WHITE, chainSquare);
+    }
+
+    /**
+     * Finds the best move for the player in turn of a game held by a game center
+     *
+     * @param gameCenter the game center holding the game
+     * @param game       given game
+     * @return the search result, whose move is null if there is no legal move
+     * @throws GameRemovedException if the game has been removed
+     */
+    public SearchResult findHint(GameCenter gameCenter, Game game) {
+        int[] masks = new int[3];
+        Piece.Color[] color = new Piece.Color[1];
+        // the position is read through the game's queue, and searched outside it
+        int chainSquare = gameCenter.update(game, g -> {
+            color[0] = g.isRedPlayerTurn() ? Piece.Color.RED : Piece.Color.WHITE;
+            return g.pendingPosition(masks);
+        });
+        return search(masks[0], masks[1], masks[2], color[0], chainSquare);
+    }
+
+    /**
+     * Finds the best move in a position from the opening book, the endgame
+     * table or the cache, or else by searching with as many threads as are
+     * free up to the engine's number of threads
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @return the request thread's search result, counting the nodes of every thread
+     */
+    public SearchResult search(int own, int opponent, int kings, Piece.Color color, int chainSquare) {
+        SearchResult known = lookUp(own, opponent, kings, color, chainSquare);
+        if (known != null) {
+            return known;
+        }
+        table.newSearch();
+        SearchResult result = searchThreads(own, opponent, kings, color, chainSquare);
+        // positions in the middle of a chain of jumps are not cached, as the hash
+        // does not say which piece must go on
+        if (chainSquare < 0 && cache.capacity() > 0) {
+            cache.put(hash(own, opponent, kings, color), budgetKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * Searches a position ahead of a hint being asked for, on the calling
+     * thread alone, and keeps the result in the cache for the hint to find
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @param stop     set to give the search up
+     * @return the result, or null if the search was given up or there is no cache to keep it in
+     */
+    SearchResult ponder(int own, int opponent, int kings, Piece.Color color, AtomicBoolean stop) {
+        if (cache.capacity() == 0) {
+            return null;
+        }
+        SearchResult known = lookUp(own, opponent, kings, color, -1);
+        if (known != null) {
+            return known;
+        }
+        table.newSearch();
+        SearchResult result = searches.get().search(own, opponent, kings, color, -1,
+                maxDepth, maxNodes, timeBudgetMillis, 1, stop);
+        // a search given up early is not what the hint would have found
+        if (stop.get()) {
+            return null;
+        }
+        cache.put(hash(own, opponent, kings, color), budgetKey, result);
+        return result;
+    }
+
+    /**
+     * Looks a position up in the opening book, the endgame table and the cache
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @return the best move, or null if the position must be searched
+     */
+    private SearchResult lookUp(int own, int opponent, int kings, Piece.Color color, int chainSquare) {
+        if (chainSquare < 0 && openingBook.size() > 0) {
+            SearchResult book = bookMove(own, opponent, kings, color);
+            if (book != null) {
+                return book;
+            }
+        }
+        SearchResult known = tablebase.bestMove(own, opponent, kings, color, chainSquare);
+        if (known != null && known.getPackedMove() >= 0) {
+            return known;
+        }
+        if (chainSquare < 0 && cache.capacity() > 0) {
+            SearchResult cached = cache.get(hash(own, opponent, kings, color), budgetKey);
+            if (cached != null && isLegal(own, opponent, kings, color, cached.getPackedMove())) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Searches a position on the request thread, with helpers if there is a pool
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @return the request thread's search result, counting the nodes of every thread
+     */
+    private SearchResult searchThreads(int own, int opponent, int kings, Piece.Color color, int chainSquare) {
+        if (helpers == null) {
+            return searches.get().search(own, opponent, kings, color, chainSquare,
+                    maxDepth, maxNodes, timeBudgetMillis);
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Future<SearchResult>> started = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            // every other helper starts a depth deeper, so the threads spread over more lines
+            int firstDepth = 1 + (i & 1);
+            try {
+                started.add(helpers.submit(() -> searches.get().search(own, opponent, kings, color,
+                        chainSquare, maxDepth, maxNodes, timeBudgetMillis, firstDepth, stop)));
+            } catch (RejectedExecutionException e) {
+                // every helper thread is busy with other hints
+                break;
+            }
+        }
+        SearchResult result;
+        try {
+            result = searches.get().search(own, opponent, kings, color, chainSquare,
+                    maxDepth, maxNodes, timeBudgetMillis);
+        } finally {
+            stop.set(true);
+        }
+        long nodes = result.getNodes();
+        for (Future<SearchResult> helper : started) {
+            try {
+                nodes += helper.get().getNodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A helper search failed.", e.getCause());
+            }
+        }
+        return new SearchResult(result.getPackedMove(), result.getScore(), result.getDepth(),
+                nodes, result.getNanos());
+    }
+
+    /**
+     * Looks a position up in the opening book
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @return the book move, or null if the position is not in the book
+     */
+    private SearchResult bookMove(int own, int opponent, int kings, Piece.Color color) {
+        long start = System.nanoTime();
+        int move = openingBook.probe(hash(own, opponent, kings, color));
+        if (move < 0 || !isLegal(own, opponent, kings, color, move)) {
+            return null;
+        }
+        return new SearchResult(move, 0, 0, 0, System.nanoTime() - start, SearchResult.Source.OPENING_BOOK);
+    }
+
+    /**
+     * Returns the hash of a position
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @return Zobrist hash, including the side to move
+     */
+    private static long hash(int own, int opponent, int kings, Piece.Color color) {
+        boolean red = color == Piece.Color.RED;
+        return Zobrist.hash(red ? own : opponent, red ? opponent : own, kings, !red);
+    }
+
+    /**
+     * Checks that a move looked up by hash is legal in a position, as a hash
+     * can be shared by two positions
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @param move     packed move
+     * @return true if the move is legal
+     */
+    private static boolean isLegal(int own, int opponent, int kings, Piece.Color color, int move) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generate(own, opponent, kings, color, moves, false);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an engine with another budget, sharing this engine's helper
+     * threads, transposition table, endgame table, opening book and cache
+     *
+     * @param maxDepth         deepest search, in moves
+     * @param maxNodes         most positions searched per hint, by each thread
+     * @param timeBudgetMillis wall-clock budget per hint, or {@link Search#NO_TIME_LIMIT}
+     * @return the engine
+     */
+    public HintEngine withBudget(int maxDepth, long maxNodes, long timeBudgetMillis) {
+        return new HintEngine(new Builder()
+                .budget(maxDepth, maxNodes, timeBudgetMillis)
+                .table(table)
+                .threads(threads)
+                .tablebase(tablebase)
+                .openingBook(openingBook)
+                .cache(cache), helpers);
+    }
+
+    /**
+     * Stops the helper threads, if this engine started them; hints asked
+     * for afterwards, of this engine or those derived from it, search on
+     * the request thread alone
+     */
+    public void shutdown() {
+        if (ownsHelpers) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of threads searching each hint
+     *
+     * @return threads per hint, including the request thread
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Returns the cache of hint results
+     *
+     * @return the cache, or {@link HintCache#NONE}
+     */
+    public HintCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the opening book consulted before searching
+     *
+     * @return the book, or {@link OpeningBook#EMPTY}
+     */
+    public OpeningBook getOpeningBook() {
+        return openingBook;
+    }
+
+    /**
+     * Returns the endgame table consulted before searching
+     *
+     * @return the table, or {@link Tablebase#EMPTY}
+     */
+    public Tablebase getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Returns the transposition table shared by the searches
+     *
+     * @return the table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Builder for a hint engine; settings not given keep their defaults
+     */
+    public static class Builder {
+
+        // budget of each hint
+        private int maxDepth = DEFAULT_MAX_DEPTH;
+        private long maxNodes = DEFAULT_MAX_NODES;
+        private long timeBudgetMillis = DEFAULT_TIME_BUDGET_MILLIS;
+
+        // table shared by the searches, or null for a new one of the default size
+        private TranspositionTable table;
+
+        // threads searching each hint
+        private int threads = 1;
+
+        // tables consulted before searching, and the cache of results
+        private Tablebase tablebase = Tablebase.EMPTY;
+        private OpeningBook openingBook = OpeningBook.EMPTY;
+        private HintCache cache = HintCache.NONE;
+
+        /**
+         * Sets the budget of each hint
+         *
+         * @param maxDepth         deepest search, in moves
+         * @param maxNodes         most positions searched per hint, by each thread
+         * @param timeBudgetMillis wall-clock budget per hint, or {@link Search#NO_TIME_LIMIT}
+         * @return this builder
+         * @throws IllegalArgumentException if the budget is not positive
+         */
+        public Builder budget(int maxDepth, long maxNodes, long timeBudgetMillis) {
+            if (maxDepth < 1 || maxNodes < 1 || timeBudgetMillis < 0) {
+                throw new IllegalArgumentException("The hint budget must be positive.");
+            }
+            this.maxDepth = maxDepth;
+            this.maxNodes = maxNodes;
+            this.timeBudgetMillis = timeBudgetMillis;
+            return this;
+        }
+
+        /**
+         * Sets the transposition table shared by the searches
+         *
+         * @param table the table
+         * @return this builder
+         */
+        public Builder table(TranspositionTable table) {
+            this.table = Objects.requireNonNull(table, "table must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the number of threads searching each hint
+         *
+         * @param threads threads per hint, including the request thread
+         * @return this builder
+         * @throws IllegalArgumentException if there is not at least one thread
+         */
+        public Builder threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException("A hint needs at least one thread.");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the endgame table answering endings
+         *
+         * @param tablebase endgame table, or {@link Tablebase#EMPTY}
+         * @return this builder
+         */
+        public Builder tablebase(Tablebase tablebase) {
+            this.tablebase = Objects.requireNonNull(tablebase, "tablebase must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the opening book answering openings
+         *
+         * @param openingBook opening book, or {@link OpeningBook#EMPTY}
+         * @return this builder
+         */
+        public Builder openingBook(OpeningBook openingBook) {
+            this.openingBook = Objects.requireNonNull(openingBook, "openingBook must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the cache keeping hint results
+         *
+         * @param cache cache of hint results, or {@link HintCache#NONE}
+         * @return this builder
+         */
+        public Builder cache(HintCache cache) {
+            this.cache = Objects.requireNonNull(cache, "cache must not be null");
+            return this;
+        }
+
+        /**
+         * Builds the engine, starting its helper threads if it has more than one
+         *
+         * @return the engine
+         */
+        public HintEngine build() {
+            return new HintEngine(this);
+        }
+    }
+}
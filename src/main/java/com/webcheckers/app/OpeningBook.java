@@ -0,0 +1,258 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Piece;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Application-tier book of opening moves, built from finished games
+ * <p>
+ * The book maps the hash of a position, side to move included, to the move
+ * that scored best from it in the games it was built from. Positions are
+ * kept sorted in a primitive array, so a lookup is a binary search with no
+ * allocation. A book is read once and never changes; new games go into a
+ * {@link Builder}, which writes a new book file.
+ *
+ * @author Anh Nguyen
+ */
+public class OpeningBook {
+
+    /**
+     * Book with no positions
+     */
+    public static final OpeningBook EMPTY = new OpeningBook(new long[0], new short[0], new short[0]);
+
+    // start of a book file, and its format version
+    private static final int MAGIC = 0x57434F42;
+    private static final int VERSION = 1;
+
+    // sorted position hashes, and the book move and the games it was played in for each
+    private final long[] hashes;
+    private final short[] moves;
+    private final short[] games;
+
+    /**
+     * Constructor for a book
+     *
+     * @param hashes sorted position hashes
+     * @param moves  book move of each position, as a packed move
+     * @param games  number of games the move was played in, capped
+     */
+    private OpeningBook(long[] hashes, short[] moves, short[] games) {
+        this.hashes = hashes;
+        this.moves = moves;
+        this.games = games;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param hash Zobrist hash of the position, including the side to move
+     * @return the book move as a packed move, or -1 if the position is not in the book
+     */
+    public int probe(long hash) {
+        int index = Arrays.binarySearch(hashes, hash);
+        return index < 0 ? -1 : moves[index] & 0xFFFF;
+    }
+
+    /**
+     * Returns the number of games a position's book move was played in
+     *
+     * @param hash Zobrist hash of the position, including the side to move
+     * @return game count, or 0 if the position is not in the book
+     */
+    public int getGames(long hash) {
+        int index = Arrays.binarySearch(hashes, hash);
+        return index < 0 ? 0 : games[index] & 0xFFFF;
+    }
+
+    /**
+     * Returns the number of positions in the book
+     *
+     * @return position count
+     */
+    public int size() {
+        return hashes.length;
+    }
+
+    /**
+     * Reads a book file
+     *
+     * @param file the book file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not an opening book.");
+            }
+            int size = in.readInt();
+            if (size < 0) {
+                throw new IOException(file + " has a bad header.");
+            }
+            long[] hashes = new long[size];
+            short[] moves = new short[size];
+            short[] games = new short[size];
+            for (int i = 0; i < size; i++) {
+                hashes[i] = in.readLong();
+                moves[i] = in.readShort();
+                games[i] = in.readShort();
+                if (i > 0 && hashes[i] <= hashes[i - 1]) {
+                    throw new IOException(file + " is not sorted.");
+                }
+            }
+            return new OpeningBook(hashes, moves, games);
+        }
+    }
+
+    /**
+     * Writes the book to a file
+     *
+     * @param file file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        // written under another name first, so a reader never sees half a book
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(hashes.length);
+            for (int i = 0; i < hashes.length; i++) {
+                out.writeLong(hashes[i]);
+                out.writeShort(moves[i]);
+                out.writeShort(games[i]);
+            }
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gathers the moves of finished games into a book
+     * <p>
+     * Each move scores 2 for a win of the side that played it, 1 for a draw
+     * and 0 for a loss. The book keeps, for each position, the move with the
+     * most points over the games it was played in. A builder is not
+     * thread-safe.
+     */
+    public static class Builder {
+
+        /**
+         * Default number of turns of each game that go into the book
+         */
+        public static final int DEFAULT_MAX_TURNS = 16;
+
+        // turns of each game that go into the book
+        private final int maxTurns;
+
+        // fewest games a move must be played in to go into the book
+        private final int minGames;
+
+        // position hash -> move -> {games, points}
+        private final Map<Long, Map<Integer, int[]>> positions = new HashMap<>();
+
+        /**
+         * Constructor for a builder
+         *
+         * @param maxTurns turns of each game that go into the book
+         * @param minGames fewest games a move must be played in to go into the book
+         */
+        public Builder(int maxTurns, int minGames) {
+            if (maxTurns < 1 || minGames < 1) {
+                throw new IllegalArgumentException("The turns and games must be positive.");
+            }
+            this.maxTurns = maxTurns;
+            this.minGames = minGames;
+        }
+
+        /**
+         * Adds the opening of a finished game
+         *
+         * @param game the game
+         * @throws IllegalArgumentException if the game is not over, as its result is not known
+         */
+        public void addGame(Game game) {
+            if (!game.isGameOver()) {
+                throw new IllegalArgumentException("Only finished games go into a book.");
+            }
+            addGame(game, game.getWinner());
+        }
+
+        /**
+         * Adds the opening of a game with a known result
+         *
+         * @param game   the game
+         * @param winner color of the winner, or null for a draw
+         */
+        public void addGame(Game game, Piece.Color winner) {
+            int turns = Math.min(game.getTurnCount(), maxTurns);
+            for (int turn = 0; turn < turns; turn++) {
+                // red moves first
+                Piece.Color mover = turn % 2 == 0 ? Piece.Color.RED : Piece.Color.WHITE;
+                int points = winner == null ? 1 : winner == mover ? 2 : 0;
+                int[] stats = positions.computeIfAbsent(game.getTurnHash(turn), hash -> new HashMap<>())
+                        .computeIfAbsent(game.getTurnMove(turn), move -> new int[2]);
+                stats[0]++;
+                stats[1] += points;
+            }
+        }
+
+        /**
+         * Builds the book from the games added so far
+         *
+         * @return the book
+         */
+        public OpeningBook build() {
+            long[] hashes = new long[positions.size()];
+            int size = 0;
+            for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet()) {
+                if (bestMove(position.getValue()) >= 0) {
+                    hashes[size++] = position.getKey();
+                }
+            }
+            hashes = Arrays.copyOf(hashes, size);
+            Arrays.sort(hashes);
+            short[] moves = new short[size];
+            short[] games = new short[size];
+            for (int i = 0; i < size; i++) {
+                Map<Integer, int[]> candidates = positions.get(hashes[i]);
+                int move = bestMove(candidates);
+                moves[i] = (short) move;
+                games[i] = (short) Math.min(candidates.get(move)[0], 0xFFFF);
+            }
+            return new OpeningBook(hashes, moves, games);
+        }
+
+        /**
+         * Picks the move with the most points, then the most games
+         *
+         * @param candidates move -> {games, points}
+         * @return the move, or -1 if no move was played in enough games
+         */
+        private int bestMove(Map<Integer, int[]> candidates) {
+            int best = -1;
+            int[] bestStats = null;
+            for (Map.Entry<Integer, int[]> candidate : candidates.entrySet()) {
+                int[] stats = candidate.getValue();
+                if (stats[0] >= minGames && (bestStats == null || stats[1] > bestStats[1] ||
+                        (stats[1] == bestStats[1] && stats[0] > bestStats[0]) ||
+                        (stats[1] == bestStats[1] && stats[0] == bestStats[0] && candidate.getKey() < best))) {
+                    best = candidate.getKey();
+                    bestStats = stats;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.MoveGenerator;
+import com.webcheckers.model.PackedMove;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.util.Message;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+/**
+ * Application-tier builder of an {@link OpeningBook} from games the hint
+ * engine plays against itself
+ * <p>
+ * Each game opens with a few random moves, so the games spread over many
+ * openings, and is then played out by the engine on both sides.
+ *
+ * @author Anh Nguyen
+ */
+public class OpeningBookGenerator {
+
+    /**
+     * Default turns played at random at the start of each game
+     */
+    public static final int DEFAULT_RANDOM_TURNS = 3;
+
+    /**
+     * Turns after which an unfinished game counts as a draw
+     */
+    public static final int MAX_GAME_TURNS = 200;
+
+    private OpeningBookGenerator() {
+    }
+
+    /**
+     * Plays a game out, each side moving at random for its first turns and
+     * then as its engine finds best
+     *
+     * @param game        the game, at its start
+     * @param red         engine playing red
+     * @param white       engine playing white
+     * @param randomTurns turns played at random at the start of the game
+     * @param random      source of the random moves
+     * @return color of the winner, or null for a draw
+     */
+    static Piece.Color playGame(Game game, HintEngine red, HintEngine white, int randomTurns, Random random) {
+        return playGame(game, red, white, randomTurns, random, (color, result) -> { });
+    }
+
+    /**
+     * Plays a game out as {@link #playGame(Game, HintEngine, HintEngine, int, Random)}
+     * does, reporting every search
+     *
+     * @param game        the game, at its start
+     * @param red         engine playing red
+     * @param white       engine playing white
+     * @param randomTurns turns played at random at the start of the game
+     * @param random      source of the random moves
+     * @param searched    told the color that searched and the result, after each search
+     * @return color of the winner, or null for a draw
+     */
+    static Piece.Color playGame(Game game, HintEngine red, HintEngine white, int randomTurns, Random random,
+                                BiConsumer<Piece.Color, SearchResult> searched) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int turn = 0; turn < MAX_GAME_TURNS && !game.isGameOver(); turn++) {
+            boolean redTurn = game.isRedPlayerTurn();
+            do {
+                Move move;
+                if (turn < randomTurns) {
+                    int count = game.generateMoves(moves, false);
+                    move = count == 0 ? null : PackedMove.toMove(moves[random.nextInt(count)]);
+                } else {
+                    SearchResult result = (redTurn ? red : white).findHint(game);
+                    searched.accept(redTurn ? Piece.Color.RED : Piece.Color.WHITE, result);
+                    move = result.getMove();
+                }
+                if (move == null) {
+                    // no move left loses
+                    return redTurn ? Piece.Color.WHITE : Piece.Color.RED;
+                }
+                Message message = game.validateMove(move);
+                if (!message.isSuccessful()) {
+                    // searching again would find the same move, forever
+                    throw new IllegalStateException("The game rejects the engine's move: " + message.getText());
+                }
+            } while (!game.makeMove());
+            game.setPlayerInTurn(redTurn ? game.getWhitePlayer() : game.getRedPlayer());
+        }
+        return game.getWinner();
+    }
+
+    /**
+     * Builds a book from self-play games
+     *
+     * @param engine      engine playing both sides
+     * @param games       number of games to play
+     * @param randomTurns turns played at random at the start of each game
+     * @param builder     builder the games are added to
+     * @param seed        seed of the random openings
+     */
+    public static void selfPlay(HintEngine engine, int games, int randomTurns, OpeningBook.Builder builder, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < games; i++) {
+            Game game = new Game(new Player("Red"), new Player("White"));
+            Piece.Color winner = playGame(game, engine, engine, randomTurns, random);
+            builder.addGame(game, winner);
+        }
+    }
+
+    /**
+     * Generates a book file from self-play games
+     *
+     * @param args output file, then optionally the number of games and the
+     *             node budget of each move
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: OpeningBookGenerator <output file> [games] [nodes per move]");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[0]);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long nodes = args.length > 2 ? Long.parseLong(args[2]) : 100_000;
+        HintEngine engine = new HintEngine(HintEngine.DEFAULT_MAX_DEPTH, nodes);
+        OpeningBook.Builder builder = new OpeningBook.Builder(OpeningBook.Builder.DEFAULT_MAX_TURNS, 1);
+        long start = System.nanoTime();
+        selfPlay(engine, games, DEFAULT_RANDOM_TURNS, builder, 1);
+        OpeningBook book = builder.build();
+        book.write(output);
+        System.out.printf("Wrote %d positions from %d games to %s in %d s%n",
+                book.size(), games, output, (System.nanoTime() - start) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.webcheckers.app;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application-tier archive that learns an opening book from the games
+ * finished on the server
+ * <p>
+ * Handed every game a {@link GameCenter} removes, it adds the openings of
+ * the finished ones to an {@link OpeningBook.Builder}; games left unfinished
+ * have no result and are skipped. Every so many games, and on
+ * {@link #write()}, the book is built and written to a file, which the next
+ * server can answer openings from.
+ *
+ * @author Anh Nguyen
+ */
+public class OpeningBookRecorder implements Consumer<Game> {
+    private static final Logger LOG = Logger.getLogger(OpeningBookRecorder.class.getName());
+
+    /**
+     * Default number of games recorded between writes of the book
+     */
+    public static final int DEFAULT_WRITE_EVERY = 100;
+
+    // builder the games go into, guarded by this recorder
+    private final OpeningBook.Builder builder;
+
+    // file the book is written to, and games between writes
+    private final Path file;
+    private final int writeEvery;
+
+    // finished games recorded, guarded by this recorder
+    private int games;
+
+    /**
+     * Constructor for a recorder
+     *
+     * @param builder    builder the games go into
+     * @param file       file the book is written to
+     * @param writeEvery games recorded between writes of the book
+     */
+    public OpeningBookRecorder(OpeningBook.Builder builder, Path file, int writeEvery) {
+        if (writeEvery < 1) {
+            throw new IllegalArgumentException("The games between writes must be positive.");
+        }
+        this.builder = Objects.requireNonNull(builder, "builder must not be null");
+        this.file = Objects.requireNonNull(file, "file must not be null");
+        this.writeEvery = writeEvery;
+    }
+
+    /**
+     * Records a game removed from the server, if it is finished
+     *
+     * @param game the game, whose last update has run
+     */
+    @Override
+    public void accept(Game game) {
+        if (!game.isGameOver()) {
+            return;
+        }
+        boolean due;
+        synchronized (this) {
+            builder.addGame(game);
+            games++;
+            due = games % writeEvery == 0;
+        }
+        if (due) {
+            try {
+                write();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, String.format("Could not write the opening book to '%s'.", file), e);
+            }
+        }
+    }
+
+    /**
+     * Builds the book from the games recorded so far and writes it to the file
+     *
+     * @return the book
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized OpeningBook write() throws IOException {
+        OpeningBook book = builder.build();
+        book.write(file);
+        return book;
+    }
+
+    /**
+     * Returns the number of finished games recorded
+     *
+     * @return game count
+     */
+    public synchronized int getGames() {
+        return games;
+    }
+}
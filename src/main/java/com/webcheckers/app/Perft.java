@@ -0,0 +1,235 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.*;
+import com.webcheckers.util.Message;
+
+import java.util.function.Supplier;
+
+/**
+ * Counts the leaf nodes of the game tree to a fixed depth (perft)
+ * <p>
+ * Perft walks every legal line of play with the same move generation
+ * {@link Game} uses, so known node counts catch move generation bugs and the
+ * time taken measures the raw speed of the rules. A move is a whole turn: a
+ * chain of jumps counts as one move, and each different path through a chain
+ * is a different move. Positions are played on copies of the board masks, so
+ * nothing is allocated while counting.
+ * <p>
+ * {@link #perftThroughGame(Supplier, int)} counts the same tree by playing every line
+ * through {@link Game#validateMove} and {@link Game#makeMove}, as the web
+ * server does, so the two counts cross-check the masks against the rules
+ * the game applies.
+ *
+ * @author Anh Nguyen
+ */
+public final class Perft {
+
+    // move buffers, one per step along the current line
+    private final int[][] moves;
+
+    /**
+     * Creates the buffers for counting to a depth
+     *
+     * @param depth given depth
+     */
+    private Perft(int depth) {
+        // every step of a chain of jumps takes a buffer, and a game has at most 24 captures
+        this.moves = new int[depth + 2 * 12 + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * Counts the leaf nodes from a game's board with the player in turn to move
+     *
+     * @param game  given game
+     * @param depth number of moves to look ahead
+     * @return number of leaf nodes
+     */
+    public static long perft(Game game, int depth) {
+        BoardView board = game.redPlayerBoard();
+        Piece.Color color = game.isRedPlayerTurn() ? Piece.Color.RED : Piece.Color.WHITE;
+        return perft(board.getRedMask(), board.getWhiteMask(), board.getKingMask(), color, depth);
+    }
+
+    /**
+     * Counts the leaf nodes from a position
+     *
+     * @param red    mask of the red pieces
+     * @param white  mask of the white pieces
+     * @param kings  mask of the kings
+     * @param toMove color of the side to move
+     * @param depth  number of moves to look ahead
+     * @return number of leaf nodes
+     */
+    public static long perft(int red, int white, int kings, Piece.Color toMove, int depth) {
+        if (toMove == Piece.Color.RED) {
+            return new Perft(depth).count(red, white, kings, Piece.Color.RED, depth, 0);
+        }
+        return new Perft(depth).count(white, red, kings, Piece.Color.WHITE, depth, 0);
+    }
+
+    /**
+     * Counts the leaf nodes from a game's position by playing every step of
+     * every line through a {@link Game}. Each finished turn is replayed on a
+     * new game from the start, so this is slow and only meant for shallow depths.
+     *
+     * @param start creates the game to count from, the same each time
+     * @param depth number of moves to look ahead
+     * @return number of leaf nodes
+     * @throws IllegalStateException if the game rejects a move it generated
+     */
+    public static long perftThroughGame(Supplier<Game> start, int depth) {
+        return countThroughGame(start, new int[depth + 2 * 12 + 1], 0, depth);
+    }
+
+    /**
+     * Counts the leaf nodes below the position a line of steps leads to
+     *
+     * @param start  creates the game to count from
+     * @param line   steps played from the start, ending with a whole turn
+     * @param length number of steps in the line
+     * @param depth  moves left to play
+     * @return number of leaf nodes
+     */
+    private static long countThroughGame(Supplier<Game> start, int[] line, int length, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        Game game = start.get();
+        for (int i = 0; i < length; i++) {
+            validate(game, line[i]);
+            if (game.makeMove()) {
+                game.setPlayerInTurn(game.isRedPlayerTurn() ? game.getWhitePlayer() : game.getRedPlayer());
+            }
+        }
+        return countSteps(start, game, line, length, depth);
+    }
+
+    /**
+     * Counts the leaf nodes below each step the game offers, following a
+     * chain of jumps on the same game until its turn is over
+     *
+     * @param start  creates the game to count from
+     * @param game   game with the line played, and any steps of this turn pending
+     * @param line   steps played from the start
+     * @param length number of steps in the line
+     * @param depth  moves left to play, including this one
+     * @return number of leaf nodes
+     */
+    private static long countSteps(Supplier<Game> start, Game game, int[] line, int length, int depth) {
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int count = game.generateMoves(buffer, false);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            line[length] = buffer[i];
+            validate(game, buffer[i]);
+            int[] next = new int[MoveGenerator.MAX_MOVES];
+            if (PackedMove.isJump(buffer[i]) && game.generateMoves(next, true) > 0) {
+                // the chain goes on, so the game must not end the turn yet
+                if (game.makeMove()) {
+                    throw new IllegalStateException("The game ended a turn with a jump left to make.");
+                }
+                nodes += countSteps(start, game, line, length + 1, depth);
+            } else {
+                nodes += countThroughGame(start, line, length + 1, depth - 1);
+            }
+            game.backupMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Adds a step to a game's pending moves
+     *
+     * @param game given game
+     * @param move packed step
+     * @throws IllegalStateException if the game rejects the step
+     */
+    private static void validate(Game game, int move) {
+        Message message = game.validateMove(PackedMove.toMove(move));
+        if (!message.isSuccessful()) {
+            throw new IllegalStateException("The game rejects a move it generated: " + message.getText());
+        }
+    }
+
+    /**
+     * Counts the leaf nodes below a position
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @param depth    moves left to play
+     * @param ply      index of the move buffer to use
+     * @return number of leaf nodes
+     */
+    private long count(int own, int opponent, int kings, Piece.Color color, int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generate(own, opponent, kings, color, buffer, false);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            nodes += play(own, opponent, kings, color, buffer[i], depth, ply);
+        }
+        return nodes;
+    }
+
+    /**
+     * Plays one step of a move and counts the leaf nodes below it. A jump that
+     * can be continued is followed through every continuation before the turn
+     * passes, and a piece is only crowned once its move is over.
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @param move     packed step to play
+     * @param depth    moves left to play, including this one
+     * @param ply      index of the move buffer the step came from
+     * @return number of leaf nodes
+     */
+    private long play(int own, int opponent, int kings, Piece.Color color, int move, int depth, int ply) {
+        int fromBit = 1 << PackedMove.from(move);
+        int toBit = 1 << PackedMove.to(move);
+        own = own & ~fromBit | toBit;
+        if ((kings & fromBit) != 0) {
+            kings = kings & ~fromBit | toBit;
+        }
+        if (PackedMove.isJump(move)) {
+            int capturedBit = 1 << PackedMove.captured(move);
+            opponent &= ~capturedBit;
+            kings &= ~capturedBit;
+
+            int[] buffer = moves[ply + 1];
+            int count = MoveGenerator.generateJumps(own, opponent, kings, color, toBit, buffer, 0);
+            if (count > 0) {
+                long nodes = 0;
+                for (int i = 0; i < count; i++) {
+                    nodes += play(own, opponent, kings, color, buffer[i], depth, ply + 1);
+                }
+                return nodes;
+            }
+        }
+        kings |= toBit & own & MoveTables.kingRow(color);
+        Piece.Color other = color == Piece.Color.RED ? Piece.Color.WHITE : Piece.Color.RED;
+        return count(opponent, own, kings, other, depth - 1, ply + 1);
+    }
+
+    /**
+     * Prints the node counts and speed from the starting position
+     *
+     * @param args the deepest depth to count, 9 if not given
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 9;
+        BoardView board = new BoardView();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = perft(board.getRedMask(), board.getWhiteMask(), board.getKingMask(), Piece.Color.RED, depth);
+            long nanos = Math.max(1, System.nanoTime() - start);
+            System.out.printf("perft(%d) = %d in %.1f ms (%.0f nodes/s)%n",
+                    depth, nodes, nanos / 1e6, nodes * 1e9 / nanos);
+        }
+    }
+}
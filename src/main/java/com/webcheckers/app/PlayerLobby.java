@@ -62,6 +62,21 @@ public class PlayerLobby {
         return false;
     }
 
+    /**
+     * Adds a player played by the computer to the lobby
+     *
+     * @param botName str: bot name
+     * @return Player: the bot, or null if the name is taken
+     */
+    public synchronized Player addBot(String botName) {
+        if (lobby.containsKey(botName.toLowerCase())) {
+            return null;
+        }
+        Player bot = new Player(botName, true);
+        lobby.put(botName.toLowerCase(), bot);
+        return bot;
+    }
+
     /**
      * Removes a player from the map
      *
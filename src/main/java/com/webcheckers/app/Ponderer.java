@@ -0,0 +1,173 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Piece;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-tier searcher of hints before they are asked for
+ * <p>
+ * Once a turn is handed over, the player in turn's position is searched, and
+ * then the position the waiting player will face if the reply is the one the
+ * engine expects. Both results go into the engine's {@link HintCache}, so a
+ * hint asked for in either position is answered at once. Pondering runs on
+ * low-priority threads with a short queue; when the queue is full a game is
+ * not pondered. A game's pondering is given up as soon as its next turn is
+ * made.
+ *
+ * @author Anh Nguyen
+ */
+public class Ponderer {
+
+    /**
+     * Ponderer that never searches, for servers that do not ponder
+     */
+    public static final Ponderer NONE = new Ponderer();
+
+    /**
+     * Default number of threads pondering
+     */
+    public static final int DEFAULT_THREADS = 1;
+
+    // games that may wait for a thread, for each thread
+    private static final int QUEUE_PER_THREAD = 16;
+
+    // engine whose cache the results go into
+    private final HintEngine engine;
+
+    // pool pondering runs on, or null if there is no pondering
+    private final ThreadPoolExecutor executor;
+
+    // stop signal of each game being pondered
+    private final Map<Game, AtomicBoolean> pondering = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for a ponderer that never searches
+     */
+    private Ponderer() {
+        this.engine = null;
+        this.executor = null;
+    }
+
+    /**
+     * Constructor for a ponderer filling an engine's cache
+     *
+     * @param engine  engine with a {@link HintCache}
+     * @param threads threads pondering
+     */
+    public Ponderer(HintEngine engine, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Pondering needs at least one thread.");
+        }
+        if (engine.getCache().capacity() == 0) {
+            throw new IllegalArgumentException("Pondering needs a hint cache.");
+        }
+        this.engine = engine;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD), runnable -> {
+            Thread thread = new Thread(runnable, "ponder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            // only idle time goes into pondering
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts pondering a game whose turn was just handed over
+     *
+     * @param game the game
+     */
+    public void ponder(Game game) {
+        if (executor == null || game.isGameOver()) {
+            return;
+        }
+        // the position is read here, as the game is not safe to read from another thread
+        int[] masks = new int[3];
+        if (game.pendingPosition(masks) >= 0) {
+            return;
+        }
+        Piece.Color color = game.isRedPlayerTurn() ? Piece.Color.RED : Piece.Color.WHITE;
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicBoolean previous = pondering.put(game, stop);
+        if (previous != null) {
+            previous.set(true);
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    ponder(masks[0], masks[1], masks[2], color, stop);
+                } finally {
+                    pondering.remove(game, stop);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // every thread is busy; the hint is searched when asked for
+            pondering.remove(game, stop);
+        }
+    }
+
+    /**
+     * Ponders the player in turn's position, then the waiting player's
+     * position after the expected reply
+     */
+    private void ponder(int own, int opponent, int kings, Piece.Color color, AtomicBoolean stop) {
+        if (stop.get()) {
+            return;
+        }
+        SearchResult reply = engine.ponder(own, opponent, kings, color, stop);
+        if (reply == null || reply.getPackedMove() < 0 || stop.get()) {
+            return;
+        }
+        CompleteMoves moves = new CompleteMoves();
+        int count = moves.generate(own, opponent, kings, color, -1);
+        for (int i = 0; i < count; i++) {
+            // a chain that branches is followed down its first branch
+            if (moves.firstStep(i) == reply.getPackedMove()) {
+                if (moves.opponent(i) != 0) {
+                    Piece.Color other = color == Piece.Color.RED ? Piece.Color.WHITE : Piece.Color.RED;
+                    engine.ponder(moves.opponent(i), moves.own(i), moves.kings(i), other, stop);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gives up pondering a game, as its position is about to change
+     *
+     * @param game the game
+     */
+    public void cancel(Game game) {
+        AtomicBoolean stop = pondering.remove(game);
+        if (stop != null) {
+            stop.set(true);
+        }
+    }
+
+    /**
+     * Returns the number of games being pondered or waiting to be
+     *
+     * @return game count
+     */
+    public int getPondering() {
+        return pondering.size();
+    }
+
+    /**
+     * Stops the pool; pondering not yet started is dropped
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
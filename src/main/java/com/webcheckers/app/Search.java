@@ -0,0 +1,526 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application-tier lookahead search used for hints
+ * <p>
+ * Negamax with alpha-beta pruning over the board masks, deepened one move at
+ * a time up to a depth, node or time budget. A step of a chain of jumps keeps the
+ * same side to move and does not use up depth. Jumps are forced, so past the
+ * depth limit the search carries on while the side to move has a jump
+ * (quiescence), and only scores quiet positions. Moves are tried best first:
+ * the best move of the last iteration, then killer moves, then by history.
+ * <p>
+ * Given a {@link TranspositionTable}, positions already searched deep enough
+ * are answered from the table and its best moves are tried first. The
+ * positions are keyed by a {@link Zobrist} hash kept up to date along each line.
+ * <p>
+ * A Search keeps its own buffers and is not thread-safe; give each thread its own.
+ * Several Searches of the same position may run at once over a shared table, each
+ * reading the others' results from it, until a shared signal stops them.
+ *
+ * @author Anh Nguyen
+ */
+public class Search {
+
+    /**
+     * Score of a won position, less the number of steps to the win
+     */
+    public static final int WIN = 30000;
+
+    /**
+     * Scores beyond this are wins or losses
+     */
+    public static final int WIN_THRESHOLD = WIN - 1000;
+
+    // deepest line searched, in steps
+    private static final int MAX_PLY = 128;
+
+    // nodes searched between checks of the budget
+    private static final int CHECK_INTERVAL = 1024;
+
+    // piece values
+    private static final int MAN = 100;
+    private static final int KING = 150;
+    private static final int ADVANCE = 3;
+    private static final int BACK_ROW = 8;
+    private static final int CENTER = 6;
+
+    // [square] -> value of a red single piece, a white single piece and a king
+    private static final int[] RED_MAN_VALUE = new int[BoardView.NUM_SQUARES];
+    private static final int[] WHITE_MAN_VALUE = new int[BoardView.NUM_SQUARES];
+    private static final int[] KING_VALUE = new int[BoardView.NUM_SQUARES];
+
+    static {
+        for (int square = 0; square < BoardView.NUM_SQUARES; square++) {
+            int row = BoardView.rowOf(square);
+            int cell = BoardView.cellOf(square);
+            int last = BoardView.BOARD_LENGTH - 1;
+            RED_MAN_VALUE[square] = MAN + ADVANCE * (last - row) + (row == last ? BACK_ROW : 0);
+            WHITE_MAN_VALUE[square] = MAN + ADVANCE * row + (row == 0 ? BACK_ROW : 0);
+            boolean center = row >= 2 && row <= 5 && cell >= 2 && cell <= 5;
+            KING_VALUE[square] = KING + (center ? CENTER : 0);
+        }
+    }
+
+    // move and ordering buffers, one per step along the current line
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] order = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    // two quiet moves per ply that caused a cutoff
+    private final int[] killers = new int[MAX_PLY * 2];
+
+    // [from * NUM_SQUARES + to] -> how often a quiet move caused a cutoff, weighted by depth
+    private final int[] history = new int[BoardView.NUM_SQUARES * BoardView.NUM_SQUARES];
+
+    // table of searched positions, or null to search without one
+    private final TranspositionTable table;
+
+    // best move stored in the table for each ply
+    private final int[] tableMoves = new int[MAX_PLY];
+
+    /**
+     * Time budget meaning the search is not timed
+     */
+    public static final long NO_TIME_LIMIT = 0;
+
+    // budget of the running search
+    private long nodes;
+    private long maxNodes;
+    private long deadline;
+    private boolean timed;
+    private boolean stopped;
+
+    // signal from another thread to stop the running search, or null
+    private AtomicBoolean stopSignal;
+
+    // best move at the root of the last search
+    private int rootBest;
+
+    /**
+     * Constructor for a search without a transposition table
+     */
+    public Search() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a search sharing a transposition table
+     *
+     * @param table the table, or null to search without one
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches a game's position for the player in turn, continuing a
+     * pending chain of jumps if there is one
+     *
+     * @param game     given game
+     * @param maxDepth deepest search, in moves
+     * @param maxNodes most positions to search
+     * @return the best move found
+     */
+    public SearchResult search(Game game, int maxDepth, long maxNodes) {
+        return search(game, maxDepth, maxNodes, NO_TIME_LIMIT);
+    }
+
+    /**
+     * Searches a game's position for the player in turn within a time budget,
+     * continuing a pending chain of jumps if there is one
+     *
+     * @param game             given game
+     * @param maxDepth         deepest search, in moves
+     * @param maxNodes         most positions to search
+     * @param timeBudgetMillis wall-clock budget, or {@link #NO_TIME_LIMIT}
+     * @return the best move found
+     */
+    public SearchResult search(Game game, int maxDepth, long maxNodes, long timeBudgetMillis) {
+        int[] masks = new int[3];
+        int chainSquare = game.pendingPosition(masks);
+        Piece.Color color = game.isRedPlayerTurn() ? Piece.Color.RED : Piece.Color.WHITE;
+        return search(masks[0], masks[1], masks[2], color, chainSquare, maxDepth, maxNodes, timeBudgetMillis);
+    }
+
+    /**
+     * Searches a position without a time budget
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @param maxDepth    deepest search, in moves
+     * @param maxNodes    most positions to search
+     * @return the best move found
+     */
+    public SearchResult search(int own, int opponent, int kings, Piece.Color color,
+                               int chainSquare, int maxDepth, long maxNodes) {
+        return search(own, opponent, kings, color, chainSquare, maxDepth, maxNodes, NO_TIME_LIMIT);
+    }
+
+    /**
+     * Searches a position, deepening one move at a time until the depth, node
+     * or time budget runs out. A depth cut short by the budget is thrown away
+     * in favor of the last completed depth, which is always at least 1. A new
+     * depth is not started once half the time is gone, as it would most
+     * likely not finish.
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @param maxDepth    deepest search, in moves
+     * @param maxNodes    most positions to search
+     * @param timeBudgetMillis wall-clock budget, or {@link #NO_TIME_LIMIT}
+     * @return the best move found
+     */
+    public SearchResult search(int own, int opponent, int kings, Piece.Color color,
+                               int chainSquare, int maxDepth, long maxNodes, long timeBudgetMillis) {
+        return search(own, opponent, kings, color, chainSquare, maxDepth, maxNodes, timeBudgetMillis, 1, null);
+    }
+
+    /**
+     * Searches a position as {@link #search(int, int, int, Piece.Color, int, int, long, long)}
+     * does, alongside other searches of the same position. Starting at a
+     * different depth keeps the searches from all working on the same lines.
+     *
+     * @param own              mask of the moving side's pieces
+     * @param opponent         mask of the other side's pieces
+     * @param kings            mask of the kings
+     * @param color            color of the moving side
+     * @param chainSquare      square a pending chain of jumps must continue from, or -1
+     * @param maxDepth         deepest search, in moves
+     * @param maxNodes         most positions to search
+     * @param timeBudgetMillis wall-clock budget, or {@link #NO_TIME_LIMIT}
+     * @param firstDepth       depth to start deepening from
+     * @param stopSignal       stops the search once set, even within the first depth; or null
+     * @return the best move found
+     */
+    SearchResult search(int own, int opponent, int kings, Piece.Color color, int chainSquare,
+                        int maxDepth, long maxNodes, long timeBudgetMillis, int firstDepth, AtomicBoolean stopSignal) {
+        long start = System.nanoTime();
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.timed = timeBudgetMillis != NO_TIME_LIMIT;
+        this.deadline = start + budgetNanos;
+        this.nodes = 0;
+        this.stopped = false;
+        this.stopSignal = stopSignal;
+        this.rootBest = -1;
+        Arrays.fill(killers, 0);
+        Arrays.fill(history, 0);
+
+        long hash = Zobrist.hash(color == Piece.Color.RED ? own : opponent,
+                color == Piece.Color.RED ? opponent : own, kings, color == Piece.Color.WHITE);
+        int bestMove = -1;
+        int bestScore = 0;
+        int depthReached = 0;
+        int startDepth = Math.min(firstDepth, maxDepth);
+        for (int depth = startDepth; depth <= maxDepth; depth++) {
+            // the first depth always completes, so there is a move to return
+            boolean first = depth == startDepth;
+            this.maxNodes = first ? Long.MAX_VALUE : maxNodes;
+            this.timed = !first && timeBudgetMillis != NO_TIME_LIMIT;
+            int score = negamax(own, opponent, kings, color, hash, depth, -WIN - 1, WIN + 1, 0, chainSquare);
+            if (stopped && bestMove >= 0) {
+                break;
+            }
+            bestMove = rootBest;
+            bestScore = score;
+            depthReached = depth;
+            // no legal move, or the result is already certain
+            if (bestMove < 0 || stopped || Math.abs(score) > WIN_THRESHOLD) {
+                break;
+            }
+            if (timeBudgetMillis != NO_TIME_LIMIT && System.nanoTime() - start > budgetNanos / 2) {
+                break;
+            }
+        }
+        return new SearchResult(bestMove, bestScore, depthReached, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Scores a position for the side to move
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param hash        Zobrist hash of the position
+     * @param depth       moves left to search
+     * @param alpha       score the side to move is already assured of
+     * @param beta        score the other side is already assured of
+     * @param ply         steps from the root
+     * @param chainSquare square a chain of jumps must continue from, or -1
+     * @return score of the position
+     */
+    private int negamax(int own, int opponent, int kings, Piece.Color color, long hash,
+                        int depth, int alpha, int beta, int ply, int chainSquare) {
+        nodes++;
+        if (nodes % CHECK_INTERVAL == 0 &&
+                (nodes >= maxNodes || (timed && System.nanoTime() - deadline >= 0)
+                        || (stopSignal != null && stopSignal.get()))) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate(own, opponent, kings, color);
+        }
+
+        // positions in the middle of a chain of jumps are not stored, as the hash
+        // does not say which piece must go on
+        boolean useTable = table != null && chainSquare < 0 && depth > 0;
+        tableMoves[ply] = -1;
+        if (useTable) {
+            long entry = table.probe(hash);
+            if (entry != 0) {
+                tableMoves[ply] = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = fromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT ||
+                            (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                            (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int[] buffer = moves[ply];
+        int count;
+        if (chainSquare >= 0) {
+            count = MoveGenerator.generateJumps(own, opponent, kings, color, 1 << chainSquare, buffer, 0);
+        } else if (depth <= 0) {
+            // quiescence: only forced jumps are searched past the depth limit
+            count = MoveGenerator.generateJumps(own, opponent, kings, color, own, buffer, 0);
+            if (count == 0) {
+                return own == 0 ? -WIN + ply : evaluate(own, opponent, kings, color);
+            }
+        } else {
+            count = MoveGenerator.generate(own, opponent, kings, color, buffer, false);
+        }
+        if (count == 0) {
+            // no move left loses
+            return -WIN + ply;
+        }
+        orderMoves(buffer, count, ply);
+
+        int originalAlpha = alpha;
+        int best = -WIN - 1;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            int score = play(own, opponent, kings, color, hash, move, depth, alpha, beta, ply);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBest = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        recordCutoff(move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (useTable) {
+            int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                    : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+            table.store(hash, bestMove, toTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    /**
+     * Converts a score to be stored in the table. Win and loss scores count
+     * the steps from the root, so they are stored counting from the position.
+     *
+     * @param score score at a ply
+     * @param ply   steps from the root
+     * @return score to store
+     */
+    private static int toTable(int score, int ply) {
+        if (score > WIN_THRESHOLD) {
+            return score + ply;
+        } else if (score < -WIN_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Converts a score read from the table back to a score at a ply
+     *
+     * @param score stored score
+     * @param ply   steps from the root
+     * @return score at the ply
+     */
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_THRESHOLD) {
+            return score - ply;
+        } else if (score < -WIN_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Plays one step and scores the position after it. A jump that can be
+     * continued is searched further with the same side to move, and a piece
+     * is only crowned once its move is over.
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @param hash     Zobrist hash of the position
+     * @param move     packed step to play
+     * @param depth    moves left to search, including this one
+     * @param alpha    score the side to move is already assured of
+     * @param beta     score the other side is already assured of
+     * @param ply      steps from the root
+     * @return score of the step for the side to move
+     */
+    private int play(int own, int opponent, int kings, Piece.Color color, long hash,
+                     int move, int depth, int alpha, int beta, int ply) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int fromBit = 1 << from;
+        int toBit = 1 << to;
+        boolean king = (kings & fromBit) != 0;
+        own = own & ~fromBit | toBit;
+        hash ^= Zobrist.piece(color, king, from) ^ Zobrist.piece(color, king, to);
+        if (king) {
+            kings = kings & ~fromBit | toBit;
+        }
+        Piece.Color other = color == Piece.Color.RED ? Piece.Color.WHITE : Piece.Color.RED;
+        if (PackedMove.isJump(move)) {
+            int captured = PackedMove.captured(move);
+            int capturedBit = 1 << captured;
+            hash ^= Zobrist.piece(other, (kings & capturedBit) != 0, captured);
+            opponent &= ~capturedBit;
+            kings &= ~capturedBit;
+            if (MoveGenerator.jumpers(own, opponent, kings, color, toBit) != 0) {
+                return negamax(own, opponent, kings, color, hash, depth, alpha, beta, ply + 1, to);
+            }
+        }
+        if (!king && (toBit & MoveTables.kingRow(color)) != 0) {
+            kings |= toBit;
+            hash ^= Zobrist.piece(color, false, to) ^ Zobrist.piece(color, true, to);
+        }
+        hash ^= Zobrist.sideToMove();
+        return -negamax(opponent, own, kings, other, hash, depth - 1, -beta, -alpha, ply + 1, -1);
+    }
+
+    /**
+     * Sorts moves so the most promising are tried first
+     *
+     * @param buffer moves to sort
+     * @param count  number of moves
+     * @param ply    steps from the root
+     */
+    private void orderMoves(int[] buffer, int count, int ply) {
+        int[] scores = order[ply];
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            int score;
+            if (ply == 0 && move == rootBest) {
+                score = Integer.MAX_VALUE;
+            } else if (move == tableMoves[ply]) {
+                score = Integer.MAX_VALUE - 1;
+            } else if (move == killers[ply * 2]) {
+                score = Integer.MAX_VALUE - 2;
+            } else if (move == killers[ply * 2 + 1]) {
+                score = Integer.MAX_VALUE - 3;
+            } else {
+                score = history[PackedMove.from(move) * BoardView.NUM_SQUARES + PackedMove.to(move)];
+            }
+            // insertion sort, highest score first
+            int j = i;
+            while (j > 0 && scores[j - 1] < score) {
+                scores[j] = scores[j - 1];
+                buffer[j] = buffer[j - 1];
+                j--;
+            }
+            scores[j] = score;
+            buffer[j] = move;
+        }
+    }
+
+    /**
+     * Remembers a quiet move that caused a cutoff, to try it early elsewhere
+     *
+     * @param move  the move
+     * @param depth moves left to search
+     * @param ply   steps from the root
+     */
+    private void recordCutoff(int move, int depth, int ply) {
+        if (PackedMove.isJump(move)) {
+            return;
+        }
+        if (killers[ply * 2] != move) {
+            killers[ply * 2 + 1] = killers[ply * 2];
+            killers[ply * 2] = move;
+        }
+        history[PackedMove.from(move) * BoardView.NUM_SQUARES + PackedMove.to(move)] += depth * depth;
+    }
+
+    /**
+     * Scores a quiet position for the side to move by material and placement
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @return score in hundredths of a piece
+     */
+    static int evaluate(int own, int opponent, int kings, Piece.Color color) {
+        int red = color == Piece.Color.RED ? own : opponent;
+        int white = color == Piece.Color.RED ? opponent : own;
+        int score = sum(red & ~kings, RED_MAN_VALUE) + sum(red & kings, KING_VALUE)
+                - sum(white & ~kings, WHITE_MAN_VALUE) - sum(white & kings, KING_VALUE);
+        return color == Piece.Color.RED ? score : -score;
+    }
+
+    /**
+     * Adds up the values of the pieces on the squares of a mask
+     *
+     * @param mask   given squares
+     * @param values value of a piece on each square
+     * @return total value
+     */
+    private static int sum(int mask, int[] values) {
+        int total = 0;
+        while (mask != 0) {
+            total += values[Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of positions searched by the last search
+     *
+     * @return node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,158 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.PackedMove;
+
+/**
+ * Application-tier result of a {@link Search}
+ *
+ * @author Anh Nguyen
+ */
+public class SearchResult {
+
+    /**
+     * Where a result came from
+     */
+    public enum Source {
+        SEARCH, TABLEBASE, OPENING_BOOK
+    }
+
+    /**
+     * Best move found as a {@link PackedMove}, or -1 if there is no legal move
+     */
+    private final int move;
+
+    /**
+     * Score of the best move for the side to move, in hundredths of a piece
+     */
+    private final int score;
+
+    /**
+     * Deepest search that was completed
+     */
+    private final int depth;
+
+    /**
+     * Number of positions searched
+     */
+    private final long nodes;
+
+    /**
+     * Time the search took, in nanoseconds
+     */
+    private final long nanos;
+
+    /**
+     * Where the result came from
+     */
+    private final Source source;
+
+    /**
+     * Constructor for a search result
+     *
+     * @param move  best move as a packed move, or -1 if there is none
+     * @param score score of the best move
+     * @param depth deepest completed depth
+     * @param nodes positions searched
+     * @param nanos time taken, in nanoseconds
+     */
+    public SearchResult(int move, int score, int depth, long nodes, long nanos) {
+        this(move, score, depth, nodes, nanos, Source.SEARCH);
+    }
+
+    /**
+     * Constructor for a result that may not come from a search
+     *
+     * @param move   best move as a packed move, or -1 if there is none
+     * @param score  score of the best move
+     * @param depth  deepest completed depth
+     * @param nodes  positions searched
+     * @param nanos  time taken, in nanoseconds
+     * @param source where the result came from
+     */
+    public SearchResult(int move, int score, int depth, long nodes, long nanos, Source source) {
+        this.source = source;
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Returns the best move as a packed move
+     *
+     * @return packed move, or -1 if there is no legal move
+     */
+    public int getPackedMove() {
+        return move;
+    }
+
+    /**
+     * Returns the best move
+     *
+     * @return the move, or null if there is no legal move
+     */
+    public Move getMove() {
+        return move < 0 ? null : PackedMove.toMove(move);
+    }
+
+    /**
+     * Returns the score of the best move for the side to move
+     *
+     * @return score in hundredths of a piece
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the deepest search that was completed
+     *
+     * @return depth reached
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of positions searched
+     *
+     * @return node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the time the search took
+     *
+     * @return time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Returns where the result came from
+     *
+     * @return the source
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the search speed
+     *
+     * @return positions searched per second
+     */
+    public long getNodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return getMove() + " (score " + score + ", depth " + depth + ", " + nodes + " nodes)";
+    }
+}
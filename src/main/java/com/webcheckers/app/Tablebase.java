@@ -0,0 +1,370 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Application-tier endgame table, read from a file built by {@link TablebaseGenerator}
+ * <p>
+ * For every position with up to a few pieces the table knows whether the
+ * side to move wins, loses or draws with best play, and in how many moves.
+ * Positions are grouped in slices by their number of red single pieces, red
+ * kings, white single pieces and white kings. Within a slice a position's
+ * index is worked out from its masks, so a probe is a single read of a
+ * memory-mapped file and the table is never loaded onto the heap.
+ * <p>
+ * A value of the table is 0 for a draw, or one more than the number of
+ * moves to the end of the game: odd if the side to move loses, even if it
+ * wins. A move is a whole turn, chain of jumps and all.
+ *
+ * @author Anh Nguyen
+ */
+public class Tablebase {
+
+    /**
+     * Probe result for a position the table does not cover
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Value of a drawn position
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * Most pieces a table may cover
+     */
+    public static final int MAX_PIECES = 6;
+
+    /**
+     * Table covering no positions
+     */
+    public static final Tablebase EMPTY = new Tablebase(0, new ByteBuffer[1]);
+
+    // start of a table file, and its format version
+    static final int MAGIC = 0x57435442;
+    static final int VERSION = 1;
+
+    // bytes in the file header, before the slice offsets
+    static final int HEADER_BYTES = 16;
+
+    // [n][k] -> n choose k, for ranking sets of squares
+    private static final long[][] CHOOSE = new long[33][MAX_PIECES + 1];
+
+    static {
+        for (int n = 0; n <= 32; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= MAX_PIECES; k++) {
+                CHOOSE[n][k] = n == 0 ? 0 : CHOOSE[n - 1][k - 1] + CHOOSE[n - 1][k];
+            }
+        }
+    }
+
+    // most pieces covered
+    private final int maxPieces;
+
+    // [slice number] -> the slice's values, or null if the file has none for it
+    private final ByteBuffer[] slices;
+
+    /**
+     * Constructor for a table over slices already read
+     *
+     * @param maxPieces most pieces covered
+     * @param slices    values of each slice, by slice number
+     */
+    Tablebase(int maxPieces, ByteBuffer[] slices) {
+        this.maxPieces = maxPieces;
+        this.slices = slices;
+    }
+
+    /**
+     * Opens a table file, mapping each slice into memory
+     *
+     * @param file the table file
+     * @return the table
+     * @throws IOException if the file cannot be read or is not a table
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(file + " is not an endgame table.");
+            }
+            int maxPieces = header.getInt();
+            int sliceCount = header.getInt();
+            if (maxPieces < 1 || maxPieces > MAX_PIECES || sliceCount != sliceCount(maxPieces)) {
+                throw new IOException(file + " has a bad header.");
+            }
+
+            ByteBuffer offsets = ByteBuffer.allocate(sliceCount * 2 * Long.BYTES);
+            readFully(channel, offsets, HEADER_BYTES);
+            offsets.flip();
+            ByteBuffer[] slices = new ByteBuffer[sliceCount];
+            for (int slice = 0; slice < sliceCount; slice++) {
+                long offset = offsets.getLong();
+                long length = offsets.getLong();
+                if (length > 0) {
+                    // the mapping stays valid after the channel is closed
+                    slices[slice] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                }
+            }
+            return new Tablebase(maxPieces, slices);
+        }
+    }
+
+    /**
+     * Reads from a channel until a buffer is full
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("The endgame table file is cut short.");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Returns the most pieces the table covers
+     *
+     * @return piece count, or 0 for the empty table
+     */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param red         mask of the red pieces
+     * @param white       mask of the white pieces
+     * @param kings       mask of the kings
+     * @param whiteToMove true if white is to move
+     * @return the position's value, or {@link #NOT_FOUND} if the table does not cover it
+     */
+    public int probe(int red, int white, int kings, boolean whiteToMove) {
+        int slice = sliceOf(red, white, kings, maxPieces);
+        if (slice < 0 || slices[slice] == null) {
+            return NOT_FOUND;
+        }
+        return slices[slice].get((int) index(red, white, kings, whiteToMove)) & 0xFF;
+    }
+
+    /**
+     * Looks up a position from the side to move
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings
+     * @param color    color of the moving side
+     * @return the position's value, or {@link #NOT_FOUND} if the table does not cover it
+     */
+    public int probe(int own, int opponent, int kings, Piece.Color color) {
+        return color == Piece.Color.RED ? probe(own, opponent, kings, false) : probe(opponent, own, kings, true);
+    }
+
+    /**
+     * Finds the best move in a position the table covers: the fastest win,
+     * else a draw, else the slowest loss
+     *
+     * @param own         mask of the moving side's pieces
+     * @param opponent    mask of the other side's pieces
+     * @param kings       mask of the kings
+     * @param color       color of the moving side
+     * @param chainSquare square a pending chain of jumps must continue from, or -1
+     * @return the best move, scored as a search would, or null if the table does not cover the position
+     */
+    public SearchResult bestMove(int own, int opponent, int kings, Piece.Color color, int chainSquare) {
+        long start = System.nanoTime();
+        if (own == 0 || Integer.bitCount(own | opponent) > maxPieces) {
+            return null;
+        }
+        CompleteMoves moves = new CompleteMoves();
+        int count = moves.generate(own, opponent, kings, color, chainSquare);
+        Piece.Color other = color == Piece.Color.RED ? Piece.Color.WHITE : Piece.Color.RED;
+        int bestMove = -1;
+        int bestScore = -Search.WIN - 1;
+        int bestDistance = 0;
+        for (int i = 0; i < count; i++) {
+            int value = moves.opponent(i) == 0 ? 1
+                    : probe(moves.opponent(i), moves.own(i), moves.kings(i), other);
+            if (value == NOT_FOUND) {
+                return null;
+            }
+            // the value is the other side's, after the move
+            int score = value == DRAW ? 0 : isLoss(value) ? Search.WIN - value : -Search.WIN + value;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves.firstStep(i);
+                bestDistance = value == DRAW ? 0 : value;
+            }
+        }
+        if (count == 0) {
+            bestScore = -Search.WIN;
+        }
+        return new SearchResult(bestMove, bestScore, bestDistance, count, System.nanoTime() - start,
+                SearchResult.Source.TABLEBASE);
+    }
+
+    /**
+     * Checks if a value is a win for the side to move
+     *
+     * @param value table value
+     * @return true if the side to move wins
+     */
+    public static boolean isWin(int value) {
+        return value > 0 && (value & 1) == 0;
+    }
+
+    /**
+     * Checks if a value is a loss for the side to move
+     *
+     * @param value table value
+     * @return true if the side to move loses
+     */
+    public static boolean isLoss(int value) {
+        return value > 0 && (value & 1) == 1;
+    }
+
+    /**
+     * Returns the number of moves to the end of the game
+     *
+     * @param value table value of a won or lost position
+     * @return moves left, with best play
+     */
+    public static int distance(int value) {
+        return value - 1;
+    }
+
+    /**
+     * Returns the number of slices of a table
+     *
+     * @param maxPieces most pieces covered
+     * @return slice count
+     */
+    static int sliceCount(int maxPieces) {
+        int base = maxPieces + 1;
+        return base * base * base * base;
+    }
+
+    /**
+     * Returns the number of a slice
+     *
+     * @param redMen     number of red single pieces
+     * @param redKings   number of red kings
+     * @param whiteMen   number of white single pieces
+     * @param whiteKings number of white kings
+     * @param maxPieces  most pieces covered
+     * @return slice number
+     */
+    static int sliceNumber(int redMen, int redKings, int whiteMen, int whiteKings, int maxPieces) {
+        int base = maxPieces + 1;
+        return ((whiteKings * base + whiteMen) * base + redKings) * base + redMen;
+    }
+
+    /**
+     * Returns the slice of a position
+     *
+     * @param red       mask of the red pieces
+     * @param white     mask of the white pieces
+     * @param kings     mask of the kings
+     * @param maxPieces most pieces covered
+     * @return slice number, or -1 if a side has no pieces or there are too many
+     */
+    static int sliceOf(int red, int white, int kings, int maxPieces) {
+        if (red == 0 || white == 0 || Integer.bitCount(red | white) > maxPieces) {
+            return -1;
+        }
+        return sliceNumber(Integer.bitCount(red & ~kings), Integer.bitCount(red & kings),
+                Integer.bitCount(white & ~kings), Integer.bitCount(white & kings), maxPieces);
+    }
+
+    /**
+     * Returns the number of positions in a slice, counting both sides to move.
+     * The positions are indexed as if each kind of piece could take any square,
+     * which leaves some indexes unused but keeps the index quick to work out.
+     *
+     * @param redMen     number of red single pieces
+     * @param redKings   number of red kings
+     * @param whiteMen   number of white single pieces
+     * @param whiteKings number of white kings
+     * @return slice size
+     */
+    static long sliceSize(int redMen, int redKings, int whiteMen, int whiteKings) {
+        return CHOOSE[32][redMen] * CHOOSE[32][redKings] * CHOOSE[32][whiteMen] * CHOOSE[32][whiteKings] * 2;
+    }
+
+    /**
+     * Returns the index of a position within its slice
+     *
+     * @param red         mask of the red pieces
+     * @param white       mask of the white pieces
+     * @param kings       mask of the kings
+     * @param whiteToMove true if white is to move
+     * @return index
+     */
+    static long index(int red, int white, int kings, boolean whiteToMove) {
+        int whiteKings = white & kings;
+        int whiteMen = white & ~kings;
+        int redKings = red & kings;
+        long index = rank(red & ~kings);
+        index = index * CHOOSE[32][Integer.bitCount(redKings)] + rank(redKings);
+        index = index * CHOOSE[32][Integer.bitCount(whiteMen)] + rank(whiteMen);
+        index = index * CHOOSE[32][Integer.bitCount(whiteKings)] + rank(whiteKings);
+        return index * 2 + (whiteToMove ? 1 : 0);
+    }
+
+    /**
+     * Returns the rank of a set of squares among the sets of the same size,
+     * in the combinatorial number system
+     *
+     * @param mask the squares
+     * @return rank, from 0 to 32 choose the size, less one
+     */
+    static long rank(int mask) {
+        long rank = 0;
+        for (int k = 1; mask != 0; k++) {
+            rank += CHOOSE[Integer.numberOfTrailingZeros(mask)][k];
+            mask &= mask - 1;
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the set of squares of a rank, the reverse of {@link #rank(int)}
+     *
+     * @param rank rank of the set
+     * @param size number of squares in the set
+     * @return mask of the squares
+     */
+    static int unrank(long rank, int size) {
+        int mask = 0;
+        int square = 32;
+        for (int k = size; k > 0; k--) {
+            do {
+                square--;
+            } while (CHOOSE[square][k] > rank);
+            mask |= 1 << square;
+            rank -= CHOOSE[square][k];
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the number of sets of a size
+     *
+     * @param size number of squares in a set
+     * @return 32 choose the size
+     */
+    static long combinations(int size) {
+        return CHOOSE[32][size];
+    }
+}
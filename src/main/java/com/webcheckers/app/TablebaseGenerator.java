@@ -0,0 +1,393 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.MoveTables;
+import com.webcheckers.model.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Application-tier builder of the endgame table read by {@link Tablebase}
+ * <p>
+ * Slices are solved from the fewest pieces up, and within a piece count
+ * from the most kings up, so the positions a capture or a crowning leads to
+ * are always solved first. Each slice is solved backwards from the end of
+ * the game in passes: pass 0 finds the positions with no move, and pass k
+ * the positions won (k odd) or lost (k even) in k moves, from the positions
+ * already solved in earlier passes. The positions still unsolved when the
+ * passes stop finding any are draws.
+ * <p>
+ * Each pass is shared out over a number of threads. Every solved slice is
+ * saved to a work directory, so a generation that is stopped carries on
+ * from the last solved slice when run again. It is also written into the
+ * table file as soon as it is solved, and read back from there through a
+ * memory map, so only the slice being solved is kept on the heap.
+ *
+ * @author Anh Nguyen
+ */
+public class TablebaseGenerator {
+    private static final Logger LOG = Logger.getLogger(TablebaseGenerator.class.getName());
+
+    /**
+     * Default most pieces covered by a generated table
+     */
+    public static final int DEFAULT_MAX_PIECES = 4;
+
+    // positions handed to a thread at a time
+    private static final int CHUNK = 1 << 16;
+
+    // most moves to the end that a table value can hold
+    private static final int MAX_VALUE = 0xFF;
+
+    // most pieces covered
+    private final int maxPieces;
+
+    // threads sharing each pass
+    private final int threads;
+
+    // directory holding the slices solved so far
+    private final Path workDirectory;
+
+    // [slice number] -> values of a solved slice, mapped from the table file, or null
+    private final ByteBuffer[] solved;
+
+    // largest value in the slices solved so far
+    private int maxSolvedValue;
+
+    /**
+     * Constructor for a generator
+     *
+     * @param maxPieces     most pieces covered, from 2 to {@link Tablebase#MAX_PIECES}
+     * @param threads       threads sharing the work
+     * @param workDirectory directory to keep solved slices in
+     */
+    public TablebaseGenerator(int maxPieces, int threads, Path workDirectory) {
+        if (maxPieces < 2 || maxPieces > Tablebase.MAX_PIECES) {
+            throw new IllegalArgumentException("A table covers from 2 to " + Tablebase.MAX_PIECES + " pieces.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Generating needs at least one thread.");
+        }
+        this.maxPieces = maxPieces;
+        this.threads = threads;
+        this.workDirectory = workDirectory;
+        this.solved = new ByteBuffer[Tablebase.sliceCount(maxPieces)];
+    }
+
+    /**
+     * Solves every slice, or loads it if an earlier run solved it, and writes the table
+     *
+     * @param output file to write the table to
+     * @return the table, opened from the file
+     * @throws IOException if a file cannot be read or written
+     */
+    public Tablebase generate(Path output) throws IOException {
+        Files.createDirectories(workDirectory);
+        List<int[]> slices = slices();
+        long[] offsets = offsets(slices);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tablebase-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // written under another name first, so a stopped run never leaves half a table
+        Path partial = output.resolveSibling(output.getFileName() + ".part");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            writeHeader(channel, slices, offsets);
+            for (int[] slice : slices) {
+                solve(slice, offsets, channel, pool);
+            }
+            channel.force(false);
+        } finally {
+            pool.shutdownNow();
+            Arrays.fill(solved, null);
+        }
+        Files.move(partial, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Tablebase.open(output);
+    }
+
+    /**
+     * Lists the slices in the order they are solved: by pieces, then by single pieces
+     *
+     * @return each slice's red single pieces, red kings, white single pieces and white kings
+     */
+    private List<int[]> slices() {
+        List<int[]> slices = new ArrayList<>();
+        for (int redMen = 0; redMen <= maxPieces; redMen++) {
+            for (int redKings = 0; redMen + redKings <= maxPieces; redKings++) {
+                for (int whiteMen = 0; redMen + redKings + whiteMen <= maxPieces; whiteMen++) {
+                    for (int whiteKings = 0; redMen + redKings + whiteMen + whiteKings <= maxPieces; whiteKings++) {
+                        if (redMen + redKings > 0 && whiteMen + whiteKings > 0) {
+                            slices.add(new int[]{redMen, redKings, whiteMen, whiteKings});
+                        }
+                    }
+                }
+            }
+        }
+        slices.sort(Comparator.<int[]>comparingInt(s -> s[0] + s[1] + s[2] + s[3])
+                .thenComparingInt(s -> s[0] + s[2]));
+        return slices;
+    }
+
+    /**
+     * Solves a slice, or copies it from the work directory, into the table
+     * file, and maps it back from there
+     *
+     * @param slice   the slice's piece counts
+     * @param offsets [slice number] -> offset of the slice in the table file
+     * @param channel the table file
+     * @param pool    threads sharing the passes
+     * @throws IOException if the slice cannot be read or saved
+     */
+    private void solve(int[] slice, long[] offsets, FileChannel channel, ExecutorService pool) throws IOException {
+        int number = Tablebase.sliceNumber(slice[0], slice[1], slice[2], slice[3], maxPieces);
+        long size = Tablebase.sliceSize(slice[0], slice[1], slice[2], slice[3]);
+        Path file = workDirectory.resolve(String.format("slice-%d-%d-%d-%d.bin", slice[0], slice[1], slice[2], slice[3]));
+        if (Files.exists(file) && Files.size(file) == size) {
+            try (FileChannel saved = FileChannel.open(file, StandardOpenOption.READ)) {
+                for (long copied = 0; copied < size; ) {
+                    copied += saved.transferTo(copied, size - copied, channel.position(offsets[number] + copied));
+                }
+            }
+        } else {
+            byte[] values = new byte[(int) size];
+            // moves that neither capture nor crown stay in the slice being solved
+            solved[number] = ByteBuffer.wrap(values);
+            long start = System.nanoTime();
+            int emptyPasses = 0;
+            for (int pass = 0; emptyPasses < 2 || pass <= maxSolvedValue; pass++) {
+                if (pass + 1 > MAX_VALUE) {
+                    throw new IllegalStateException("A game in slice " + file + " is too long to store.");
+                }
+                long changed = runPass(slice, values, pass, pool);
+                emptyPasses = changed == 0 ? emptyPasses + 1 : 0;
+            }
+            LOG.info(String.format("Solved %s in %d ms.", file.getFileName(), (System.nanoTime() - start) / 1_000_000));
+
+            // written under another name first, so a stopped run never leaves half a slice
+            Path partial = workDirectory.resolve(file.getFileName() + ".part");
+            Files.write(partial, values);
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writeFully(channel, ByteBuffer.wrap(values), offsets[number]);
+        }
+        // the heap copy is dropped; later slices read this one from the table file
+        ByteBuffer values = channel.map(FileChannel.MapMode.READ_ONLY, offsets[number], size);
+        solved[number] = values;
+        for (int index = 0; index < size; index++) {
+            maxSolvedValue = Math.max(maxSolvedValue, values.get(index) & 0xFF);
+        }
+    }
+
+    /**
+     * Runs one pass over a slice, shared out over the threads in chunks
+     *
+     * @param slice  the slice's piece counts
+     * @param values the slice's values
+     * @param pass   the pass, which is also the moves to the end of the positions it solves
+     * @param pool   threads sharing the pass
+     * @return number of positions solved
+     */
+    private long runPass(int[] slice, byte[] values, int pass, ExecutorService pool) {
+        List<Future<Long>> chunks = new ArrayList<>();
+        for (int first = 0; first < values.length; first += CHUNK) {
+            int from = first;
+            int to = Math.min(values.length, first + CHUNK);
+            chunks.add(pool.submit(() -> runPass(slice, values, pass, from, to)));
+        }
+        long changed = 0;
+        try {
+            for (Future<Long> chunk : chunks) {
+                changed += chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generating was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A pass failed.", e.getCause());
+        }
+        return changed;
+    }
+
+    /**
+     * Runs one pass over a range of a slice. A pass only reads values
+     * solved in earlier passes, so threads solving the same pass do not
+     * depend on each other's writes.
+     *
+     * @param slice  the slice's piece counts
+     * @param values the slice's values
+     * @param pass   the pass
+     * @param from   first index of the range
+     * @param to     index past the range
+     * @return number of positions solved
+     */
+    private long runPass(int[] slice, byte[] values, int pass, int from, int to) {
+        CompleteMoves moves = new CompleteMoves();
+        long redKingsCount = Tablebase.combinations(slice[1]);
+        long whiteMenCount = Tablebase.combinations(slice[2]);
+        long whiteKingsCount = Tablebase.combinations(slice[3]);
+        int pieces = slice[0] + slice[1] + slice[2] + slice[3];
+        long changed = 0;
+        for (int index = from; index < to; index++) {
+            if (values[index] != 0) {
+                continue;
+            }
+            // the reverse of Tablebase.index
+            boolean whiteToMove = (index & 1) != 0;
+            long rest = index >>> 1;
+            int whiteKings = Tablebase.unrank(rest % whiteKingsCount, slice[3]);
+            rest /= whiteKingsCount;
+            int whiteMen = Tablebase.unrank(rest % whiteMenCount, slice[2]);
+            rest /= whiteMenCount;
+            int redKings = Tablebase.unrank(rest % redKingsCount, slice[1]);
+            int redMen = Tablebase.unrank(rest / redKingsCount, slice[0]);
+            int red = redMen | redKings;
+            int white = whiteMen | whiteKings;
+            // overlapping pieces, or single pieces on their own king row, are not positions
+            if (Integer.bitCount(red | white) != pieces ||
+                    (redMen & MoveTables.kingRow(Piece.Color.RED)) != 0 ||
+                    (whiteMen & MoveTables.kingRow(Piece.Color.WHITE)) != 0) {
+                continue;
+            }
+
+            int value = solve(red, white, redKings | whiteKings, whiteToMove, pass, moves);
+            if (value != 0) {
+                values[index] = (byte) value;
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Tries to solve a position in a pass
+     *
+     * @param red         mask of the red pieces
+     * @param white       mask of the white pieces
+     * @param kings       mask of the kings
+     * @param whiteToMove true if white is to move
+     * @param pass        the pass
+     * @param moves       move lists to use
+     * @return the position's value, or 0 if this pass does not solve it
+     */
+    private int solve(int red, int white, int kings, boolean whiteToMove, int pass, CompleteMoves moves) {
+        Piece.Color color = whiteToMove ? Piece.Color.WHITE : Piece.Color.RED;
+        int count = whiteToMove ? moves.generate(white, red, kings, color, -1)
+                : moves.generate(red, white, kings, color, -1);
+        if (pass == 0) {
+            // no move left loses
+            return count == 0 ? 1 : 0;
+        }
+        boolean winPass = (pass & 1) == 1;
+        for (int i = 0; i < count; i++) {
+            int opponent = moves.opponent(i);
+            int value;
+            if (opponent == 0) {
+                // taking the last piece wins at once
+                value = 1;
+            } else {
+                int successorRed = whiteToMove ? opponent : moves.own(i);
+                int successorWhite = whiteToMove ? moves.own(i) : opponent;
+                int kingsAfter = moves.kings(i);
+                ByteBuffer values = solved[Tablebase.sliceOf(successorRed, successorWhite, kingsAfter, maxPieces)];
+                value = values.get((int) Tablebase.index(successorRed, successorWhite, kingsAfter, !whiteToMove)) & 0xFF;
+            }
+            // only values solved in earlier passes count
+            boolean known = value != 0 && value <= pass;
+            if (winPass && known && Tablebase.isLoss(value)) {
+                return pass + 1;
+            }
+            if (!winPass && !(known && Tablebase.isWin(value))) {
+                return 0;
+            }
+        }
+        return winPass || count == 0 ? 0 : pass + 1;
+    }
+
+    /**
+     * Lays the slices out in the table file, after the header, in the order they are solved
+     *
+     * @param slices the slices' piece counts
+     * @return [slice number] -> offset of the slice in the table file
+     */
+    private long[] offsets(List<int[]> slices) {
+        int sliceCount = Tablebase.sliceCount(maxPieces);
+        long[] offsets = new long[sliceCount];
+        long offset = Tablebase.HEADER_BYTES + (long) sliceCount * 2 * Long.BYTES;
+        for (int[] slice : slices) {
+            offsets[Tablebase.sliceNumber(slice[0], slice[1], slice[2], slice[3], maxPieces)] = offset;
+            offset += Tablebase.sliceSize(slice[0], slice[1], slice[2], slice[3]);
+        }
+        return offsets;
+    }
+
+    /**
+     * Writes the header of a table file: the table's size and where each slice is
+     *
+     * @param channel the table file
+     * @param slices  the slices' piece counts
+     * @param offsets [slice number] -> offset of the slice in the table file
+     * @throws IOException if the file cannot be written
+     */
+    private void writeHeader(FileChannel channel, List<int[]> slices, long[] offsets) throws IOException {
+        int sliceCount = Tablebase.sliceCount(maxPieces);
+        long[] lengths = new long[sliceCount];
+        for (int[] slice : slices) {
+            lengths[Tablebase.sliceNumber(slice[0], slice[1], slice[2], slice[3], maxPieces)] =
+                    Tablebase.sliceSize(slice[0], slice[1], slice[2], slice[3]);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES + sliceCount * 2 * Long.BYTES);
+        header.putInt(Tablebase.MAGIC).putInt(Tablebase.VERSION).putInt(maxPieces).putInt(sliceCount);
+        for (int number = 0; number < sliceCount; number++) {
+            header.putLong(offsets[number]).putLong(lengths[number]);
+        }
+        header.flip();
+        writeFully(channel, header, 0);
+    }
+
+    /**
+     * Writes a whole buffer to a channel at a position
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Generates a table file
+     *
+     * @param args output file, then optionally the most pieces, the threads
+     *             and the work directory
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TablebaseGenerator <output file> [max pieces] [threads] [work directory]");
+            System.exit(1);
+        }
+        Path output = Paths.get(args[0]);
+        int maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_PIECES;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path workDirectory = args.length > 3 ? Paths.get(args[3]) : output.resolveSibling(output.getFileName() + ".work");
+        long start = System.nanoTime();
+        new TablebaseGenerator(maxPieces, threads, workDirectory).generate(output);
+        System.out.printf("Wrote %s in %d s%n", output, (System.nanoTime() - start) / 1_000_000_000L);
+    }
+}
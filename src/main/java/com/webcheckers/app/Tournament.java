@@ -0,0 +1,381 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Application-tier runner of engine-against-engine games, for measuring
+ * whether an engine change makes it stronger or only slower
+ * <p>
+ * Games are played straight against {@link Game}, on a pool of threads. They
+ * come in pairs: both games of a pair open with the same random moves, with
+ * the engines swapping colors, so neither engine gains from a lucky opening.
+ * The result counts the first engine's wins, draws and losses, works out the
+ * Elo difference they imply, and times every search of each engine.
+ *
+ * @author Anh Nguyen
+ */
+public class Tournament {
+
+    /**
+     * Default number of games
+     */
+    public static final int DEFAULT_GAMES = 1000;
+
+    // z-score of a 95% confidence interval
+    private static final double Z_95 = 1.96;
+
+    // the engines, and turns played at random at the start of each game
+    private final HintEngine first;
+    private final HintEngine second;
+    private final int randomTurns;
+
+    // threads the games are played on
+    private final int threads;
+
+    /**
+     * Constructor for a tournament between two engines
+     *
+     * @param first       engine whose results are reported
+     * @param second      engine it plays against
+     * @param randomTurns turns played at random at the start of each game
+     * @param threads     threads the games are played on
+     */
+    public Tournament(HintEngine first, HintEngine second, int randomTurns, int threads) {
+        if (randomTurns < 0 || threads < 1) {
+            throw new IllegalArgumentException("The random turns must not be negative and the threads positive.");
+        }
+        this.first = first;
+        this.second = second;
+        this.randomTurns = randomTurns;
+        this.threads = threads;
+    }
+
+    /**
+     * Plays the games
+     *
+     * @param games number of games, rounded up to a whole number of pairs
+     * @param seed  seed of the random openings
+     * @return the first engine's result
+     */
+    public Result play(int games, long seed) {
+        int pairs = (games + 1) / 2;
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Result result = new Result();
+        try {
+            List<Future<Result>> played = new ArrayList<>(pairs * 2);
+            for (int game = 0; game < pairs * 2; game++) {
+                long openingSeed = seed + game / 2;
+                boolean firstIsRed = game % 2 == 0;
+                played.add(pool.submit(() -> playGame(firstIsRed, new Random(openingSeed))));
+            }
+            for (Future<Result> game : played) {
+                result.add(game.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The tournament was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game failed.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        result.wallNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Plays one game
+     *
+     * @param firstIsRed true if the first engine plays red
+     * @param random     source of the random opening moves
+     * @return the game's result for the first engine
+     */
+    private Result playGame(boolean firstIsRed, Random random) {
+        Result result = new Result();
+        Piece.Color firstColor = firstIsRed ? Piece.Color.RED : Piece.Color.WHITE;
+        Game game = new Game(new Player("Red"), new Player("White"));
+        Piece.Color winner = OpeningBookGenerator.playGame(game, firstIsRed ? first : second,
+                firstIsRed ? second : first, randomTurns, random,
+                (color, searched) -> (color == firstColor ? result.first : result.second).add(searched));
+        if (winner == null) {
+            result.draws++;
+        } else if (winner == firstColor) {
+            result.wins++;
+        } else {
+            result.losses++;
+        }
+        return result;
+    }
+
+    /**
+     * Result of a tournament, from the first engine's side
+     */
+    public static class Result {
+
+        // games won, drawn and lost by the first engine
+        private int wins;
+        private int draws;
+        private int losses;
+
+        // searches of each engine
+        private final Searches first = new Searches();
+        private final Searches second = new Searches();
+
+        // time the tournament took
+        private long wallNanos;
+
+        /**
+         * Adds the result of another game or tournament
+         */
+        private void add(Result other) {
+            wins += other.wins;
+            draws += other.draws;
+            losses += other.losses;
+            first.add(other.first);
+            second.add(other.second);
+        }
+
+        /**
+         * Returns the games the first engine won
+         *
+         * @return win count
+         */
+        public int getWins() {
+            return wins;
+        }
+
+        /**
+         * Returns the games drawn
+         *
+         * @return draw count
+         */
+        public int getDraws() {
+            return draws;
+        }
+
+        /**
+         * Returns the games the first engine lost
+         *
+         * @return loss count
+         */
+        public int getLosses() {
+            return losses;
+        }
+
+        /**
+         * Returns the games played
+         *
+         * @return game count
+         */
+        public int getGames() {
+            return wins + draws + losses;
+        }
+
+        /**
+         * Returns the first engine's score, a win counting 1 and a draw 1/2
+         *
+         * @return share of the points, from 0 to 1
+         */
+        public double getScore() {
+            return getGames() == 0 ? 0.5 : (wins + draws / 2.0) / getGames();
+        }
+
+        /**
+         * Returns how many Elo points stronger the first engine played
+         *
+         * @return Elo difference, infinite if one engine won every game
+         */
+        public double getEloDifference() {
+            return elo(getScore());
+        }
+
+        /**
+         * Returns half the width of the 95% confidence interval of the Elo difference
+         *
+         * @return Elo margin, infinite if one engine won every game or there are no games
+         */
+        public double getEloMargin() {
+            int games = getGames();
+            if (games == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double score = getScore();
+            double variance = (wins * Math.pow(1 - score, 2) + draws * Math.pow(0.5 - score, 2)
+                    + losses * Math.pow(score, 2)) / games;
+            double error = Math.sqrt(variance / games);
+            return (elo(score + Z_95 * error) - elo(score - Z_95 * error)) / 2;
+        }
+
+        /**
+         * Returns the Elo difference of a score
+         */
+        private static double elo(double score) {
+            if (score <= 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            if (score >= 1) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return -400 * Math.log10(1 / score - 1);
+        }
+
+        /**
+         * Returns the searches of the first engine
+         *
+         * @return the searches
+         */
+        public Searches getFirst() {
+            return first;
+        }
+
+        /**
+         * Returns the searches of the second engine
+         *
+         * @return the searches
+         */
+        public Searches getSecond() {
+            return second;
+        }
+
+        /**
+         * Returns the time the tournament took
+         *
+         * @return wall-clock time in nanoseconds
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games: +%d =%d -%d, score %.1f%%, Elo %+.1f +/- %.1f%n"
+                            + "first:  %s%nsecond: %s%nin %d s",
+                    getGames(), wins, draws, losses, getScore() * 100, getEloDifference(), getEloMargin(),
+                    first, second, wallNanos / 1_000_000_000L);
+        }
+    }
+
+    /**
+     * Searches made by one engine over a tournament
+     */
+    public static class Searches {
+
+        // time of each search, in the order added
+        private long[] searchNanos = new long[64];
+        private int count;
+
+        // positions searched
+        private long nodes;
+
+        /**
+         * Adds a search
+         */
+        private void add(SearchResult result) {
+            if (count == searchNanos.length) {
+                searchNanos = Arrays.copyOf(searchNanos, count * 2);
+            }
+            searchNanos[count++] = result.getNanos();
+            nodes += result.getNodes();
+        }
+
+        /**
+         * Adds the searches of another game
+         */
+        private void add(Searches other) {
+            if (count + other.count > searchNanos.length) {
+                searchNanos = Arrays.copyOf(searchNanos, Math.max(count + other.count, count * 2));
+            }
+            System.arraycopy(other.searchNanos, 0, searchNanos, count, other.count);
+            count += other.count;
+            nodes += other.nodes;
+        }
+
+        /**
+         * Returns the number of searches
+         *
+         * @return search count, one for each move of a chain of jumps
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the positions searched
+         *
+         * @return node count
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * Returns the positions searched per second of search time
+         *
+         * @return nodes per second, or 0 if there was no search
+         */
+        public double getNodesPerSecond() {
+            long nanos = 0;
+            for (int i = 0; i < count; i++) {
+                nanos += searchNanos[i];
+            }
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+
+        /**
+         * Returns a percentile of the search times
+         *
+         * @param percent the percentile, from 0 to 100
+         * @return search time in nanoseconds, or 0 if there was no search
+         */
+        public long getPercentileNanos(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(searchNanos, count);
+            Arrays.sort(sorted);
+            // nearest rank
+            int rank = (int) Math.ceil(percent / 100 * count);
+            return sorted[Math.max(0, Math.min(count, rank) - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d searches, %.0f nodes/s, search ms p50 %.2f p90 %.2f p99 %.2f max %.2f",
+                    count, getNodesPerSecond(), getPercentileNanos(50) / 1e6, getPercentileNanos(90) / 1e6,
+                    getPercentileNanos(99) / 1e6, getPercentileNanos(100) / 1e6);
+        }
+    }
+
+    /**
+     * Plays a tournament between engines with different node budgets and prints the result
+     *
+     * @param args optionally the number of games, the node budgets of the first
+     *             and second engine, the turns played at random and the threads
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        long firstNodes = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long secondNodes = args.length > 2 ? Long.parseLong(args[2]) : firstNodes;
+        int randomTurns = args.length > 3 ? Integer.parseInt(args[3]) : OpeningBookGenerator.DEFAULT_RANDOM_TURNS;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        // each engine has a table of its own, so neither reads the other's results
+        HintEngine first = new HintEngine(HintEngine.DEFAULT_MAX_DEPTH, firstNodes);
+        HintEngine second = new HintEngine(HintEngine.DEFAULT_MAX_DEPTH, secondNodes);
+        System.out.println(new Tournament(first, second, randomTurns, threads).play(games, 1));
+    }
+}
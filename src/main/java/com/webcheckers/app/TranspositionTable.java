@@ -0,0 +1,194 @@
+package com.webcheckers.app;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application-tier table of searched positions, shared by every hint search
+ * <p>
+ * Entries live in two primitive arrays sized once from a memory cap, so the
+ * table never grows or allocates. Positions are found by their Zobrist hash.
+ * Each bucket has two entries: one keeps the deepest search of the positions
+ * landing there, and the other always takes the newest. Entries are marked
+ * with the search that stored them, and a deep entry left by an earlier
+ * search gives way to any entry of the current one, so old games do not hold
+ * on to the depth-preferred entries.
+ * <p>
+ * The table is read and written without locks from many threads. Each entry
+ * stores its key XORed with its data, so an entry torn by two threads writing
+ * at once no longer matches its hash and reads as missing.
+ *
+ * @author Anh Nguyen
+ */
+public class TranspositionTable {
+
+    /**
+     * Bound of a stored score
+     */
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    /**
+     * Bytes taken by one entry
+     */
+    public static final int ENTRY_BYTES = 16;
+
+    // data layout: move in bits 0-15, score in bits 16-31, depth in bits 32-39, bound in bits 40-41,
+    // generation in bits 42-49
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 42;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int GENERATION_MASK = 0xFF;
+
+    // key XOR data, and data, by entry
+    private final long[] keys;
+    private final long[] data;
+
+    // index mask of the first entry of a bucket
+    private final int bucketMask;
+
+    // number of the current search, wrapping within the generation bits
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Constructor for a table taking at most a number of megabytes
+     *
+     * @param megabytes memory cap, at least 1
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least one megabyte.");
+        }
+        // largest power of two number of entries within the cap
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1 << 30);
+        this.keys = new long[(int) entries];
+        this.data = new long[(int) entries];
+        this.bucketMask = (int) entries - 2;
+    }
+
+    /**
+     * Returns the number of entries the table holds
+     *
+     * @return capacity in entries
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Starts a new search, after which the deep entries of earlier searches
+     * may be replaced by any entry
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param hash Zobrist hash of the position
+     * @return the entry's data, or 0 if the position is not stored
+     */
+    public long probe(long hash) {
+        int index = (int) hash & bucketMask;
+        for (int i = index; i < index + 2; i++) {
+            long entry = data[i];
+            if ((keys[i] ^ entry) == hash && entry != 0) {
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of searching a position. The entry replaces the same
+     * position, or else the depth-preferred entry of the bucket if that was
+     * stored by an earlier search or the new search is at least as deep, or
+     * else the bucket's always-replaced entry.
+     *
+     * @param hash  Zobrist hash of the position
+     * @param move  best move as a packed move, or -1 if there is none
+     * @param score score of the position
+     * @param depth depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        long entry = (move < 0 ? 0 : move & 0xFFFF)
+                | (score & 0xFFFFL) << SCORE_SHIFT
+                | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) (generation.get() & GENERATION_MASK) << GENERATION_SHIFT;
+        int index = (int) hash & bucketMask;
+        long preferred = data[index];
+        int slot;
+        if ((keys[index] ^ preferred) == hash || depth >= depth(preferred)
+                || generation(preferred) != generation(entry)) {
+            slot = index;
+        } else {
+            slot = index + 1;
+        }
+        data[slot] = entry;
+        keys[slot] = hash ^ entry;
+    }
+
+    /**
+     * Returns the search that stored an entry
+     */
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    /**
+     * Returns the best move of an entry
+     *
+     * @param entry entry data
+     * @return packed move, or -1 if the entry has none
+     */
+    public static int move(long entry) {
+        // a step from square 0 to itself packs to 0, and is never stored
+        int move = (int) entry & 0xFFFF;
+        return move == 0 ? -1 : move;
+    }
+
+    /**
+     * Returns the score of an entry
+     *
+     * @param entry entry data
+     * @return score
+     */
+    public static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Returns the depth of an entry
+     *
+     * @param entry entry data
+     * @return depth searched
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * Returns the bound of an entry
+     *
+     * @param entry entry data
+     * @return the bound, or 0 for an empty entry
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 3;
+    }
+}
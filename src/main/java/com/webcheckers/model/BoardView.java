@@ -1,13 +1,21 @@
 package com.webcheckers.model;
 
-import com.webcheckers.app.Game;
-
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
 /**
  * Model class for the checkers board
+ * <p>
+ * The board is stored as three 32-bit masks (red, white and king) over the
+ * 32 dark squares. Square {@code sq} is row {@code sq / 4}; see
+ * {@link #squareOf(int, int)} for the mapping. The Rows and Spaces returned by
+ * {@link #iterator()} and {@link #getRow(int)} are only a view over the masks
+ * for the templates, and are built the first time they are needed.
+ * <p>
+ * The board also keeps a {@link Zobrist} hash of the pieces and the side to
+ * move, which every change below updates in place. The view returned by
+ * {@link #flipped()} reads the masks, hash and counts of the board it wraps.
  *
  * @author Mohammed Alam and Anh Nguyen
  */
@@ -16,8 +24,34 @@ public class BoardView implements Iterable<Row> {
 
     // board length
     public static final int BOARD_LENGTH = 8;
-    // Array list for board made up of Rows
-    private final List<Row> board;
+    // number of playable (dark) squares
+    public static final int NUM_SQUARES = 32;
+
+    // starting masks, white on rows 0-2 and red on rows 5-7
+    private static final int WHITE_START = 0x00000FFF;
+    private static final int RED_START = 0xFFF00000;
+
+    // piece masks, one bit per dark square
+    private int redPieces;
+    private int whitePieces;
+    private int kings;
+
+    // number of changes made to the pieces
+    private int modCount;
+
+    // Zobrist hash of the pieces and side to move
+    private long hash;
+    // whether white is to move
+    private boolean whiteToMove;
+
+    // Rows and Spaces viewing this board, built on first use
+    private List<Row> board;
+    // Rows by row index, for direct lookup
+    private Row[] rows;
+    // the board seen from the white player's side, built on first use
+    private BoardView flipped;
+    // the board a flipped view shows, null for any other board
+    private final BoardView source;
 
     // starting number of pieces for each player
     private int numRedPieces = 12;
@@ -29,53 +63,408 @@ public class BoardView implements Iterable<Row> {
      * Another construcot for a board with a current board implementation
      */
     public BoardView() {
-        this.board = new ArrayList<>();
+        this.source = null;
         initialize();
     }
 
     /**
      * Constructor with a given board (List of Row)
-     * Only use is {@link Game#getWhitePlayer()} to build white player's board
+     * The masks are read from the pieces on the rows' spaces when constructed
      *
      * @param board given board
      */
     public BoardView(List<Row> board) {
+        this(null, board);
+        for (Row row : board) {
+            for (Space space : row) {
+                int square = squareOf(row.getIndex(), space.getCellIdx());
+                Piece piece = space.getPiece();
+                if (square >= 0 && piece != null) {
+                    int bit = 1 << square;
+                    if (piece.getColor() == Piece.Color.RED) {
+                        redPieces |= bit;
+                    } else {
+                        whitePieces |= bit;
+                    }
+                    if (piece.isKing()) {
+                        kings |= bit;
+                    }
+                }
+            }
+        }
+        numRedPieces = Integer.bitCount(redPieces);
+        numWhitePieces = Integer.bitCount(whitePieces);
+        hash = Zobrist.hash(redPieces, whitePieces, kings, false);
+    }
+
+    /**
+     * Constructor for a view of the given rows showing another board
+     *
+     * @param source the board the rows show, or null if they hold the pieces
+     * @param board  given rows
+     */
+    private BoardView(BoardView source, List<Row> board) {
+        this.source = source;
         this.board = board;
+        this.rows = new Row[BOARD_LENGTH];
+        for (Row row : board) {
+            rows[row.getIndex()] = row;
+        }
     }
 
     /**
-     * Populates BoardView with Rows
+     * Returns the board holding the pieces this board shows
+     *
+     * @return the wrapped board for a flipped view, otherwise this board
      */
-    private void initialize() {
-        boolean blackSpace = false;
-        for (int i = 0; i < BOARD_LENGTH; i++) {
-            if (i < 3) {
-                board.add(new Row(i, Piece.Color.WHITE, blackSpace));
-            } else if (i > 4) {
-                board.add(new Row(i, Piece.Color.RED, blackSpace));
-            } else {
-                board.add(new Row(i, Piece.Color.NONE, blackSpace));
-            }
-            blackSpace = !blackSpace;
+    private BoardView pieces() {
+        return source != null ? source : this;
+    }
+
+    /**
+     * Refuses a change to a flipped view
+     *
+     * @throws UnsupportedOperationException if this board is a flipped view
+     */
+    private void checkWritable() {
+        if (source != null) {
+            throw new UnsupportedOperationException("The flipped board is read-only.");
         }
     }
 
+    /**
+     * Places the starting pieces
+     */
+    private void initialize() {
+        redPieces = RED_START;
+        whitePieces = WHITE_START;
+        kings = 0;
+        hash = Zobrist.hash(redPieces, whitePieces, kings, false);
+    }
+
     @Override
     public Iterator<Row> iterator() {
-        return this.board.iterator();
+        return getBoard().iterator();
+    }
+
+// ------- Square helpers -------
+
+    /**
+     * Converts a row and cell to a dark square index
+     *
+     * @param row  row of the square
+     * @param cell cell of the square
+     * @return square index from 0 to 31, or -1 if not a dark square on the board
+     */
+    public static int squareOf(int row, int cell) {
+        if (row < 0 || row >= BOARD_LENGTH || cell < 0 || cell >= BOARD_LENGTH || ((row + cell) & 1) == 0) {
+            return -1;
+        }
+        return row * 4 + cell / 2;
+    }
+
+    /**
+     * Converts a Position to a dark square index
+     *
+     * @param position given position
+     * @return square index from 0 to 31, or -1 if not a dark square on the board
+     */
+    public static int squareOf(Position position) {
+        return squareOf(position.getRow(), position.getCell());
+    }
+
+    /**
+     * Returns the row of a square
+     *
+     * @param square square index
+     * @return row of the square
+     */
+    public static int rowOf(int square) {
+        return square >> 2;
+    }
+
+    /**
+     * Returns the cell of a square
+     *
+     * @param square square index
+     * @return cell of the square
+     */
+    public static int cellOf(int square) {
+        // even rows have their dark squares on odd cells
+        return ((square & 3) << 1) + (~square >> 2 & 1);
+    }
+
+// ------- Bitboard access -------
+
+    /**
+     * Returns the mask of squares holding red pieces
+     *
+     * @return red mask
+     */
+    public int getRedMask() {
+        return pieces().redPieces;
+    }
+
+    /**
+     * Returns the mask of squares holding white pieces
+     *
+     * @return white mask
+     */
+    public int getWhiteMask() {
+        return pieces().whitePieces;
+    }
+
+    /**
+     * Returns the mask of squares holding king pieces of either color
+     *
+     * @return king mask
+     */
+    public int getKingMask() {
+        return pieces().kings;
+    }
+
+    /**
+     * Returns the mask of squares holding any piece
+     *
+     * @return occupied mask
+     */
+    public int getOccupiedMask() {
+        return getRedMask() | getWhiteMask();
+    }
+
+    /**
+     * Returns the mask of squares holding pieces of a color
+     *
+     * @param color given color
+     * @return mask for the color
+     */
+    public int getMask(Piece.Color color) {
+        switch (color) {
+            case RED:
+                return getRedMask();
+            case WHITE:
+                return getWhiteMask();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the number of changes made to the pieces, so callers caching
+     * facts about the board can tell when it was changed behind their back
+     *
+     * @return change count
+     */
+    public int getModCount() {
+        return pieces().modCount;
+    }
+
+    /**
+     * Returns the Zobrist hash of the pieces and the side to move
+     *
+     * @return position hash
+     */
+    public long getHash() {
+        return pieces().hash;
+    }
+
+    /**
+     * Checks if white is to move
+     *
+     * @return true if white is to move
+     */
+    public boolean isWhiteToMove() {
+        return pieces().whiteToMove;
+    }
+
+    /**
+     * Hands the move to the other side
+     */
+    public void switchSideToMove() {
+        checkWritable();
+        whiteToMove = !whiteToMove;
+        hash ^= Zobrist.sideToMove();
+    }
+
+    /**
+     * Returns the Zobrist key of the piece on a square
+     *
+     * @param square given square
+     * @return key of the piece, or 0 if the square is empty
+     */
+    private long pieceKey(int square) {
+        int bit = 1 << square;
+        if (((redPieces | whitePieces) & bit) == 0) {
+            return 0;
+        }
+        Piece.Color color = (redPieces & bit) != 0 ? Piece.Color.RED : Piece.Color.WHITE;
+        return Zobrist.piece(color, (kings & bit) != 0, square);
+    }
+
+    /**
+     * Moves whatever piece is on a square to another square
+     *
+     * @param from start square
+     * @param to   end square
+     */
+    public void movePiece(int from, int to) {
+        checkWritable();
+        int fromBit = 1 << from;
+        int toBit = 1 << to;
+        hash ^= pieceKey(from);
+        if ((redPieces & fromBit) != 0) {
+            redPieces = redPieces & ~fromBit | toBit;
+        } else if ((whitePieces & fromBit) != 0) {
+            whitePieces = whitePieces & ~fromBit | toBit;
+        }
+        if ((kings & fromBit) != 0) {
+            kings = kings & ~fromBit | toBit;
+        }
+        hash ^= pieceKey(to);
+        modCount++;
+    }
+
+    /**
+     * Removes the piece on a square
+     *
+     * @param square given square
+     */
+    public void removePiece(int square) {
+        checkWritable();
+        int mask = ~(1 << square);
+        hash ^= pieceKey(square);
+        redPieces &= mask;
+        whitePieces &= mask;
+        kings &= mask;
+        modCount++;
+    }
+
+    /**
+     * Crowns the piece on a square
+     *
+     * @param square given square
+     */
+    public void crownPiece(int square) {
+        checkWritable();
+        hash ^= pieceKey(square);
+        kings |= (1 << square) & (redPieces | whitePieces);
+        hash ^= pieceKey(square);
+        modCount++;
     }
 
 // ------- Getters and Setters -------
 
+    /**
+     * Returns the piece on a row and cell
+     *
+     * @param row  given row
+     * @param cell given cell
+     * @return the piece, or null if the space is empty
+     */
+    public Piece getPiece(int row, int cell) {
+        int square = squareOf(row, cell);
+        if (square < 0) {
+            return null;
+        }
+        BoardView pieces = pieces();
+        int bit = 1 << square;
+        boolean king = (pieces.kings & bit) != 0;
+        if ((pieces.redPieces & bit) != 0) {
+            return king ? Piece.RED_KING : Piece.RED_SINGLE;
+        } else if ((pieces.whitePieces & bit) != 0) {
+            return king ? Piece.WHITE_KING : Piece.WHITE_SINGLE;
+        }
+        return null;
+    }
+
+    /**
+     * Places a piece on a row and cell, or clears it if the piece is null
+     *
+     * @param row   given row
+     * @param cell  given cell
+     * @param piece the piece, or null to clear the space
+     * @throws IllegalArgumentException if a piece is placed on a light space
+     */
+    public void setPiece(int row, int cell, Piece piece) {
+        checkWritable();
+        int square = squareOf(row, cell);
+        if (square < 0) {
+            if (piece != null) {
+                throw new IllegalArgumentException("Pieces can only be placed on dark spaces.");
+            }
+            return;
+        }
+        removePiece(square);
+        if (piece != null) {
+            int bit = 1 << square;
+            if (piece.getColor() == Piece.Color.RED) {
+                redPieces |= bit;
+            } else if (piece.getColor() == Piece.Color.WHITE) {
+                whitePieces |= bit;
+            }
+            if (piece.isKing()) {
+                kings |= bit;
+            }
+            hash ^= pieceKey(square);
+        }
+    }
+
     /**
      * Gets the board
      *
      * @return list: board
      */
     public List<Row> getBoard() {
+        if (board == null) {
+            Row[] view = new Row[BOARD_LENGTH];
+            for (int i = 0; i < BOARD_LENGTH; i++) {
+                view[i] = new Row(this, i);
+            }
+            rows = view;
+            board = Arrays.asList(view);
+        }
         return board;
     }
 
+    /**
+     * Returns a read-only view of this board from the white player's side.
+     * Rows and spaces are iterated backwards over this board's own Spaces,
+     * and the masks, hash and counts are this board's, so the view always
+     * shows the current pieces and is only built once.
+     *
+     * @return the flipped board
+     */
+    public BoardView flipped() {
+        if (flipped == null) {
+            List<Row> view = getBoard();
+            Row[] backwards = new Row[BOARD_LENGTH];
+            for (int i = 0; i < BOARD_LENGTH; i++) {
+                backwards[i] = new Row(view.get(BOARD_LENGTH - 1 - i));
+            }
+            flipped = new BoardView(this, Arrays.asList(backwards));
+        }
+        return flipped;
+    }
+
+    /**
+     * Returns a copy of the pieces, side to move and counts of this board,
+     * which later changes to this board do not reach
+     *
+     * @return the copy, seen from the red player's side
+     */
+    public BoardView copy() {
+        BoardView pieces = pieces();
+        BoardView copy = new BoardView();
+        copy.redPieces = pieces.redPieces;
+        copy.whitePieces = pieces.whitePieces;
+        copy.kings = pieces.kings;
+        copy.hash = pieces.hash;
+        copy.whiteToMove = pieces.whiteToMove;
+        copy.numRedPieces = pieces.numRedPieces;
+        copy.numWhitePieces = pieces.numWhitePieces;
+        return copy;
+    }
+
     /**
      * Finds and returns a Row from the board
      *
@@ -83,50 +472,52 @@ public class BoardView implements Iterable<Row> {
      * @return the Row
      */
     public Row getRow(int index) {
-        Row row = null;
-        for (Row r : board) {
-            if (r.getIndex() == index) {
-                row = r;
-            }
+        if (index < 0 || index >= BOARD_LENGTH) {
+            return null;
         }
-        return row;
+        getBoard();
+        return rows[index];
     }
 
     /**
      * Returns the number of pieces the red player has
-     * 
+     *
      * @return number of red pieces
      */
     public int getNumRedPieces() {
-        return numRedPieces;
+        return pieces().numRedPieces;
     }
 
     /**
      * Subtracts the number of pieces the red player has by one.
      */
     public void decreaseNumRedPieces() {
+        checkWritable();
         this.numRedPieces--;
     }
 
     /**
      * Returns the number of pieces the white player has
-     * 
+     *
      * @return number of white pieces
      */
     public int getNumWhitePieces() {
-        return numWhitePieces;
+        return pieces().numWhitePieces;
     }
 
     /**
      * Subtracts the number of pieces the white player has by one.
      */
     public void decreaseNumWhitePieces() {
+        checkWritable();
         this.numWhitePieces--;
     }
 
     /**
      * Checks if this BoardView and the given Object is equal.
-     * 
+     * Boards are equal when they hold the same pieces on the same squares,
+     * so a flipped view equals the board it wraps.
+     *
      * @param o an object
      * @return whether this BoardView and given object are equal.
      */
@@ -134,8 +525,22 @@ public class BoardView implements Iterable<Row> {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof BoardView)) return false;
-        BoardView rows = (BoardView) o;
-        return board.equals(rows.board);
+        BoardView other = (BoardView) o;
+        return getRedMask() == other.getRedMask()
+                && getWhiteMask() == other.getWhiteMask()
+                && getKingMask() == other.getKingMask();
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}: the
+     * incremental Zobrist hash with the side to move taken back out
+     *
+     * @return hash code of the pieces
+     */
+    @Override
+    public int hashCode() {
+        long pieces = getHash() ^ (isWhiteToMove() ? Zobrist.sideToMove() : 0);
+        return (int) (pieces ^ pieces >>> 32);
     }
 
 }
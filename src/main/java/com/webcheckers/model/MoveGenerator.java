@@ -0,0 +1,135 @@
+package com.webcheckers.model;
+
+/**
+ * Generates the moves of one side straight from the board masks
+ * <p>
+ * Moves are written as {@link PackedMove}s into a buffer supplied by the
+ * caller, so generating moves does not allocate. Each generated move is a
+ * single step or a single jump; continuing a chain of jumps is done by
+ * generating jumps again from the square the last jump landed on.
+ *
+ * @author Anh Nguyen
+ */
+public final class MoveGenerator {
+
+    // most moves one side can have: 12 kings with four directions each
+    public static final int MAX_MOVES = 48;
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Generates the legal moves of a side. Jumps are forced, so simple moves
+     * are only generated when there is no jump.
+     *
+     * @param own          mask of the moving side's pieces
+     * @param opponent     mask of the other side's pieces
+     * @param kings        mask of the kings of either side
+     * @param color        color of the moving side
+     * @param moves        buffer of at least {@link #MAX_MOVES} entries
+     * @param capturesOnly true to only generate jumps
+     * @return number of moves written into the buffer
+     */
+    public static int generate(int own, int opponent, int kings, Piece.Color color,
+                               int[] moves, boolean capturesOnly) {
+        int count = generateJumps(own, opponent, kings, color, own, moves, 0);
+        if (count == 0 && !capturesOnly) {
+            count = generateSimpleMoves(own, opponent, kings, color, moves, 0);
+        }
+        return count;
+    }
+
+    /**
+     * Generates the jumps of a side
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings of either side
+     * @param color    color of the moving side
+     * @param fromMask mask of the squares jumps may start from
+     * @param moves    buffer for the moves
+     * @param count    number of moves already in the buffer
+     * @return number of moves in the buffer afterwards
+     */
+    public static int generateJumps(int own, int opponent, int kings, Piece.Color color,
+                                    int fromMask, int[] moves, int count) {
+        int empty = ~(own | opponent);
+        int pieces = own & fromMask;
+        while (pieces != 0) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean king = (kings & 1 << from) != 0;
+            int last = MoveTables.lastDirection(color, king);
+            for (int dir = MoveTables.firstDirection(color, king); dir < last; dir++) {
+                int to = MoveTables.jump(from, dir);
+                if (to >= 0 && (empty & 1 << to) != 0) {
+                    int captured = MoveTables.step(from, dir);
+                    if ((opponent & 1 << captured) != 0) {
+                        moves[count++] = PackedMove.jump(from, to, captured);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the pieces of a side that have a jump available
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings of either side
+     * @param color    color of the moving side
+     * @param fromMask mask of the squares to check
+     * @return mask of the pieces that can jump
+     */
+    public static int jumpers(int own, int opponent, int kings, Piece.Color color, int fromMask) {
+        int empty = ~(own | opponent);
+        int jumpers = 0;
+        int pieces = own & fromMask;
+        while (pieces != 0) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean king = (kings & 1 << from) != 0;
+            int last = MoveTables.lastDirection(color, king);
+            for (int dir = MoveTables.firstDirection(color, king); dir < last; dir++) {
+                int to = MoveTables.jump(from, dir);
+                if (to >= 0 && (empty & 1 << to) != 0 && (opponent & 1 << MoveTables.step(from, dir)) != 0) {
+                    jumpers |= 1 << from;
+                    break;
+                }
+            }
+        }
+        return jumpers;
+    }
+
+    /**
+     * Generates the simple moves of a side
+     *
+     * @param own      mask of the moving side's pieces
+     * @param opponent mask of the other side's pieces
+     * @param kings    mask of the kings of either side
+     * @param color    color of the moving side
+     * @param moves    buffer for the moves
+     * @param count    number of moves already in the buffer
+     * @return number of moves in the buffer afterwards
+     */
+    public static int generateSimpleMoves(int own, int opponent, int kings, Piece.Color color,
+                                          int[] moves, int count) {
+        int empty = ~(own | opponent);
+        int pieces = own;
+        while (pieces != 0) {
+            int from = Integer.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            boolean king = (kings & 1 << from) != 0;
+            int last = MoveTables.lastDirection(color, king);
+            for (int dir = MoveTables.firstDirection(color, king); dir < last; dir++) {
+                int to = MoveTables.step(from, dir);
+                if (to >= 0 && (empty & 1 << to) != 0) {
+                    moves[count++] = PackedMove.simple(from, to);
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,168 @@
+package com.webcheckers.model;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed diagonal lookups for the 32 dark squares of the board
+ * <p>
+ * For every square and direction the tables hold the square one step away,
+ * the square a jump lands on, and (through the step table) the square a jump
+ * captures. Squares are numbered as in {@link BoardView#squareOf(int, int)}
+ * and a missing target is -1. Red single pieces move in the UP directions,
+ * white single pieces in the DOWN directions, and kings in all four.
+ *
+ * @author Anh Nguyen
+ */
+public final class MoveTables {
+
+    // directions, UP is towards row 0
+    public static final int UP_LEFT = 0;
+    public static final int UP_RIGHT = 1;
+    public static final int DOWN_LEFT = 2;
+    public static final int DOWN_RIGHT = 3;
+    public static final int NUM_DIRECTIONS = 4;
+
+    // squares where red and white single pieces are crowned
+    public static final int RED_KING_ROW = 0x0000000F;
+    public static final int WHITE_KING_ROW = 0xF0000000;
+
+    // row and cell offsets of each direction
+    private static final int[] ROW_STEP = {-1, -1, 1, 1};
+    private static final int[] CELL_STEP = {-1, 1, -1, 1};
+
+    // [square * NUM_DIRECTIONS + direction] -> square
+    private static final int[] STEP = new int[BoardView.NUM_SQUARES * NUM_DIRECTIONS];
+    private static final int[] JUMP = new int[BoardView.NUM_SQUARES * NUM_DIRECTIONS];
+
+    // [square] -> mask of the square and every square within two diagonal steps of it
+    private static final int[] NEARBY = new int[BoardView.NUM_SQUARES];
+
+    // [from * NUM_SQUARES + to] -> direction, -1 if not a step or jump
+    private static final byte[] STEP_DIRECTION = new byte[BoardView.NUM_SQUARES * BoardView.NUM_SQUARES];
+    private static final byte[] JUMP_DIRECTION = new byte[BoardView.NUM_SQUARES * BoardView.NUM_SQUARES];
+
+    static {
+        Arrays.fill(STEP_DIRECTION, (byte) -1);
+        Arrays.fill(JUMP_DIRECTION, (byte) -1);
+        for (int square = 0; square < BoardView.NUM_SQUARES; square++) {
+            int row = BoardView.rowOf(square);
+            int cell = BoardView.cellOf(square);
+            for (int dir = 0; dir < NUM_DIRECTIONS; dir++) {
+                int step = BoardView.squareOf(row + ROW_STEP[dir], cell + CELL_STEP[dir]);
+                int jump = BoardView.squareOf(row + 2 * ROW_STEP[dir], cell + 2 * CELL_STEP[dir]);
+                STEP[square * NUM_DIRECTIONS + dir] = step;
+                JUMP[square * NUM_DIRECTIONS + dir] = jump;
+                if (step >= 0) {
+                    NEARBY[square] |= 1 << step;
+                    STEP_DIRECTION[square * BoardView.NUM_SQUARES + step] = (byte) dir;
+                }
+                if (jump >= 0) {
+                    NEARBY[square] |= 1 << jump;
+                    JUMP_DIRECTION[square * BoardView.NUM_SQUARES + jump] = (byte) dir;
+                }
+            }
+            NEARBY[square] |= 1 << square;
+        }
+    }
+
+    private MoveTables() {
+    }
+
+    /**
+     * Returns the square one step away in a direction
+     *
+     * @param square    start square
+     * @param direction given direction
+     * @return the square, or -1 if off the board
+     */
+    public static int step(int square, int direction) {
+        return STEP[square * NUM_DIRECTIONS + direction];
+    }
+
+    /**
+     * Returns the square a jump in a direction lands on
+     *
+     * @param square    start square
+     * @param direction given direction
+     * @return the square, or -1 if off the board
+     */
+    public static int jump(int square, int direction) {
+        return JUMP[square * NUM_DIRECTIONS + direction];
+    }
+
+    /**
+     * Returns the square a jump in a direction captures
+     *
+     * @param square    start square
+     * @param direction given direction
+     * @return the square, or -1 if the jump would leave the board
+     */
+    public static int captured(int square, int direction) {
+        return JUMP[square * NUM_DIRECTIONS + direction] < 0 ? -1 : STEP[square * NUM_DIRECTIONS + direction];
+    }
+
+    /**
+     * Returns the squares whose jumps can start, pass over or land on a square.
+     * These are the square itself and every square within two diagonal steps of it.
+     *
+     * @param square given square
+     * @return mask of the nearby squares
+     */
+    public static int nearby(int square) {
+        return NEARBY[square];
+    }
+
+    /**
+     * Returns the direction of a single step between two squares
+     *
+     * @param from start square
+     * @param to   end square
+     * @return the direction, or -1 if the squares are not diagonal neighbors
+     */
+    public static int stepDirection(int from, int to) {
+        return STEP_DIRECTION[from * BoardView.NUM_SQUARES + to];
+    }
+
+    /**
+     * Returns the direction of a jump between two squares
+     *
+     * @param from start square
+     * @param to   end square
+     * @return the direction, or -1 if the squares are not a jump apart
+     */
+    public static int jumpDirection(int from, int to) {
+        return JUMP_DIRECTION[from * BoardView.NUM_SQUARES + to];
+    }
+
+    /**
+     * Returns the first direction a piece may move in
+     *
+     * @param color color of the piece
+     * @param king  whether the piece is a king
+     * @return first direction, inclusive
+     */
+    public static int firstDirection(Piece.Color color, boolean king) {
+        return king || color == Piece.Color.RED ? UP_LEFT : DOWN_LEFT;
+    }
+
+    /**
+     * Returns the direction after the last one a piece may move in
+     *
+     * @param color color of the piece
+     * @param king  whether the piece is a king
+     * @return last direction, exclusive
+     */
+    public static int lastDirection(Piece.Color color, boolean king) {
+        return king || color == Piece.Color.WHITE ? NUM_DIRECTIONS : DOWN_LEFT;
+    }
+
+    /**
+     * Returns the squares where single pieces of a color are crowned
+     *
+     * @param color color of the pieces
+     * @return mask of the king row
+     */
+    public static int kingRow(Piece.Color color) {
+        return color == Piece.Color.RED ? RED_KING_ROW : WHITE_KING_ROW;
+    }
+}
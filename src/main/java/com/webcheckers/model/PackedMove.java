@@ -0,0 +1,125 @@
+package com.webcheckers.model;
+
+/**
+ * Packs a single step or jump into a primitive int
+ * <p>
+ * Bits 0-4 hold the start square, bits 5-9 the end square, bit 10 is set for
+ * a jump and bits 11-15 hold the captured square of a jump. Squares are
+ * numbered as in {@link BoardView#squareOf(int, int)}. A move only needs 16
+ * bits, so moves can be kept in int arrays instead of lists of Moves.
+ *
+ * @author Anh Nguyen
+ */
+public final class PackedMove {
+
+    private static final int SQUARE_MASK = 0x1F;
+    private static final int TO_SHIFT = 5;
+    private static final int JUMP_FLAG = 1 << 10;
+    private static final int CAPTURED_SHIFT = 11;
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a simple move
+     *
+     * @param from start square
+     * @param to   end square
+     * @return packed move
+     */
+    public static int simple(int from, int to) {
+        return from | to << TO_SHIFT;
+    }
+
+    /**
+     * Packs a jump move
+     *
+     * @param from     start square
+     * @param to       end square
+     * @param captured captured square
+     * @return packed move
+     */
+    public static int jump(int from, int to, int captured) {
+        return from | to << TO_SHIFT | JUMP_FLAG | captured << CAPTURED_SHIFT;
+    }
+
+    /**
+     * Returns the start square of a packed move
+     *
+     * @param move packed move
+     * @return start square
+     */
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the end square of a packed move
+     *
+     * @param move packed move
+     * @return end square
+     */
+    public static int to(int move) {
+        return move >>> TO_SHIFT & SQUARE_MASK;
+    }
+
+    /**
+     * Checks if a packed move is a jump
+     *
+     * @param move packed move
+     * @return true if the move is a jump
+     */
+    public static boolean isJump(int move) {
+        return (move & JUMP_FLAG) != 0;
+    }
+
+    /**
+     * Returns the captured square of a packed move
+     *
+     * @param move packed move
+     * @return captured square, or -1 for a simple move
+     */
+    public static int captured(int move) {
+        return isJump(move) ? move >>> CAPTURED_SHIFT & SQUARE_MASK : -1;
+    }
+
+    /**
+     * Packs a Move, working out the captured square of a jump from the geometry
+     *
+     * @param move given move
+     * @return packed move, or -1 if the move is not a step or jump between dark squares
+     */
+    public static int of(Move move) {
+        int from = BoardView.squareOf(move.getStart());
+        int to = BoardView.squareOf(move.getEnd());
+        if (from < 0 || to < 0) {
+            return -1;
+        }
+        if (move.getMoveType() == Move.MoveType.JUMP) {
+            int direction = MoveTables.jumpDirection(from, to);
+            return direction < 0 ? -1 : jump(from, to, MoveTables.captured(from, direction));
+        }
+        return MoveTables.stepDirection(from, to) < 0 ? -1 : simple(from, to);
+    }
+
+    /**
+     * Unpacks a move into a Move using the shared Positions
+     *
+     * @param move packed move
+     * @return the Move
+     */
+    public static Move toMove(int move) {
+        return new Move(toPosition(from(move)), toPosition(to(move)),
+                isJump(move) ? Move.MoveType.JUMP : Move.MoveType.SIMPLE);
+    }
+
+    /**
+     * Returns the shared Position of a square
+     *
+     * @param square given square
+     * @return the position
+     */
+    public static Position toPosition(int square) {
+        return Position.of(BoardView.rowOf(square), BoardView.cellOf(square));
+    }
+}
@@ -2,10 +2,14 @@ package com.webcheckers.model;
 
 /**
  * Model class for a chess piece
+ * <p>
+ * Pieces are immutable and there is exactly one instance for each color and
+ * type, so pieces can be shared between spaces, boards and games. A piece is
+ * promoted by replacing it on its Space with {@link #crowned()}.
  *
  * @author Phil Ganem and Sierra Tran
  */
-public class Piece {
+public final class Piece {
     // Possible types of pieces
     public enum Type {
         SINGLE, KING
@@ -16,42 +20,68 @@ public class Piece {
         RED, WHITE, NONE
     }
 
+    // the canonical pieces
+    public static final Piece RED_SINGLE = new Piece(Type.SINGLE, Color.RED);
+    public static final Piece RED_KING = new Piece(Type.KING, Color.RED);
+    public static final Piece WHITE_SINGLE = new Piece(Type.SINGLE, Color.WHITE);
+    public static final Piece WHITE_KING = new Piece(Type.KING, Color.WHITE);
+
     // type of piece
-    private Type type;
+    private final Type type;
     // color of piece
     private final Color color;
 
     /**
-     * Constructor of model class Piece
+     * Constructor of model class Piece, only used for the canonical pieces
      *
      * @param type  TYPE: type of piece
      * @param color COLOR: color of piece
      */
-    public Piece(Type type, Color color) {
+    private Piece(Type type, Color color) {
         this.type = type;
         this.color = color;
     }
 
+    /**
+     * Returns the piece of a type and color
+     *
+     * @param type  TYPE: type of piece
+     * @param color COLOR: color of piece
+     * @return the canonical piece
+     * @throws IllegalArgumentException if the color is NONE
+     */
+    public static Piece of(Type type, Color color) {
+        boolean king = type == Type.KING;
+        switch (color) {
+            case RED:
+                return king ? RED_KING : RED_SINGLE;
+            case WHITE:
+                return king ? WHITE_KING : WHITE_SINGLE;
+            default:
+                throw new IllegalArgumentException("Pieces must be red or white.");
+        }
+    }
+
     /**
      * Checks to see if a piece is a king
      *
      * @return bool: if piece is king
      */
     public boolean isKing() {
-        return this.getType() == Type.KING;
+        return this.type == Type.KING;
     }
 
-// ------- Getters and Setters -------
-
     /**
-     * Sets the type of a piece. Allowing a piece to become a king
+     * Returns the king of this piece's color, to replace this piece when it is promoted
      *
-     * @param type TYPE: type that piece becomes
+     * @return Piece: the king piece
      */
-    public void setType(Type type) {
-        this.type = type;
+    public Piece crowned() {
+        return color == Color.RED ? RED_KING : WHITE_KING;
     }
 
+// ------- Getters and Setters -------
+
     /**
      * gets the type of current piece
      *
@@ -72,16 +102,19 @@ public class Piece {
 
     /**
      * Checks if this Piece and the given Object is equal.
-     * 
+     * There is one instance per type and color, so this is identity.
+     *
      * @param o an object
      * @return whether this Piece and given object are equal.
      */
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Piece piece = (Piece) o;
-        return type == piece.type && color == piece.color;
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
     }
 
 }
@@ -12,14 +12,29 @@ public class Player {
     //Player is in game or not
     private boolean isPlaying;
 
+    //Player is played by the computer
+    private final boolean bot;
+
     /**
      * Constructor for a player
      * @param playerName
      *  Name of the player
      */
     public Player(String playerName) {
+        this(playerName, false);
+    }
+
+    /**
+     * Constructor for a player that may be played by the computer
+     * @param playerName
+     *  Name of the player
+     * @param bot
+     *  true if the computer plays for the player
+     */
+    public Player(String playerName, boolean bot) {
         this.name = playerName;
         this.isPlaying = false;
+        this.bot = bot;
     }
 
     /**
@@ -39,6 +54,14 @@ public class Player {
         return isPlaying;
     }
 
+    /**
+     * Returns if the computer plays for the player
+     * @return true if the player is a bot, which may play any number of games at once
+     */
+    public boolean isBot() {
+        return bot;
+    }
+
     /**
      * Sets player's playing status
      * @param playing status to be set
@@ -11,6 +11,15 @@ public class Position {
     //cell of a position
     private final int cell;
 
+    //the positions on the board, by row * BOARD_LENGTH + cell
+    private static final Position[] POSITIONS = new Position[BoardView.BOARD_LENGTH * BoardView.BOARD_LENGTH];
+
+    static {
+        for (int i = 0; i < POSITIONS.length; i++) {
+            POSITIONS[i] = new Position(i / BoardView.BOARD_LENGTH, i % BoardView.BOARD_LENGTH);
+        }
+    }
+
     /**
      * Constructor for Position
      * @param row row of the position
@@ -30,6 +39,20 @@ public class Position {
 
     }
 
+    /**
+     * Returns the shared Position for a row and cell, so positions on the
+     * board never have to be allocated
+     * @param row row of the position
+     * @param cell cell of the position
+     * @return the position, newly made only if it is off the board
+     */
+    public static Position of(int row, int cell) {
+        if (row >= 0 && row < BoardView.BOARD_LENGTH && cell >= 0 && cell < BoardView.BOARD_LENGTH) {
+            return POSITIONS[row * BoardView.BOARD_LENGTH + cell];
+        }
+        return new Position(row, cell);
+    }
+
     /**
      * Getter for row
      * @return row of the position
@@ -68,6 +91,11 @@ public class Position {
         return row == position.row && cell == position.cell;
     }
 
+    @Override
+    public int hashCode() {
+        return row * BoardView.BOARD_LENGTH + cell;
+    }
+
     @Override
     public String toString() {
         return "(Row " + row + ", Column " + cell + ")";
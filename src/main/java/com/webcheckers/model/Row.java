@@ -3,6 +3,7 @@ package com.webcheckers.model;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 
 import com.webcheckers.model.Piece.Color;
 
@@ -17,6 +18,10 @@ public class Row implements Iterable<Space> {
     private final int index;
     // Spaces within a given row
     private final List<Space> spaces;
+    // Spaces by cell index, for direct lookup
+    private final Space[] cells;
+    // Whether the spaces are iterated last to first
+    private final boolean reversed;
 
     /**
      * Constructor for a populated row
@@ -29,10 +34,28 @@ public class Row implements Iterable<Space> {
      */
     public Row(int index, Color color, boolean blackSpace) {
         this.spaces = new ArrayList<>();
+        this.cells = new Space[BoardView.BOARD_LENGTH];
         this.index = index;
+        this.reversed = false;
         initialize(color, blackSpace);
     }
 
+    /**
+     * Constructor for a row viewing the spaces of a board
+     *
+     * @param board the board being viewed
+     * @param index index of the row
+     */
+    Row(BoardView board, int index) {
+        this.spaces = new ArrayList<>(BoardView.BOARD_LENGTH);
+        this.cells = new Space[BoardView.BOARD_LENGTH];
+        this.index = index;
+        this.reversed = false;
+        for (int col = 0; col < BoardView.BOARD_LENGTH; col++) {
+            addSpace(new Space(board, index, col));
+        }
+    }
+
     /**
      * Constructor for an empty row
      * 
@@ -40,7 +63,22 @@ public class Row implements Iterable<Space> {
      */
     public Row(int index) {
         this.spaces = new ArrayList<>();
+        this.cells = new Space[BoardView.BOARD_LENGTH];
         this.index = index;
+        this.reversed = false;
+    }
+
+    /**
+     * Constructor for a row viewing the spaces of another row backwards,
+     * used to show the board from the white player's side without copying it
+     *
+     * @param row the row being viewed
+     */
+    Row(Row row) {
+        this.spaces = row.spaces;
+        this.cells = row.cells;
+        this.index = row.index;
+        this.reversed = !row.reversed;
     }
 
     /**
@@ -53,9 +91,9 @@ public class Row implements Iterable<Space> {
     public void initialize(Color color, boolean isBlackSpace) {
         for (int col = 0; col < BoardView.BOARD_LENGTH; col++) {
             if (isBlackSpace && color != Color.NONE) {
-                spaces.add(new Space(col, true, new Piece(Piece.Type.SINGLE, color)));
+                addSpace(new Space(col, true, Piece.of(Piece.Type.SINGLE, color)));
             } else {
-                spaces.add(new Space(col, isBlackSpace, null));
+                addSpace(new Space(col, isBlackSpace, null));
             }
             isBlackSpace = !isBlackSpace;
         }
@@ -66,8 +104,12 @@ public class Row implements Iterable<Space> {
      * @param space given Space
      */
     public void addSpace(Space space) {
+        if (reversed) {
+            throw new UnsupportedOperationException("Cannot add spaces to a reversed row view.");
+        }
         assert(spaces.size() < BoardView.BOARD_LENGTH);
         spaces.add(space);
+        cells[space.getCellIdx()] = space;
     }
 
 // ------- Getters and Setters -------
@@ -87,13 +129,10 @@ public class Row implements Iterable<Space> {
      * @return Space
      */
     public Space getSpace(int cellIdx) {
-        Space space = null;
-        for (Space s : spaces) {
-            if (s.getCellIdx() == cellIdx) {
-                space = s;
-            }
+        if (cellIdx < 0 || cellIdx >= BoardView.BOARD_LENGTH) {
+            return null;
         }
-        return space;
+        return cells[cellIdx];
     }
 
     /**
@@ -103,7 +142,21 @@ public class Row implements Iterable<Space> {
      */
     @Override
     public Iterator<Space> iterator() {
-        return this.spaces.iterator();
+        if (!reversed) {
+            return this.spaces.iterator();
+        }
+        ListIterator<Space> backwards = spaces.listIterator(spaces.size());
+        return new Iterator<Space>() {
+            @Override
+            public boolean hasNext() {
+                return backwards.hasPrevious();
+            }
+
+            @Override
+            public Space next() {
+                return backwards.previous();
+            }
+        };
     }
 
     /**
@@ -117,7 +170,13 @@ public class Row implements Iterable<Space> {
         if (this == o) return true;
         if (!(o instanceof Row)) return false;
         Row spaces1 = (Row) o;
-        return index == spaces1.index && spaces.equals(spaces1.spaces);
+        if (index != spaces1.index || spaces.size() != spaces1.spaces.size()) return false;
+        // compare in iteration order, so reversed views match rows built backwards
+        Iterator<Space> other = spaces1.iterator();
+        for (Space space : this) {
+            if (!space.equals(other.next())) return false;
+        }
+        return true;
     }
 
 }
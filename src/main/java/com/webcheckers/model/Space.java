@@ -14,6 +14,10 @@ public class Space {
     private Piece piece;
     //If a space is a valid move
     private boolean isValid;
+    //Board this space views, null for a standalone space
+    private final BoardView board;
+    //Row of this space on the board
+    private final int row;
 
     /**
      * Constructor for a space on the checker board
@@ -28,6 +32,24 @@ public class Space {
         this.cellIdx = cellIdx;
         this.isValid = isValid;
         this.piece = piece;
+        this.board = null;
+        this.row = -1;
+    }
+
+    /**
+     * Constructor for a space viewing a square of a board
+     * @param board
+     *  BoardView: the board holding the pieces
+     * @param row
+     *  int: row of the space
+     * @param cellIdx
+     *  int: ID of space
+     */
+    Space(BoardView board, int row, int cellIdx) {
+        this.cellIdx = cellIdx;
+        this.isValid = BoardView.squareOf(row, cellIdx) >= 0;
+        this.board = board;
+        this.row = row;
     }
 
     /**
@@ -48,7 +70,9 @@ public class Space {
      *  Piece: piece
      */
     public Piece getPiece() {
-        if(this.piece == null){return null;}
+        if (board != null) {
+            return board.getPiece(row, cellIdx);
+        }
         return this.piece;
     }
 
@@ -57,7 +81,21 @@ public class Space {
      * @param piece the piece
      */
     public void setPiece(Piece piece) {
-        this.piece = piece;
+        if (board != null) {
+            board.setPiece(row, cellIdx, piece);
+        } else {
+            this.piece = piece;
+        }
+    }
+
+    /**
+     * Promotes the piece on a space by replacing it with the king of its color
+     */
+    public void crownPiece() {
+        Piece current = getPiece();
+        if (current != null) {
+            setPiece(current.crowned());
+        }
     }
 
     /**
@@ -80,7 +118,7 @@ public class Space {
         if (this == o) return true;
         if (!(o instanceof Space)) return false;
         Space space = (Space) o;
-        return cellIdx == space.cellIdx && Objects.equals(piece, space.piece);
+        return cellIdx == space.cellIdx && Objects.equals(getPiece(), space.getPiece());
     }
 
 }
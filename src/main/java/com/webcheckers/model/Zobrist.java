@@ -0,0 +1,94 @@
+package com.webcheckers.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for 64-bit Zobrist hashing of a board
+ * <p>
+ * A board's hash is the XOR of the key of every piece on it, plus
+ * {@link #sideToMove()} when white is to move. Moving, capturing or crowning a
+ * piece changes the hash by XORing the keys in and out, so it can be kept up
+ * to date in a few operations. The keys come from a fixed seed, so hashes are
+ * the same from run to run.
+ *
+ * @author Anh Nguyen
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C0DE_CAFEL;
+
+    // kinds of piece, in key order
+    private static final int RED_SINGLE = 0;
+    private static final int RED_KING = 1;
+    private static final int WHITE_SINGLE = 2;
+    private static final int WHITE_KING = 3;
+
+    // [kind * NUM_SQUARES + square] -> key
+    private static final long[] PIECE_KEYS = new long[4 * BoardView.NUM_SQUARES];
+    private static final long SIDE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        SIDE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a piece on a square
+     *
+     * @param color color of the piece
+     * @param king  whether the piece is a king
+     * @param square given square
+     * @return key of the piece
+     */
+    public static long piece(Piece.Color color, boolean king, int square) {
+        int kind = color == Piece.Color.RED ? RED_SINGLE : WHITE_SINGLE;
+        return PIECE_KEYS[(king ? kind + 1 : kind) * BoardView.NUM_SQUARES + square];
+    }
+
+    /**
+     * Returns the key XORed in while white is to move
+     *
+     * @return side to move key
+     */
+    public static long sideToMove() {
+        return SIDE_TO_MOVE;
+    }
+
+    /**
+     * Computes the hash of a position from scratch
+     *
+     * @param red         mask of the red pieces
+     * @param white       mask of the white pieces
+     * @param kings       mask of the kings
+     * @param whiteToMove whether white is to move
+     * @return hash of the position
+     */
+    public static long hash(int red, int white, int kings, boolean whiteToMove) {
+        long hash = whiteToMove ? SIDE_TO_MOVE : 0;
+        hash ^= hashPieces(red & ~kings, RED_SINGLE) ^ hashPieces(red & kings, RED_KING);
+        hash ^= hashPieces(white & ~kings, WHITE_SINGLE) ^ hashPieces(white & kings, WHITE_KING);
+        return hash;
+    }
+
+    /**
+     * XORs together the keys of a kind of piece on every square of a mask
+     *
+     * @param mask given squares
+     * @param kind kind of piece
+     * @return combined key
+     */
+    private static long hashPieces(int mask, int kind) {
+        long hash = 0;
+        while (mask != 0) {
+            hash ^= PIECE_KEYS[kind * BoardView.NUM_SQUARES + Integer.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return hash;
+    }
+}
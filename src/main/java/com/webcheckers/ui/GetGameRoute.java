@@ -7,7 +7,10 @@ import java.util.logging.Logger;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import com.webcheckers.app.PlayerLobby;
+import com.webcheckers.model.BoardView;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import spark.*;
@@ -41,11 +44,12 @@ public class GetGameRoute implements Route {
 
     // message
     public static final Message OPPONENT_IN_GAME = Message.error("Opponent is in game. Try another player.");
+    public static final Message GAME_GONE = Message.error("The game is no longer available.");
 
     // parameter initializations
     private final PlayerLobby playerLobby;
     private final TemplateEngine templateEngine;
-    private final HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
     private final Gson gson;
 
     // enum for viewMode in game.ftl
@@ -61,12 +65,14 @@ public class GetGameRoute implements Route {
     /**
      * The constructor for the {@code GET /game} route handler.
      *
+     * @param gameCenter The {@link GameCenter} new games are created in.
      * @param templateEngine The {@link TemplateEngine} used for rendering page HTML.
      */
-    public GetGameRoute(HashMap<String, Game> gameMap, PlayerLobby playerLobby, final TemplateEngine templateEngine, Gson gson) {
+    public GetGameRoute(GameCenter gameCenter, PlayerLobby playerLobby, final TemplateEngine templateEngine, Gson gson) {
+        Objects.requireNonNull(gameCenter, "gameCenter is required");
         Objects.requireNonNull(templateEngine, "templateEngine is required");
 
-        this.gameMap = gameMap;
+        this.gameCenter = gameCenter;
         this.playerLobby = playerLobby;
         this.templateEngine = templateEngine;
         this.gson = gson;
@@ -102,15 +108,17 @@ public class GetGameRoute implements Route {
                 if (!player.isPlaying()) {
                     Player opponent = playerLobby.getPlayer(request.queryParams(OPPONENT_ATTR));
 
-                    if (!opponent.isPlaying()) {
+                    // a bot may play any number of games at once
+                    if (opponent.isBot() || !opponent.isPlaying()) {
                         // Creates a game with the opponent
-                        Game game = new Game(player, opponent);
+                        Game game = gameCenter.createGame(player, opponent);
                         player.setPlaying(true);
-                        opponent.setPlaying(true);
+                        if (!opponent.isBot()) {
+                            opponent.setPlaying(true);
+                        }
 //                        playerLobby.removePlayer(player.getName());
 //                        playerLobby.removePlayer(opponent.getName());
-                        gameID = String.valueOf(game.getID());
-                        gameMap.put(gameID, game);
+                        gameID = game.getEncodedID();
                         response.redirect(WebServer.GAME_URL + "?gameID=" + gameID);
                     } else {
                         // opponent is in game, redirect to home page
@@ -126,38 +134,70 @@ public class GetGameRoute implements Route {
                 return null;
             } else {
                 // Game exists, renders the /game page.
-                Game game = gameMap.get(gameID);
-                vm.put(RED_PLAYER_ATTR, game.getRedPlayer());
-                vm.put(WHITE_PLAYER_ATTR, game.getWhitePlayer());
-
-                if (game.isRedPlayer(player)) {
-                    vm.put(BOARD_ATTR, game.redPlayerBoard());
-                } else {
-                    vm.put(BOARD_ATTR, game.whitePlayerBoard());
-                }
-
-                if (game.isRedPlayerTurn()) {
-                    vm.put(ACTIVE_COLOR_ATTR, ActiveColor.RED);
-                } else {
-                    vm.put(ACTIVE_COLOR_ATTR, ActiveColor.WHITE);
+                Game game = gameCenter.getGame(gameID);
+                if (game == null) {
+                    // the game was removed, finished or left idle
+                    response.redirect(WebServer.HOME_URL);
+                    halt();
+                    return null;
                 }
-
-                vm.put(VIEW_MODE_ATTR, Mode.PLAY);
-
-                // game over modeOptions
-                if (game.isGameOver()) {
-                    final Map<String, Object> modeOptions = new HashMap<>(2);
-                    modeOptions.put(IS_GAME_OVER_ATTR, game.isGameOver());
-                    modeOptions.put(GAME_OVER_MSG_ATTR, game.getGameOverMessage());
-                    vm.put(MODE_OPTS_JSON_ATTR, gson.toJson(modeOptions));
+                try {
+                    return render(game, player, vm);
+                } catch (GameRemovedException e) {
+                    response.redirect(WebServer.HOME_URL);
+                    halt();
+                    return null;
                 }
-
             }
         } else {
             response.redirect(WebServer.HOME_URL);
             halt();
             return null;
         }
+    }
+
+    /**
+     * Renders a game for a player
+     * <p>
+     * The View-Model is filled in through the game's queue, with a copy of
+     * the board, so a move made meanwhile is not half drawn. The page is
+     * rendered afterwards on the request thread, so the threads updating the
+     * games are not held up by it.
+     *
+     * @param game   the game
+     * @param player the player
+     * @param vm     the View-Model
+     * @return the rendered HTML
+     */
+    private Object render(Game game, Player player, Map<String, Object> vm) {
+        gameCenter.update(game, g -> {
+            vm.put(RED_PLAYER_ATTR, g.getRedPlayer());
+            vm.put(WHITE_PLAYER_ATTR, g.getWhitePlayer());
+
+            BoardView board = g.redPlayerBoard().copy();
+            if (g.isRedPlayer(player)) {
+                vm.put(BOARD_ATTR, board);
+            } else {
+                vm.put(BOARD_ATTR, board.flipped());
+            }
+
+            if (g.isRedPlayerTurn()) {
+                vm.put(ACTIVE_COLOR_ATTR, ActiveColor.RED);
+            } else {
+                vm.put(ACTIVE_COLOR_ATTR, ActiveColor.WHITE);
+            }
+
+            vm.put(VIEW_MODE_ATTR, Mode.PLAY);
+
+            // game over modeOptions
+            if (g.isGameOver()) {
+                final Map<String, Object> modeOptions = new HashMap<>(2);
+                modeOptions.put(IS_GAME_OVER_ATTR, g.isGameOver());
+                modeOptions.put(GAME_OVER_MSG_ATTR, g.getGameOverMessage());
+                vm.put(MODE_OPTS_JSON_ATTR, gson.toJson(modeOptions));
+            }
+            return null;
+        });
 
         return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
     }
@@ -4,6 +4,8 @@ import java.util.*;
 import java.util.logging.*;
 
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import spark.*;
 
 import com.webcheckers.app.PlayerLobby;
@@ -37,18 +39,19 @@ public class GetHomeRoute implements Route {
     // parameter initializations
     private final TemplateEngine templateEngine;
     private final PlayerLobby playerLobby;
-    private HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
 
     /**
      * Create the Spark Route (UI controller) to handle all {@code GET /} HTTP requests.
      *
      * @param templateEngine the HTML template rendering engine
      */
-    public GetHomeRoute(HashMap<String, Game> gameMap, PlayerLobby playerLobby, final TemplateEngine templateEngine) {
+    public GetHomeRoute(GameCenter gameCenter, PlayerLobby playerLobby, final TemplateEngine templateEngine) {
+        Objects.requireNonNull(gameCenter, "gameCenter must not be null");
         Objects.requireNonNull(playerLobby, "playerLobby must not be null");
         Objects.requireNonNull(templateEngine, "templateEngine is required");
 
-        this.gameMap = gameMap;
+        this.gameCenter = gameCenter;
         this.playerLobby = playerLobby;
         this.templateEngine = templateEngine;
 
@@ -83,24 +86,18 @@ public class GetHomeRoute implements Route {
 
         // redirects player into the game with the player they're challenged with (if possible)
         if (player != null) {
-            Game game = null;
-            for (Game g : gameMap.values()) {
-                if (player.equals(g.getWhitePlayer()) || player.equals(g.getRedPlayer())) {
-                    game = g;
-                    break;
-                }
-            }
+            Game game = gameCenter.findGame(player);
 
             if (game != null && player.isPlaying() &&
                     player.equals(game.getWhitePlayer()) &&
                     game.getRedPlayer().isPlaying()) {
-                response.redirect(WebServer.GAME_URL + "?gameID=" + game.getID());
+                response.redirect(WebServer.GAME_URL + "?gameID=" + game.getEncodedID());
                 halt();
                 return null;
-            } else if (game != null && game.isGameOver()) {
+            } else if (game != null && isGameOver(game)) {
                 player.setPlaying(false);
                 if (!game.getRedPlayer().isPlaying() && !game.getWhitePlayer().isPlaying()) {
-                    gameMap.remove(String.valueOf(game.getID()));
+                    gameCenter.removeGame(game);
                 }
             }
         }
@@ -125,4 +122,18 @@ public class GetHomeRoute implements Route {
         // render the View
         return templateEngine.render(new ModelAndView(vm, VIEW_NAME));
     }
+
+    /**
+     * Checks if a game is over
+     *
+     * @param game the game
+     * @return true if the game is over, false if not or if it has been removed meanwhile
+     */
+    private boolean isGameOver(Game game) {
+        try {
+            return gameCenter.update(game, Game::isGameOver);
+        } catch (GameRemovedException e) {
+            return false;
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import spark.Request;
@@ -9,7 +11,6 @@ import spark.Response;
 import spark.Route;
 import spark.Session;
 
-import java.util.HashMap;
 import java.util.logging.Logger;
 
 /**
@@ -18,11 +19,11 @@ import java.util.logging.Logger;
 public class PostBackupMoveRoute implements Route {
     private static final Logger LOG = Logger.getLogger(GetSignInRoute.class.getName());
 
-    private final HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
     private final Gson gson;
 
-    public PostBackupMoveRoute(HashMap<String, Game> gameMap, Gson gson) {
-        this.gameMap = gameMap;
+    public PostBackupMoveRoute(GameCenter gameCenter, Gson gson) {
+        this.gameCenter = gameCenter;
         this.gson = gson;
     }
 
@@ -31,13 +32,20 @@ public class PostBackupMoveRoute implements Route {
         LOG.finer("PostBackupMoveRoute has been invoked.");
 
         String gameID = request.queryParams(GetGameRoute.GAME_ID_PARAM);
-        Game game = gameMap.get(gameID);
+        Game game = gameCenter.getGame(gameID);
+        if (game == null) {
+            return gson.toJson(GetGameRoute.GAME_GONE);
+        }
 
         Message message;
-        if (game.backupMove()) {
-            message = Message.info("Move backed up.");
-        } else {
-            message = Message.error("No move to back up.");
+        try {
+            if (gameCenter.update(game, Game::backupMove)) {
+                message = Message.info("Move backed up.");
+            } else {
+                message = Message.error("No move to back up.");
+            }
+        } catch (GameRemovedException e) {
+            message = GetGameRoute.GAME_GONE;
         }
 
         return gson.toJson(message);
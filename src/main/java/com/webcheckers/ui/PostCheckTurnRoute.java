@@ -2,6 +2,8 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import spark.Request;
@@ -9,7 +11,6 @@ import spark.Response;
 import spark.Route;
 import spark.Session;
 
-import java.util.HashMap;
 import java.util.logging.Logger;
 
 /**
@@ -19,11 +20,11 @@ import java.util.logging.Logger;
 public class PostCheckTurnRoute implements Route {
     private static final Logger LOG = Logger.getLogger(GetSignInRoute.class.getName());
 
-    private final HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
     private final Gson gson;
 
-    public PostCheckTurnRoute(HashMap<String, Game> gameMap, Gson gson) {
-        this.gameMap = gameMap;
+    public PostCheckTurnRoute(GameCenter gameCenter, Gson gson) {
+        this.gameCenter = gameCenter;
         this.gson = gson;
     }
 
@@ -35,11 +36,18 @@ public class PostCheckTurnRoute implements Route {
         Player player = httpSession.attribute(GetHomeRoute.CURRENT_USER_ATTR);
 
         String gameID = request.queryParams(GetGameRoute.GAME_ID_PARAM);
-        Game game = gameMap.get(gameID);
+        Game game = gameCenter.getGame(gameID);
 
         Message message;
-        if ((game.isRedPlayer(player) && game.isRedPlayerTurn()) ||
-            (!game.isRedPlayer(player) && !game.isRedPlayerTurn())) {
+        // a removed game reloads the page, which goes home
+        boolean myTurn;
+        try {
+            myTurn = game == null
+                    || gameCenter.update(game, g -> g.isRedPlayer(player) == g.isRedPlayerTurn());
+        } catch (GameRemovedException e) {
+            myTurn = true;
+        }
+        if (myTurn) {
             message = Message.info("true");
         } else {
             message = Message.info("false");
@@ -2,13 +2,16 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
+import com.webcheckers.app.HintEngine;
+import com.webcheckers.app.SearchResult;
 import com.webcheckers.model.Move;
 import com.webcheckers.util.Message;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 
-import java.util.HashMap;
 import java.util.logging.Logger;
 
 /**
@@ -17,11 +20,13 @@ import java.util.logging.Logger;
 public class PostGetHintRoute implements Route {
     private static final Logger LOG = Logger.getLogger(GetSignInRoute.class.getName());
 
-    private final HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
+    private final HintEngine hintEngine;
     private final Gson gson;
 
-    public PostGetHintRoute(HashMap<String, Game> gameMap, Gson gson) {
-        this.gameMap = gameMap;
+    public PostGetHintRoute(GameCenter gameCenter, HintEngine hintEngine, Gson gson) {
+        this.gameCenter = gameCenter;
+        this.hintEngine = hintEngine;
         this.gson = gson;
     }
 
@@ -30,17 +35,31 @@ public class PostGetHintRoute implements Route {
         LOG.finer("PostGetHintRoute has been invoked.");
 
         String gameID = request.queryParams(GetGameRoute.GAME_ID_PARAM);
-        Game game = gameMap.get(gameID);
+        Game game = gameCenter.getGame(gameID);
+        if (game == null) {
+            return gson.toJson(GetGameRoute.GAME_GONE);
+        }
 
         Message message;
-        // Find jump moves first
-        Move move = game.findRandomJumpMove();
-        if (move == null) {
-            // If no jump moves, find simple moves
-            move = game.findRandomSimpleMove();
+        // search for the best move, which is a forced jump if there is one
+        SearchResult hint;
+        try {
+            hint = hintEngine.findHint(gameCenter, game);
+        } catch (GameRemovedException e) {
+            return gson.toJson(GetGameRoute.GAME_GONE);
         }
+        Move move = hint.getMove();
         if (move != null) {
-            message = Message.info("[Hint] " + move);
+            switch (hint.getSource()) {
+                case OPENING_BOOK:
+                    message = Message.info("[Hint] " + move + " (from the opening book)");
+                    break;
+                case TABLEBASE:
+                    message = Message.info("[Hint] " + move + " (from the endgame table)");
+                    break;
+                default:
+                    message = Message.info("[Hint] " + move + " (looked " + hint.getDepth() + " moves ahead)");
+            }
         } else {
             message = Message.error("No move can be found.");
         }
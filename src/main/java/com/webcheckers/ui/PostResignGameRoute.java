@@ -2,6 +2,8 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import spark.Request;
@@ -9,7 +11,6 @@ import spark.Response;
 import spark.Route;
 import spark.Session;
 
-import java.util.HashMap;
 import java.util.logging.Logger;
 
 /**
@@ -18,11 +19,11 @@ import java.util.logging.Logger;
 public class PostResignGameRoute implements Route {
     private static final Logger LOG = Logger.getLogger(GetSignInRoute.class.getName());
 
-    private final HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
     private final Gson gson;
 
-    public PostResignGameRoute(HashMap<String, Game> gameMap, Gson gson) {
-        this.gameMap = gameMap;
+    public PostResignGameRoute(GameCenter gameCenter, Gson gson) {
+        this.gameCenter = gameCenter;
         this.gson = gson;
     }
 
@@ -34,10 +35,25 @@ public class PostResignGameRoute implements Route {
         Player player = httpSession.attribute(GetHomeRoute.CURRENT_USER_ATTR);
 
         String gameID = request.queryParams(GetGameRoute.GAME_ID_PARAM);
-        Game game = gameMap.get(gameID);
-
-        game.setGameOver();
-        game.setGameOverMessage("You won! " + player + " has resigned.");
+        Game game = gameCenter.getGame(gameID);
+        if (game == null) {
+            // the game was removed; the player is out of it all the same
+            if (player != null) {
+                player.setPlaying(false);
+            }
+            return gson.toJson(GetGameRoute.GAME_GONE);
+        }
+
+        try {
+            gameCenter.update(game, g -> {
+                g.resign(player);
+                g.setGameOverMessage("You won! " + player + " has resigned.");
+                return null;
+            });
+        } catch (GameRemovedException e) {
+            player.setPlaying(false);
+            return gson.toJson(GetGameRoute.GAME_GONE);
+        }
         player.setPlaying(false);
 
         // document says there can be an error, but I don't see how that can happen
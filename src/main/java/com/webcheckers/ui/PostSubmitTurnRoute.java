@@ -1,13 +1,17 @@
 package com.webcheckers.ui;
 
 import com.google.gson.Gson;
+import com.webcheckers.app.BotPlayers;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
+import com.webcheckers.app.Ponderer;
 import com.webcheckers.util.Message;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 
-import java.util.HashMap;
+import java.util.Objects;
 import java.util.logging.Logger;
 
 /**
@@ -16,12 +20,35 @@ import java.util.logging.Logger;
 public class PostSubmitTurnRoute implements Route {
     private static final Logger LOG = Logger.getLogger(GetSignInRoute.class.getName());
 
-    private final HashMap<String, Game> gameMap;
+    private final GameCenter gameCenter;
     private final Gson gson;
+    private final BotPlayers bots;
+    private final Ponderer ponderer;
 
-    public PostSubmitTurnRoute(HashMap<String, Game> gameMap, Gson gson) {
-        this.gameMap = gameMap;
+    public PostSubmitTurnRoute(GameCenter gameCenter, Gson gson) {
+        this(gameCenter, gson, BotPlayers.NONE);
+    }
+
+    /**
+     * Constructor for a route that starts a bot's turn once the player's turn is submitted
+     *
+     * @param bots driver of the bots, or {@link BotPlayers#NONE}
+     */
+    public PostSubmitTurnRoute(GameCenter gameCenter, Gson gson, BotPlayers bots) {
+        this(gameCenter, gson, bots, Ponderer.NONE);
+    }
+
+    /**
+     * Constructor for a route that also ponders the hints of the next turns
+     *
+     * @param bots     driver of the bots, or {@link BotPlayers#NONE}
+     * @param ponderer ponderer of the hints, or {@link Ponderer#NONE}
+     */
+    public PostSubmitTurnRoute(GameCenter gameCenter, Gson gson, BotPlayers bots, Ponderer ponderer) {
+        this.gameCenter = gameCenter;
         this.gson = gson;
+        this.bots = Objects.requireNonNull(bots, "bots must not be null");
+        this.ponderer = Objects.requireNonNull(ponderer, "ponderer must not be null");
     }
 
     @Override
@@ -29,25 +56,48 @@ public class PostSubmitTurnRoute implements Route {
         LOG.finer("PostSubmitTurnRoute has been invoked.");
 
         String gameID = request.queryParams(GetGameRoute.GAME_ID_PARAM);
-        Game game = gameMap.get(gameID);
+        Game game = gameCenter.getGame(gameID);
+        if (game == null) {
+            return gson.toJson(GetGameRoute.GAME_GONE);
+        }
 
         Message message;
-        // returns false when there is still a jump move possible
-        if (game.makeMove()) {
-            message = Message.info("Turn submitted.");
+        try {
+            message = submitTurn(game);
+        } catch (GameRemovedException e) {
+            message = GetGameRoute.GAME_GONE;
+        }
+
+        return gson.toJson(message);
+    }
+
+    /**
+     * Submits the pending moves of the player in turn
+     *
+     * @param game the game
+     * @return message for the player
+     */
+    private Message submitTurn(Game game) {
+        return gameCenter.update(game, g -> {
+            // the position pondered is about to change
+            ponderer.cancel(g);
+            // returns false when there is still a jump move possible
+            if (!g.makeMove()) {
+                // oops, should be an error instead of info
+                return Message.error("Possible jump move detected. You must play all jump moves.");
+            }
             // switch turns
             // OOPS only switch turns when the turn is submitted!!!
-            if (game.isRedPlayerTurn()) {
-                game.setPlayerInTurn(game.getWhitePlayer());
+            if (g.isRedPlayerTurn()) {
+                g.setPlayerInTurn(g.getWhitePlayer());
             } else {
-                game.setPlayerInTurn(game.getRedPlayer());
+                g.setPlayerInTurn(g.getRedPlayer());
             }
-        } else {
-            // oops, should be an error instead of info
-            message = Message.error("Possible jump move detected. You must play all jump moves.");
-        }
-
-
-        return gson.toJson(message);
+            // the bot thinks on its own threads; the player polls for their turn as usual
+            if (!bots.play(g)) {
+                ponderer.ponder(g);
+            }
+            return Message.info("Turn submitted.");
+        });
     }
 }
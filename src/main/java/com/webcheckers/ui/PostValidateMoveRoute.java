@@ -1,10 +1,11 @@
 package com.webcheckers.ui;
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import com.webcheckers.model.Move;
 import com.webcheckers.util.Message;
 import spark.*;
-import java.util.HashMap;
 import java.util.logging.Logger;
 
 /**
@@ -17,17 +18,17 @@ public class PostValidateMoveRoute implements Route {
     private static final Logger LOG = Logger.getLogger(GetSignInRoute.class.getName());
     //action data parameter for postValidateMoveRoute
     private static final String actionDataParam = "actionData";
-    //map to store the game and the move
-    private final HashMap<String, Game> gameMap;
+    //games being played
+    private final GameCenter gameCenter;
     //gson for postValidateMoveRoute
     private final Gson gson;
 
     /**
      * Constructor for the PostValidateMoveRoute
-     * @param gameMap the map to store the game and the move
+     * @param gameCenter the games being played
      */
-    public PostValidateMoveRoute(HashMap<String, Game> gameMap, Gson gson) {
-        this.gameMap = gameMap;
+    public PostValidateMoveRoute(GameCenter gameCenter, Gson gson) {
+        this.gameCenter = gameCenter;
         this.gson = gson;
     }
     
@@ -37,9 +38,17 @@ public class PostValidateMoveRoute implements Route {
 
         String param = request.queryParams(actionDataParam);
         String gameID = request.queryParams(GetGameRoute.GAME_ID_PARAM);
-        Game game = gameMap.get(gameID);
+        Game game = gameCenter.getGame(gameID);
+        if (game == null) {
+            return gson.toJson(GetGameRoute.GAME_GONE);
+        }
         Move move = gson.fromJson(param, Move.class);
-        Message message = game.validateMove(move);
+        Message message;
+        try {
+            message = gameCenter.update(game, g -> g.validateMove(move));
+        } catch (GameRemovedException e) {
+            message = GetGameRoute.GAME_GONE;
+        }
 
         return gson.toJson(message);
     }
@@ -2,12 +2,14 @@ package com.webcheckers.ui;
 
 import static spark.Spark.*;
 
-import java.util.HashMap;
 import java.util.Objects;
 import java.util.logging.Logger;
 
-import com.webcheckers.app.Game;
+import com.webcheckers.app.BotPlayers;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.HintEngine;
 import com.webcheckers.app.PlayerLobby;
+import com.webcheckers.app.Ponderer;
 import com.google.gson.Gson;
 
 import spark.TemplateEngine;
@@ -77,7 +79,10 @@ public class WebServer {
 
   private final TemplateEngine templateEngine;
   private final PlayerLobby playerLobby;
-  private final HashMap<String, Game> gameMap;
+  private final GameCenter gameCenter;
+  private final HintEngine hintEngine;
+  private final BotPlayers bots;
+  private final Ponderer ponderer;
   private final Gson gson;
 
   //
@@ -96,14 +101,68 @@ public class WebServer {
    *    If any of the parameters are {@code null}.
    */
   public WebServer(final TemplateEngine templateEngine, final Gson gson, PlayerLobby playerLobby) {
+    this(templateEngine, gson, playerLobby, new HintEngine());
+  }
+
+  /**
+   * The constructor for the Web Server with a configured hint engine.
+   *
+   * @param templateEngine
+   *    The default {@link TemplateEngine} to render page-level HTML views.
+   * @param gson
+   *    The Google JSON parser object used to render Ajax responses.
+   * @param playerLobby
+   *    The lobby of signed-in players.
+   * @param hintEngine
+   *    The {@link HintEngine} answering hint requests.
+   *
+   * @throws NullPointerException
+   *    If any of the parameters are {@code null}.
+   */
+  public WebServer(final TemplateEngine templateEngine, final Gson gson, PlayerLobby playerLobby,
+                   HintEngine hintEngine) {
+    this(templateEngine, gson, playerLobby, new GameCenter(hintEngine.getTablebase()), hintEngine,
+        BotPlayers.NONE, Ponderer.NONE);
+  }
+
+  /**
+   * The constructor for the Web Server with every application component given.
+   *
+   * @param templateEngine
+   *    The default {@link TemplateEngine} to render page-level HTML views.
+   * @param gson
+   *    The Google JSON parser object used to render Ajax responses.
+   * @param playerLobby
+   *    The lobby of signed-in players.
+   * @param gameCenter
+   *    The {@link GameCenter} holding the games being played.
+   * @param hintEngine
+   *    The {@link HintEngine} answering hint requests.
+   * @param bots
+   *    The {@link BotPlayers} playing for the bots, or {@link BotPlayers#NONE}.
+   * @param ponderer
+   *    The {@link Ponderer} searching hints ahead, or {@link Ponderer#NONE}.
+   *
+   * @throws NullPointerException
+   *    If any of the parameters are {@code null}.
+   */
+  public WebServer(final TemplateEngine templateEngine, final Gson gson, PlayerLobby playerLobby,
+                   GameCenter gameCenter, HintEngine hintEngine, BotPlayers bots, Ponderer ponderer) {
     // validation
     Objects.requireNonNull(templateEngine, "templateEngine must not be null");
     Objects.requireNonNull(gson, "gson must not be null");
     Objects.requireNonNull(playerLobby, "playerLobby must not be null");
+    Objects.requireNonNull(gameCenter, "gameCenter must not be null");
+    Objects.requireNonNull(hintEngine, "hintEngine must not be null");
+    Objects.requireNonNull(bots, "bots must not be null");
+    Objects.requireNonNull(ponderer, "ponderer must not be null");
     //
     this.templateEngine = templateEngine;
     this.playerLobby = playerLobby;
-    this.gameMap = new HashMap<>(); // change to gameCenter in future
+    this.gameCenter = gameCenter;
+    this.hintEngine = hintEngine;
+    this.bots = bots;
+    this.ponderer = ponderer;
     this.gson = gson;
   }
 
@@ -159,18 +218,18 @@ public class WebServer {
     //// code clean; using small classes.
 
     // Shows the Checkers game Home page.
-    get(HOME_URL, new GetHomeRoute(gameMap, playerLobby, templateEngine));
+    get(HOME_URL, new GetHomeRoute(gameCenter, playerLobby, templateEngine));
     get(SIGNIN_URL, new GetSignInRoute(templateEngine));
-    get(GAME_URL, new GetGameRoute(gameMap, playerLobby, templateEngine, gson));
+    get(GAME_URL, new GetGameRoute(gameCenter, playerLobby, templateEngine, gson));
     post(SIGNIN_URL, new PostSignInRoute(playerLobby, templateEngine));
     post(SIGNOUT_URL, new PostSignOutRoute(playerLobby, templateEngine));
-    post(VALIDATE_MOVE_URL, new PostValidateMoveRoute(gameMap, gson));
-    post(SUBMIT_TURN_URL, new PostSubmitTurnRoute(gameMap, gson));
-    post(CHECK_TURN_URL, new PostCheckTurnRoute(gameMap, gson));
-    post(BACKUP_MOVE_URL, new PostBackupMoveRoute(gameMap, gson));
-    post(RESIGN_GAME_URL, new PostResignGameRoute(gameMap, gson));
+    post(VALIDATE_MOVE_URL, new PostValidateMoveRoute(gameCenter, gson));
+    post(SUBMIT_TURN_URL, new PostSubmitTurnRoute(gameCenter, gson, bots, ponderer));
+    post(CHECK_TURN_URL, new PostCheckTurnRoute(gameCenter, gson));
+    post(BACKUP_MOVE_URL, new PostBackupMoveRoute(gameCenter, gson));
+    post(RESIGN_GAME_URL, new PostResignGameRoute(gameCenter, gson));
     get(HELP_URL, new GetHelpRoute(templateEngine));
-    post(GET_HINT_URL, new PostGetHintRoute(gameMap, gson));
+    post(GET_HINT_URL, new PostGetHintRoute(gameCenter, hintEngine, gson));
     //
     LOG.config("WebServer is initialized.");
 
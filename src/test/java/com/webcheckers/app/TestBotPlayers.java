@@ -0,0 +1,164 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier BotPlayers class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestBotPlayers {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private BotPlayers CuT;
+
+    private HintEngine engine;
+    private GameCenter gameCenter;
+    private Player human;
+    private Player bot;
+
+    @BeforeEach
+    public void setup() {
+        engine = new HintEngine.Builder()
+                .budget(HintEngine.DEFAULT_MAX_DEPTH, HintEngine.DEFAULT_MAX_NODES, 20)
+                .table(new TranspositionTable(1))
+                .build();
+        gameCenter = new GameCenter();
+        CuT = new BotPlayers(engine, gameCenter, 1, 4, 20);
+        human = new Player("Human");
+        bot = new Player("Computer", true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CuT.shutdown();
+        gameCenter.shutdown();
+    }
+
+    /**
+     * Starts a game against the bot and plays red's first move, handing the turn to the bot
+     */
+    private Game startGame() {
+        Game game = gameCenter.createGame(human, bot);
+        game.validateMove(new Move(Position.of(5, 2), Position.of(4, 3), Move.MoveType.SIMPLE));
+        assertTrue(game.makeMove());
+        game.setPlayerInTurn(bot);
+        return game;
+    }
+
+    /**
+     * Waits until it is the human's turn again
+     */
+    private void awaitTurn(Game game) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            if (gameCenter.update(game, Game::isRedPlayerTurn)) {
+                return;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "The bot did not move.");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Tests that the bot plays its turn and hands the turn back
+     */
+    @Test
+    public void testPlay() throws InterruptedException {
+        Game game = startGame();
+        assertTrue(CuT.play(game));
+        awaitTurn(game);
+        assertEquals(2, game.getTurnCount());
+        assertEquals(1, CuT.getTurns());
+
+        // nothing to do on the human's turn
+        assertFalse(CuT.play(game));
+        assertFalse(BotPlayers.NONE.play(startGame()));
+    }
+
+    /**
+     * Tests that turns waiting on a busy pool think for less time, and that a
+     * turn that cannot even wait is played at once
+     */
+    @Test
+    public void testUnderLoad() throws InterruptedException {
+        CuT.shutdown();
+        CuT = new BotPlayers(engine, gameCenter, 1, 2, 500);
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            games.add(startGame());
+        }
+        // one turn on the thread, two waiting, and no room for the fourth
+        for (Game game : games) {
+            assertTrue(CuT.play(game));
+        }
+        assertEquals(1, CuT.getQuickTurns());
+        for (Game game : games) {
+            awaitTurn(game);
+            assertEquals(2, game.getTurnCount());
+        }
+        assertEquals(4, CuT.getTurns());
+        assertTrue(CuT.getShortenedTurns() >= 1);
+    }
+
+    /**
+     * Tests that the game's updates are answered while the bot thinks
+     */
+    @Test
+    public void testAnswersWhileThinking() throws InterruptedException {
+        CuT.shutdown();
+        CuT = new BotPlayers(engine, gameCenter, 1, 4, 300);
+        Game game = startGame();
+        assertTrue(CuT.play(game));
+        Thread.sleep(50);
+        long start = System.nanoTime();
+        assertFalse(gameCenter.update(game, Game::isRedPlayerTurn));
+        assertTrue(System.nanoTime() - start < 100_000_000L, "The game was held up while the bot thought.");
+        awaitTurn(game);
+        assertEquals(1, CuT.getTurns());
+    }
+
+    /**
+     * Tests that a bot gives its turn up when the position changes while it thinks
+     */
+    @Test
+    public void testPositionChanged() throws InterruptedException {
+        CuT.shutdown();
+        CuT = new BotPlayers(engine, gameCenter, 1, 4, 300);
+        Game game = startGame();
+        assertTrue(CuT.play(game));
+        Thread.sleep(50);
+        gameCenter.update(game, g -> {
+            g.resign(bot);
+            return null;
+        });
+        Thread.sleep(400);
+        assertEquals(0, CuT.getTurns());
+        assertEquals(1, game.getTurnCount());
+    }
+
+    /**
+     * Tests that a bot does not play in a finished game
+     */
+    @Test
+    public void testGameOver() {
+        Game game = startGame();
+        game.resign(human);
+        assertFalse(CuT.play(game));
+        assertThrows(IllegalArgumentException.class, () -> new BotPlayers(engine, gameCenter, 0, 1, 1));
+    }
+}
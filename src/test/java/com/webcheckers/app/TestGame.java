@@ -10,9 +10,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.platform.commons.annotation.Testable;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Tests the Application-tier Game class
@@ -80,7 +82,28 @@ public class TestGame {
      */
     @Test
     public void testGetID() {
-        assertEquals(CuT.getID(), Objects.hash(redPlayer, whitePlayer));
+        // a rematch between the same players is a different game
+        Game rematch = new Game(redPlayer, whitePlayer);
+        assertNotEquals(CuT.getID(), rematch.getID());
+        assertTrue(CuT.getID() > 0);
+    }
+
+    /**
+     * Tests {@link Game#getEncodedID()} and {@link Game#decodeID(String)}
+     */
+    @Test
+    public void testEncodedID() {
+        assertEquals(CuT.getID(), Game.decodeID(CuT.getEncodedID()));
+        assertEquals(Long.toString(CuT.getID(), Character.MAX_RADIX), CuT.getEncodedID());
+        assertEquals(35, Game.decodeID("z"));
+        assertEquals(36, Game.decodeID("10"));
+        assertEquals(Long.MAX_VALUE, Game.decodeID(Long.toString(Long.MAX_VALUE, Character.MAX_RADIX)));
+        // one digit more overflows
+        assertEquals(Game.NO_ID, Game.decodeID(Long.toString(Long.MAX_VALUE, Character.MAX_RADIX) + "0"));
+        assertEquals(Game.NO_ID, Game.decodeID(null));
+        assertEquals(Game.NO_ID, Game.decodeID(""));
+        assertEquals(Game.NO_ID, Game.decodeID("-1"));
+        assertEquals(Game.NO_ID, Game.decodeID("12?"));
     }
 
     /**
@@ -118,6 +141,35 @@ public class TestGame {
         BoardView whitePlayerBoard = new BoardView(whiteBoard);
 
         assertEquals(CuT.whitePlayerBoard(), whitePlayerBoard, "White's boards don't match");
+
+        // the white player's board is a view, so it is not rebuilt and follows the moves
+        assertSame(CuT.whitePlayerBoard(), CuT.whitePlayerBoard());
+        CuT.validateMove(new Move(new Position(5, 0), new Position(4, 1), null));
+        CuT.makeMove();
+        assertEquals(Piece.Color.RED, CuT.whitePlayerBoard().getRow(4).getSpace(1).getPiece().getColor());
+        assertEquals(BoardView.BOARD_LENGTH - 1, CuT.whitePlayerBoard().iterator().next().getIndex());
+    }
+
+    /**
+     * Tests {@link Game#getHash()}
+     */
+    @Test
+    public void testGetHash() {
+        long start = CuT.getHash();
+        assertEquals(board.getHash(), start);
+
+        CuT.validateMove(new Move(new Position(5, 0), new Position(4, 1), null));
+        CuT.makeMove();
+        CuT.setPlayerInTurn(whitePlayer);
+        BoardView b = CuT.redPlayerBoard();
+        assertEquals(Zobrist.hash(b.getRedMask(), b.getWhiteMask(), b.getKingMask(), true), CuT.getHash());
+
+        // same side again does not change the hash
+        long hash = CuT.getHash();
+        CuT.setPlayerInTurn(whitePlayer);
+        assertEquals(hash, CuT.getHash());
+        CuT.setPlayerInTurn(redPlayer);
+        assertEquals(hash ^ Zobrist.sideToMove(), CuT.getHash());
     }
 
     /**
@@ -177,7 +229,9 @@ public class TestGame {
 
         // validateMove() is a friendly here
         assertEquals(CuT.validateMove(validMove1).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(validMove2).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(invalidMove1).getText(), invalidMoveMessage.getText());
         assertEquals(CuT.validateMove(invalidMove2).getText(), invalidMoveMessage.getText());
         assertEquals(CuT.validateMove(invalidMove3).getText(), invalidMoveMessage.getText());
@@ -204,7 +258,9 @@ public class TestGame {
         invalidMove6 = new Move(new Position(0, 0), new Position(5, 0), null);
 
         assertEquals(CuT.validateMove(validMove1).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(validMove2).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(invalidMove1).getText(), invalidMoveMessage.getText());
         assertEquals(CuT.validateMove(invalidMove2).getText(), invalidMoveMessage.getText());
         assertEquals(CuT.validateMove(invalidMove3).getText(), invalidMoveMessage.getText());
@@ -214,7 +270,7 @@ public class TestGame {
 
         // tests KING-typed piece
         BoardView b = CuT.redPlayerBoard();
-        b.getRow(2).getSpace(1).getPiece().setType(Piece.Type.KING);
+        b.getRow(2).getSpace(1).setPiece(Piece.of(Piece.Type.KING, Piece.Color.WHITE));
         b.getRow(1).getSpace(0).setPiece(null);
         b.getRow(1).getSpace(2).setPiece(null);
 
@@ -222,13 +278,61 @@ public class TestGame {
         Move validMove4 = new Move(new Position(2, 1), new Position(1, 2), null);
 
         assertEquals(CuT.validateMove(validMove1).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(validMove2).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(validMove3).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
         assertEquals(CuT.validateMove(validMove4).getText(), validSimpleMoveMessage.getText());
+        CuT.backupMove();
 
         // can be improved with more tests
     }
 
+    /**
+     * Tests that the player in turn cannot move the opponent's pieces
+     */
+    @Test
+    public void testMoveOpponentPiece() {
+        // red to move; white pieces on rows 0-2
+        Move whiteMove = new Move(new Position(2, 1), new Position(3, 2), null);
+        assertEquals(invalidMoveMessage.getText(), CuT.validateMove(whiteMove).getText());
+        assertFalse(CuT.makeMove());
+        assertNotNull(CuT.redPlayerBoard().getPiece(2, 1));
+
+        // nor may white move red's pieces in its turn
+        CuT.setPlayerInTurn(whitePlayer);
+        Move redMove = new Move(new Position(5, 0), new Position(4, 1), null);
+        assertEquals(invalidMoveMessage.getText(), CuT.validateMove(redMove).getText());
+    }
+
+    /**
+     * Tests that a simple move ends the turn, so a second one is refused
+     */
+    @Test
+    public void testSecondSimpleMove() {
+        Move first = new Move(new Position(5, 0), new Position(4, 1), null);
+        Move second = new Move(new Position(5, 2), new Position(4, 3), null);
+        assertEquals(validSimpleMoveMessage.getText(), CuT.validateMove(first).getText());
+        Message refused = CuT.validateMove(second);
+        assertEquals(Message.Type.ERROR, refused.getType());
+
+        // only the first move is played
+        assertTrue(CuT.makeMove());
+        BoardView board = CuT.redPlayerBoard();
+        assertNotNull(board.getPiece(4, 1));
+        assertNotNull(board.getPiece(5, 2));
+        assertNull(board.getPiece(4, 3));
+
+        // backing the move up lets another one be made instead
+        CuT.setPlayerInTurn(whitePlayer);
+        Move white = new Move(new Position(2, 1), new Position(3, 0), null);
+        assertEquals(validSimpleMoveMessage.getText(), CuT.validateMove(white).getText());
+        assertTrue(CuT.backupMove());
+        white = new Move(new Position(2, 1), new Position(3, 2), null);
+        assertEquals(validSimpleMoveMessage.getText(), CuT.validateMove(white).getText());
+    }
+
     /**
      * Tests jump move check for single pieces {@link Game}
      */
@@ -267,7 +371,7 @@ public class TestGame {
         b.getRow(1).getSpace(6).setPiece(null);
         b.getRow(1).getSpace(6).setPiece(b.getRow(5).getSpace(2).getPiece());
         b.getRow(5).getSpace(2).setPiece(null);
-        b.getRow(1).getSpace(6).getPiece().setType(Piece.Type.KING);
+        b.getRow(1).getSpace(6).setPiece(Piece.of(Piece.Type.KING, Piece.Color.RED));
         Move tmp = new Move(new Position(1, 6), new Position(3, 4), null);
         CuT.validateMove(tmp);
 
@@ -372,9 +476,9 @@ public class TestGame {
         }
 
         // setup last winning move for red
-        Piece red = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
+        Piece red = Piece.of(Piece.Type.SINGLE, Piece.Color.RED);
         b.getRow(2).getSpace(5).setPiece(red);
-        Piece white = new Piece(Piece.Type.SINGLE, Piece.Color.WHITE);
+        Piece white = Piece.of(Piece.Type.SINGLE, Piece.Color.WHITE);
         b.getRow(1).getSpace(6).setPiece(white);
 
         Move winningMove = new Move(new Position(2, 5), new Position(0, 7), null);
@@ -383,6 +487,58 @@ public class TestGame {
 
         assertTrue(CuT.isGameOver());
         assertEquals(CuT.getGameOverMessage(), redPlayer + "won! " + whitePlayer + "ran out of pieces.");
+        assertEquals(Piece.Color.RED, CuT.getWinner());
+    }
+
+    /**
+     * Tests that {@link Game#makeMove()} ends a game the endgame table knows the result of
+     */
+    @Test
+    public void testMakeMoveAdjudicated() throws IOException {
+        Path directory = Files.createTempDirectory("tablebase");
+        Tablebase tablebase = new TablebaseGenerator(2, 1, directory).generate(directory.resolve("table.bin"));
+        CuT = new Game(redPlayer, whitePlayer, tablebase);
+        BoardView b = CuT.redPlayerBoard();
+        for (Row row : b) {
+            for (Space space : row) {
+                space.setPiece(null);
+            }
+        }
+        b.getRow(5).getSpace(2).setPiece(Piece.RED_KING);
+        b.getRow(3).getSpace(4).setPiece(Piece.WHITE_KING);
+
+        // stepping next to the white king lets it take the last red piece
+        CuT.validateMove(new Move(new Position(5, 2), new Position(4, 3), null));
+        assertTrue(CuT.makeMove());
+        assertTrue(CuT.isGameOver());
+        assertEquals(whitePlayer + " won! " + redPlayer + " cannot avoid losing.", CuT.getGameOverMessage());
+
+        // without a table the game goes on
+        Game plain = new Game(redPlayer, whitePlayer);
+        plain.validateMove(new Move(new Position(5, 0), new Position(4, 1), null));
+        assertTrue(plain.makeMove());
+        assertFalse(plain.isGameOver());
+    }
+
+    /**
+     * Tests that each turn made is kept, with the position it was made in
+     */
+    @Test
+    public void testTurnHistory() {
+        assertEquals(0, CuT.getTurnCount());
+        long start = CuT.getHash();
+        Move move = new Move(new Position(5, 0), new Position(4, 1), null);
+        CuT.validateMove(move);
+        CuT.makeMove();
+        CuT.setPlayerInTurn(whitePlayer);
+        assertEquals(1, CuT.getTurnCount());
+        assertEquals(start, CuT.getTurnHash(0));
+        assertEquals(PackedMove.of(move), CuT.getTurnMove(0));
+
+        assertNull(CuT.getWinner());
+        CuT.resign(whitePlayer);
+        assertTrue(CuT.isGameOver());
+        assertEquals(Piece.Color.RED, CuT.getWinner());
     }
 
     /**
@@ -406,12 +562,12 @@ public class TestGame {
         }
 
         // setup last winning move for red
-        Piece white = new Piece(Piece.Type.KING, Piece.Color.WHITE);
-        b.getRow(7).getSpace(7).setPiece(white);
-        Piece red = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
-        b.getRow(6).getSpace(6).setPiece(red);
+        Piece white = Piece.of(Piece.Type.KING, Piece.Color.WHITE);
+        b.getRow(7).getSpace(6).setPiece(white);
+        Piece red = Piece.of(Piece.Type.SINGLE, Piece.Color.RED);
+        b.getRow(6).getSpace(5).setPiece(red);
 
-        Move winningMove = new Move(new Position(7, 7), new Position(5, 5), null);
+        Move winningMove = new Move(new Position(7, 6), new Position(5, 4), null);
         CuT.validateMove(winningMove);
         CuT.makeMove();
 
@@ -457,13 +613,13 @@ public class TestGame {
 //        }
 
         // setup a 3-jump move for red
-        Piece red = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
+        Piece red = Piece.of(Piece.Type.SINGLE, Piece.Color.RED);
         b.getRow(7).getSpace(0).setPiece(red);
-        Piece white = new Piece(Piece.Type.SINGLE, Piece.Color.WHITE);
+        Piece white = Piece.of(Piece.Type.SINGLE, Piece.Color.WHITE);
         b.getRow(6).getSpace(1).setPiece(white);
-        Piece white2 = new Piece(Piece.Type.SINGLE, Piece.Color.WHITE);
+        Piece white2 = Piece.of(Piece.Type.SINGLE, Piece.Color.WHITE);
         b.getRow(4).getSpace(3).setPiece(white2);
-        Piece white3 = new Piece(Piece.Type.SINGLE, Piece.Color.WHITE);
+        Piece white3 = Piece.of(Piece.Type.SINGLE, Piece.Color.WHITE);
         b.getRow(2).getSpace(5).setPiece(white3);
 
         Move move1 = new Move(new Position(7, 0), new Position(5, 2), null);
@@ -492,8 +648,8 @@ public class TestGame {
         }
 
         // setup
-        Piece white = new Piece(Piece.Type.SINGLE, Piece.Color.WHITE);
-        Piece red = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
+        Piece white = Piece.of(Piece.Type.SINGLE, Piece.Color.WHITE);
+        Piece red = Piece.of(Piece.Type.SINGLE, Piece.Color.RED);
         b.getRow(4).getSpace(1).setPiece(white);
         b.getRow(5).getSpace(0).setPiece(red);
 
@@ -514,9 +670,41 @@ public class TestGame {
             }
         }
 
-        Piece red = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
+        Piece red = Piece.of(Piece.Type.SINGLE, Piece.Color.RED);
         b.getRow(7).getSpace(0).setPiece(red);
         Move expected = new Move(new Position(7, 0), new Position(6, 1), Move.MoveType.SIMPLE);
         assertEquals(expected.toString(), CuT.findRandomSimpleMove().toString());
     }
+
+    /**
+     * Tests {@link Game#generateMoves(int[], boolean)}
+     */
+    @Test
+    public void testGenerateMoves() {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+        // opening position
+        assertEquals(7, CuT.generateMoves(moves, false));
+        assertEquals(0, CuT.generateMoves(moves, true));
+        CuT.setPlayerInTurn(whitePlayer);
+        assertEquals(7, CuT.generateMoves(moves, false));
+
+        // jumps are forced
+        CuT.setPlayerInTurn(redPlayer);
+        BoardView b = CuT.redPlayerBoard();
+        b.getRow(4).getSpace(3).setPiece(b.getRow(2).getSpace(5).getPiece());
+        b.getRow(2).getSpace(5).setPiece(null);
+        b.getRow(2).getSpace(5).setPiece(b.getRow(1).getSpace(6).getPiece());
+        b.getRow(1).getSpace(6).setPiece(null);
+        assertEquals(2, CuT.generateMoves(moves, false));
+        assertTrue(PackedMove.isJump(moves[0]));
+        assertTrue(PackedMove.isJump(moves[1]));
+
+        // only the jumping piece continues a pending chain
+        CuT.validateMove(new Move(new Position(5, 2), new Position(3, 4), null));
+        assertEquals(1, CuT.generateMoves(moves, false));
+        assertEquals(BoardView.squareOf(3, 4), PackedMove.from(moves[0]));
+        assertEquals(BoardView.squareOf(1, 6), PackedMove.to(moves[0]));
+        assertEquals(BoardView.squareOf(2, 5), PackedMove.captured(moves[0]));
+    }
 }
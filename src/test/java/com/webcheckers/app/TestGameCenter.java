@@ -0,0 +1,405 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier GameCenter class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestGameCenter {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private GameCenter CuT;
+
+    private Player red;
+    private Player white;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new GameCenter();
+        red = new Player("Red");
+        white = new Player("White");
+    }
+
+    /**
+     * Tests creating, looking up and removing a game
+     */
+    @Test
+    public void testGames() {
+        Game game = CuT.createGame(red, white);
+        String gameID = game.getEncodedID();
+        assertSame(game, CuT.getGame(gameID));
+        assertSame(game, CuT.getGame(game.getID()));
+        assertNull(CuT.getGame(null));
+        assertNull(CuT.getGame("no game"));
+        assertNull(CuT.getGame(Game.NO_ID));
+        assertEquals(1, CuT.size());
+        assertTrue(CuT.getGames().contains(game));
+        assertThrows(UnsupportedOperationException.class, () -> CuT.getGames().clear());
+
+        assertSame(game, CuT.findGame(red));
+        assertSame(game, CuT.findGame(white));
+        assertNull(CuT.findGame(new Player("Other")));
+        assertNull(CuT.findGame(null));
+
+        assertTrue(CuT.removeGame(game));
+        assertFalse(CuT.removeGame(game));
+        assertNull(CuT.getGame(gameID));
+        assertEquals(0, CuT.size());
+
+        // a rematch does not replace the game it follows
+        Game first = CuT.createGame(red, white);
+        Game rematch = CuT.createGame(red, white);
+        assertNotSame(first, rematch);
+        assertSame(first, CuT.getGame(first.getEncodedID()));
+        assertSame(rematch, CuT.getGame(rematch.getEncodedID()));
+        assertTrue(CuT.removeGame(first));
+        assertTrue(CuT.removeGame(rematch));
+        assertSame(Tablebase.EMPTY, CuT.getTablebase());
+    }
+
+    /**
+     * Tests that a player's newest game is found, and older ones once it is removed
+     */
+    @Test
+    public void testFindGame() {
+        Player bot = new Player("Bot", true);
+        Game first = CuT.createGame(red, bot);
+        Game second = CuT.createGame(bot, white);
+        Game third = CuT.createGame(new Player("Other"), bot);
+
+        assertSame(third, CuT.findGame(bot));
+        assertSame(first, CuT.findGame(red));
+        assertSame(second, CuT.findGame(white));
+        // found by name, as players are equal by name
+        assertSame(first, CuT.findGame(new Player("Red")));
+
+        assertTrue(CuT.removeGame(third));
+        assertSame(second, CuT.findGame(bot));
+        assertTrue(CuT.removeGame(first));
+        assertSame(second, CuT.findGame(bot));
+        assertNull(CuT.findGame(red));
+
+        Game again = CuT.createGame(red, white);
+        assertSame(again, CuT.findGame(red));
+        assertSame(again, CuT.findGame(white));
+    }
+
+    /**
+     * Tests that updates of a game from many threads are not lost, and that
+     * games can be created and iterated over at the same time
+     */
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        Game game = CuT.createGame(red, white);
+        AtomicInteger turns = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int number = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 500; i++) {
+                        // switching the turn twice under the lock always leaves it where it was
+                        CuT.update(game, g -> {
+                            Player next = g.isRedPlayerTurn() ? g.getWhitePlayer() : g.getRedPlayer();
+                            g.setPlayerInTurn(next);
+                            g.setPlayerInTurn(next == red ? white : red);
+                            return turns.incrementAndGet();
+                        });
+                        CuT.createGame(new Player("Red " + number + " " + i), new Player("White"));
+                        for (Game other : CuT.getGames()) {
+                            assertNotNull(other);
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(2_000, turns.get());
+        assertTrue(game.isRedPlayerTurn());
+        assertEquals(2_001, CuT.size());
+    }
+
+    /**
+     * Tests that a game's updates run one at a time, in the order they were asked for
+     */
+    @Test
+    public void testUpdateOrder() throws InterruptedException {
+        Game game = CuT.createGame(red, white);
+        List<Integer> order = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    int number = i;
+                    CuT.update(game, g -> {
+                        if (running.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        // no lock on the list: only one update runs at a time
+                        order.add(number);
+                        running.decrementAndGet();
+                        return null;
+                    });
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, overlaps.get());
+        assertEquals(800, order.size());
+
+        // one thread's updates run in the order it made them
+        List<Integer> ordered = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int number = i;
+            CuT.update(game, g -> ordered.add(number));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Integer.valueOf(i), ordered.get(i));
+        }
+    }
+
+    /**
+     * Tests that different games are updated at the same time
+     */
+    @Test
+    public void testUpdateGamesInParallel() throws InterruptedException {
+        GameCenter center = new GameCenter(Tablebase.EMPTY, 2);
+        Game first = center.createGame(red, white);
+        Game second = center.createGame(new Player("Other"), new Player("Another"));
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        List<Boolean> met = new ArrayList<>();
+        Thread thread = new Thread(() -> {
+            boolean result = center.update(first, g -> await(bothRunning));
+            synchronized (met) {
+                met.add(result);
+            }
+        });
+        thread.start();
+        // the second game is not held up by the first, which waits for it
+        assertTrue(center.update(second, g -> await(bothRunning)));
+        thread.join();
+        assertEquals(List.of(true), met);
+        center.shutdown();
+    }
+
+    /**
+     * Counts down a latch and waits for the others to
+     */
+    private static boolean await(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tests that an update's exception reaches the caller, that updates
+     * within updates run at once, and that updates of removed games fail
+     */
+    @Test
+    public void testUpdateEdges() {
+        Game game = CuT.createGame(red, white);
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> CuT.update(game, g -> {
+                    throw new IllegalStateException("bad move");
+                }));
+        assertEquals("bad move", thrown.getMessage());
+        // the queue goes on after a failed update
+        assertEquals(Integer.valueOf(1), CuT.update(game, g -> 1));
+
+        assertEquals(Integer.valueOf(2), CuT.update(game, g -> CuT.update(g, inner -> 2)));
+
+        CuT.removeGame(game);
+        assertThrows(GameRemovedException.class, () -> CuT.update(game, g -> 3));
+
+        assertThrows(IllegalArgumentException.class, () -> new GameCenter(Tablebase.EMPTY, 0));
+    }
+
+    /**
+     * Tests that idle and finished games are removed and archived, and their players freed
+     */
+    @Test
+    public void testReap() throws InterruptedException {
+        BlockingQueue<Game> archived = new LinkedBlockingQueue<>();
+        GameCenter center = new GameCenter(Tablebase.EMPTY, 1, archived::add);
+        Player bot = new Player("Bot", true);
+        red.setPlaying(true);
+        white.setPlaying(true);
+        long now = System.nanoTime();
+        Game playing = center.createGame(red, bot);
+        Game finished = center.createGame(white, bot);
+        center.update(finished, g -> {
+            g.setGameOver();
+            return null;
+        });
+
+        // nothing goes before the reaper is started
+        assertEquals(0, center.reap(now + TimeUnit.DAYS.toNanos(1)));
+
+        center.startReaper(TimeUnit.HOURS.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+        assertThrows(IllegalStateException.class, () -> center.startReaper(1, 1));
+        assertEquals(0, center.reap(now));
+
+        // a finished game goes first, and is archived once its queue has drained
+        assertEquals(1, center.reap(now + TimeUnit.MINUTES.toNanos(2)));
+        assertEquals(finished, archived.poll(10, TimeUnit.SECONDS));
+        assertNull(center.getGame(finished.getID()));
+        assertFalse(white.isPlaying());
+        assertTrue(red.isPlaying());
+
+        // an update keeps a game in play
+        center.update(playing, g -> null);
+        long updated = System.nanoTime();
+        assertEquals(0, center.reap(updated + TimeUnit.MINUTES.toNanos(30)));
+        assertEquals(1, center.reap(updated + TimeUnit.HOURS.toNanos(2)));
+        assertEquals(playing, archived.poll(10, TimeUnit.SECONDS));
+        assertFalse(red.isPlaying());
+        assertNull(center.findGame(bot));
+        assertEquals(0, center.size());
+
+        // a game removed otherwise is archived too, before the removal returns
+        Game left = center.createGame(red, white);
+        assertTrue(center.removeGame(left));
+        assertEquals(left, archived.poll());
+        assertTrue(archived.isEmpty());
+        center.shutdown();
+    }
+
+    /**
+     * Tests that a removal waits for the updates queued before it, that the
+     * archive gets the game after them, and that no update is queued after it
+     */
+    @Test
+    public void testRemoveAfterQueued() throws InterruptedException {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        GameCenter center = new GameCenter(Tablebase.EMPTY, 1, g -> order.add("archived"));
+        Game game = center.createGame(red, white);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread first = new Thread(() -> center.update(game, g -> {
+            running.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return order.add("first");
+        }));
+        first.start();
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        Thread second = new Thread(() -> center.update(game, g -> order.add("second")));
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+
+        Thread remover = new Thread(() -> center.removeGame(game));
+        remover.start();
+        while (center.getGame(game.getID()) != null) {
+            Thread.sleep(1);
+        }
+        // the game is gone for new updates, while the ones queued still run
+        assertThrows(GameRemovedException.class, () -> center.update(game, g -> order.add("late")));
+        assertTrue(order.isEmpty());
+        release.countDown();
+        remover.join(10_000);
+        assertFalse(remover.isAlive());
+        assertEquals(List.of("first", "second", "archived"), order);
+        center.shutdown();
+    }
+
+    /**
+     * Tests that the scheduled reaper removes games on its own
+     */
+    @Test
+    public void testReaper() throws InterruptedException {
+        CountDownLatch removed = new CountDownLatch(1);
+        GameCenter center = new GameCenter(Tablebase.EMPTY, 1, game -> removed.countDown());
+        assertThrows(IllegalArgumentException.class, () -> center.startReaper(0, 1));
+        center.createGame(red, white);
+        center.startReaper(20, 20);
+        assertTrue(removed.await(10, TimeUnit.SECONDS));
+        assertEquals(0, center.size());
+        center.shutdown();
+    }
+
+    /**
+     * Tests that updates still queued when the center shuts down fail rather than wait forever
+     */
+    @Test
+    public void testShutdown() throws InterruptedException {
+        GameCenter center = new GameCenter(Tablebase.EMPTY, 1);
+        Game game = center.createGame(red, white);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        Thread first = new Thread(() -> center.update(game, g -> {
+            running.countDown();
+            try {
+                // until the shutdown interrupts it
+                return never.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        first.start();
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        List<Throwable> failures = new ArrayList<>();
+        Thread second = new Thread(() -> {
+            try {
+                center.update(game, g -> null);
+            } catch (Throwable e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        });
+        second.start();
+        Thread.sleep(50);
+        center.shutdown();
+        second.join(10_000);
+        first.join(10_000);
+        assertFalse(second.isAlive());
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof RejectedExecutionException);
+        assertThrows(RejectedExecutionException.class, () -> center.update(game, g -> null));
+    }
+}
@@ -0,0 +1,196 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.PackedMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier HintCache class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestHintCache {
+
+    private static final long BUDGET = HintCache.budget(10, 1_000, 100);
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private HintCache CuT;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new HintCache(16);
+    }
+
+    private static SearchResult result(int move, int score, int depth) {
+        return new SearchResult(move, score, depth, 1_000, 1_000);
+    }
+
+    /**
+     * Tests that a result reads back as it was kept
+     */
+    @Test
+    public void testPutGet() {
+        assertNull(CuT.get(42, BUDGET));
+        CuT.put(42, BUDGET, result(0x4A5, -37, 9));
+        SearchResult cached = CuT.get(42, BUDGET);
+        assertNotNull(cached);
+        assertEquals(0x4A5, cached.getPackedMove());
+        assertEquals(-37, cached.getScore());
+        assertEquals(9, cached.getDepth());
+        assertEquals(SearchResult.Source.SEARCH, cached.getSource());
+
+        // a result without a move is not kept
+        CuT.put(43, BUDGET, result(-1, 0, 0));
+        assertNull(CuT.get(43, BUDGET));
+
+        CuT.clear();
+        assertNull(CuT.get(42, BUDGET));
+    }
+
+    /**
+     * Tests that a jump over the upper half of the board, whose packed move
+     * has the top bit set, reads back as it was kept
+     */
+    @Test
+    public void testPutGetHighCapture() {
+        // 24 -> 15 over 19
+        int jump = PackedMove.jump(24, 15, 19);
+        assertTrue(jump > Short.MAX_VALUE);
+        CuT.put(42, BUDGET, result(jump, 12, 5));
+        SearchResult cached = CuT.get(42, BUDGET);
+        assertNotNull(cached);
+        assertEquals(jump, cached.getPackedMove());
+        assertEquals(19, PackedMove.captured(cached.getPackedMove()));
+        assertEquals(12, cached.getScore());
+    }
+
+    /**
+     * Tests that results of other budgets are kept apart
+     */
+    @Test
+    public void testBudget() {
+        long deeper = HintCache.budget(11, 1_000, 100);
+        assertNotEquals(BUDGET, deeper);
+        assertNotEquals(BUDGET, HintCache.budget(10, 2_000, 100));
+        assertNotEquals(BUDGET, HintCache.budget(10, 1_000, 200));
+        CuT.put(42, BUDGET, result(1, 5, 10));
+        assertNull(CuT.get(42, deeper));
+        CuT.put(42, deeper, result(2, 6, 11));
+        assertEquals(1, CuT.get(42, BUDGET).getPackedMove());
+        assertEquals(2, CuT.get(42, deeper).getPackedMove());
+    }
+
+    /**
+     * Tests that a full bucket gives up its entry used least recently
+     */
+    @Test
+    public void testEviction() {
+        CuT = new HintCache(4);
+        for (int i = 1; i <= 4; i++) {
+            CuT.put(i, BUDGET, result(i, 0, 1));
+        }
+        assertEquals(0, CuT.getEvictions());
+        // the first entry is used again, so the second is the oldest
+        assertNotNull(CuT.get(1, BUDGET));
+        CuT.put(5, BUDGET, result(5, 0, 1));
+        assertEquals(1, CuT.getEvictions());
+        assertNotNull(CuT.get(1, BUDGET));
+        assertNull(CuT.get(2, BUDGET));
+        assertNotNull(CuT.get(5, BUDGET));
+
+        // keeping a result again replaces it in place
+        CuT.put(5, BUDGET, result(6, 0, 1));
+        assertEquals(1, CuT.getEvictions());
+        assertEquals(6, CuT.get(5, BUDGET).getPackedMove());
+    }
+
+    /**
+     * Tests that the entry used least recently goes even when the clock of
+     * uses wraps between its use and the others'
+     */
+    @Test
+    public void testEvictionAcrossWrap() {
+        CuT = new HintCache(4, HintCache.STAMP_MASK - 1);
+        // the first entry is stamped last before the wrap, the others just after
+        for (int i = 1; i <= 4; i++) {
+            CuT.put(i, BUDGET, result(i, 0, 1));
+        }
+        CuT.put(5, BUDGET, result(5, 0, 1));
+        assertEquals(1, CuT.getEvictions());
+        assertNull(CuT.get(1, BUDGET));
+        for (int i = 2; i <= 5; i++) {
+            assertNotNull(CuT.get(i, BUDGET));
+        }
+    }
+
+    /**
+     * Tests the hit and miss counts
+     */
+    @Test
+    public void testStatistics() {
+        assertEquals(0.0, CuT.getHitRate());
+        CuT.get(42, BUDGET);
+        CuT.put(42, BUDGET, result(1, 0, 1));
+        CuT.get(42, BUDGET);
+        CuT.get(42, BUDGET);
+        CuT.get(43, BUDGET);
+        assertEquals(2, CuT.getHits());
+        assertEquals(2, CuT.getMisses());
+        assertEquals(0.5, CuT.getHitRate());
+        assertTrue(CuT.toString().contains("2 hits"));
+    }
+
+    /**
+     * Tests the cache sizes
+     */
+    @Test
+    public void testCapacity() {
+        assertEquals(16, CuT.capacity());
+        assertEquals(16, new HintCache(31).capacity());
+        assertEquals(0, new HintCache(3).capacity());
+        assertEquals(0, HintCache.NONE.capacity());
+        HintCache.NONE.put(42, BUDGET, result(1, 0, 1));
+        assertNull(HintCache.NONE.get(42, BUDGET));
+        assertThrows(IllegalArgumentException.class, () -> new HintCache(-1));
+    }
+
+    /**
+     * Tests that threads sharing the cache only ever read results that were kept
+     */
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    long hash = i % 64;
+                    // each hash always maps to the same move
+                    CuT.put(hash, BUDGET, result((int) hash + 1, (int) hash, 1));
+                    SearchResult cached = CuT.get(hash, BUDGET);
+                    if (cached != null && cached.getPackedMove() != hash + 1) {
+                        synchronized (failures) {
+                            failures.add(new AssertionError("Torn entry for " + hash));
+                        }
+                        return;
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), failures.toString());
+    }
+}
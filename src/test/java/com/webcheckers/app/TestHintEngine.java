@@ -0,0 +1,252 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.*;
+import com.webcheckers.util.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier HintEngine class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestHintEngine {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private HintEngine CuT;
+
+    private Game game;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new HintEngine(8, 20_000);
+        game = new Game(new Player("Player 1"), new Player("Player 2"));
+    }
+
+    /**
+     * Tests that the hint is a legal move for the player in turn
+     */
+    @Test
+    public void testFindHint() {
+        SearchResult result = CuT.findHint(game);
+        Move hint = result.getMove();
+        assertNotNull(hint);
+        assertTrue(result.getDepth() >= 1);
+        assertEquals(Message.Type.INFO, game.validateMove(hint).getType());
+
+        game.makeMove();
+        game.setPlayerInTurn(game.getWhitePlayer());
+        hint = CuT.findHint(game).getMove();
+        assertEquals(Message.Type.INFO, game.validateMove(hint).getType());
+    }
+
+    /**
+     * Tests that a pending chain of jumps is continued
+     */
+    @Test
+    public void testFindHintInChain() {
+        BoardView board = game.redPlayerBoard();
+        for (Row row : board) {
+            for (Space space : row) {
+                space.setPiece(null);
+            }
+        }
+        board.getRow(6).getSpace(1).setPiece(Piece.RED_SINGLE);
+        board.getRow(5).getSpace(2).setPiece(Piece.WHITE_SINGLE);
+        board.getRow(3).getSpace(4).setPiece(Piece.WHITE_SINGLE);
+        board.getRow(0).getSpace(7).setPiece(Piece.WHITE_SINGLE);
+
+        Move first = CuT.findHint(game).getMove();
+        assertEquals(new Move(Position.of(6, 1), Position.of(4, 3), Move.MoveType.JUMP).toString(), first.toString());
+        assertEquals(Message.Type.INFO, game.validateMove(first).getType());
+
+        Move next = CuT.findHint(game).getMove();
+        assertEquals(new Move(Position.of(4, 3), Position.of(2, 5), Move.MoveType.JUMP).toString(), next.toString());
+    }
+
+    /**
+     * Tests that the budget must be positive
+     */
+    @Test
+    public void testBadBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new HintEngine(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new HintEngine(4, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HintEngine.Builder().budget(4, 10, -1));
+    }
+
+    /**
+     * Tests that a hint searched on several threads is a legal move, and
+     * counts the nodes of every thread
+     */
+    @Test
+    public void testParallelHint() {
+        CuT = new HintEngine.Builder()
+                .budget(100, Long.MAX_VALUE, 20)
+                .table(new TranspositionTable(1))
+                .threads(3)
+                .build();
+        assertEquals(3, CuT.getThreads());
+        SearchResult result = CuT.findHint(game);
+        assertNotNull(result.getMove());
+        assertEquals(Message.Type.INFO, game.validateMove(result.getMove()).getType());
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(game.backupMove());
+
+        // untimed, the request thread reaches the full depth
+        CuT = new HintEngine.Builder()
+                .budget(6, Long.MAX_VALUE, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .threads(4)
+                .build();
+        result = CuT.findHint(game);
+        assertEquals(6, result.getDepth());
+        assertEquals(Message.Type.INFO, game.validateMove(result.getMove()).getType());
+        assertThrows(IllegalArgumentException.class,
+                () -> new HintEngine.Builder().threads(0));
+    }
+
+    /**
+     * Tests that an engine with another budget shares the helper threads, and
+     * that hints still search, on the request thread, once they are stopped
+     */
+    @Test
+    public void testWithBudget() {
+        CuT = new HintEngine.Builder()
+                .budget(6, Long.MAX_VALUE, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .threads(3)
+                .build();
+        HintEngine shallow = CuT.withBudget(2, Long.MAX_VALUE, Search.NO_TIME_LIMIT);
+        assertEquals(3, shallow.getThreads());
+        assertSame(CuT.getTable(), shallow.getTable());
+        assertEquals(2, shallow.findHint(game).getDepth());
+
+        // stopping a derived engine leaves the pool to the engine that started it
+        shallow.shutdown();
+        assertEquals(6, CuT.findHint(game).getDepth());
+
+        CuT.shutdown();
+        CuT.getTable().clear();
+        assertEquals(6, CuT.findHint(game).getDepth());
+        SearchResult result = shallow.findHint(game);
+        assertEquals(Message.Type.INFO, game.validateMove(result.getMove()).getType());
+    }
+
+    /**
+     * Tests that an ending the endgame table covers is answered from it
+     */
+    @Test
+    public void testTablebaseHint() throws IOException {
+        Path directory = Files.createTempDirectory("tablebase");
+        Tablebase tablebase = new TablebaseGenerator(2, 1, directory).generate(directory.resolve("table.bin"));
+        CuT = new HintEngine.Builder()
+                .budget(8, 20_000, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .tablebase(tablebase)
+                .build();
+        assertSame(tablebase, CuT.getTablebase());
+
+        BoardView board = game.redPlayerBoard();
+        for (Row row : board) {
+            for (Space space : row) {
+                space.setPiece(null);
+            }
+        }
+        board.getRow(4).getSpace(3).setPiece(Piece.RED_KING);
+        board.getRow(3).getSpace(4).setPiece(Piece.WHITE_KING);
+        SearchResult result = CuT.findHint(game);
+        assertEquals(new Move(Position.of(4, 3), Position.of(2, 5), Move.MoveType.JUMP).toString(),
+                result.getMove().toString());
+        assertTrue(result.getScore() > Search.WIN_THRESHOLD);
+        assertEquals(Message.Type.INFO, game.validateMove(result.getMove()).getType());
+    }
+
+    /**
+     * Tests that a position in the opening book is answered from it
+     */
+    @Test
+    public void testOpeningBookHint() {
+        Game played = new Game(new Player("Red"), new Player("White"));
+        Move bookMove = new Move(Position.of(5, 6), Position.of(4, 7), Move.MoveType.SIMPLE);
+        played.validateMove(bookMove);
+        played.makeMove();
+        OpeningBook.Builder builder = new OpeningBook.Builder(4, 1);
+        builder.addGame(played, Piece.Color.RED);
+        CuT = new HintEngine.Builder()
+                .budget(8, 20_000, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .openingBook(builder.build())
+                .build();
+
+        SearchResult result = CuT.findHint(game);
+        assertEquals(SearchResult.Source.OPENING_BOOK, result.getSource());
+        assertEquals(bookMove.toString(), result.getMove().toString());
+
+        // off the book, the hint is searched
+        game.validateMove(bookMove);
+        game.makeMove();
+        game.setPlayerInTurn(game.getWhitePlayer());
+        assertEquals(SearchResult.Source.SEARCH, CuT.findHint(game).getSource());
+    }
+
+    /**
+     * Tests that asking again for a hint, even from another game, is answered from the cache
+     */
+    @Test
+    public void testCachedHint() {
+        HintCache cache = new HintCache(64);
+        CuT = new HintEngine.Builder()
+                .budget(6, 20_000, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .cache(cache)
+                .build();
+        SearchResult searched = CuT.findHint(game);
+        assertEquals(SearchResult.Source.SEARCH, searched.getSource());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        Game other = new Game(new Player("Other"), new Player("Another"));
+        SearchResult cached = CuT.findHint(other);
+        assertEquals(1, cache.getHits());
+        assertEquals(searched.getPackedMove(), cached.getPackedMove());
+        assertEquals(searched.getScore(), cached.getScore());
+        assertEquals(searched.getDepth(), cached.getDepth());
+        assertEquals(0, cached.getNodes());
+
+        // an engine with another budget does not take the cached result
+        HintEngine deeper = new HintEngine.Builder()
+                .budget(7, 20_000, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .cache(cache)
+                .build();
+        assertTrue(deeper.findHint(game).getNodes() > 0);
+        assertEquals(1, cache.getHits());
+        assertSame(cache, deeper.getCache());
+    }
+
+    /**
+     * Tests that a timed hint stays within its budget
+     */
+    @Test
+    public void testTimedHint() {
+        CuT = new HintEngine.Builder()
+                .budget(100, Long.MAX_VALUE, 20)
+                .table(new TranspositionTable(1))
+                .build();
+        SearchResult result = CuT.findHint(game);
+        assertNotNull(result.getMove());
+        assertTrue(result.getDepth() >= 1);
+        // generous, so a slow machine does not fail the test
+        assertTrue(result.getNanos() < 500_000_000L);
+    }
+}
@@ -0,0 +1,134 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.PackedMove;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier OpeningBook and OpeningBookGenerator classes
+ */
+@Tag("Application-tier")
+@Testable
+public class TestOpeningBook {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private OpeningBook.Builder CuT;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new OpeningBook.Builder(4, 1);
+    }
+
+    /**
+     * Plays a game through its first turns, without a chain of jumps
+     *
+     * @param winner color of the winner, or null for a draw
+     * @param moves  the moves, one per turn
+     * @return the game
+     */
+    private static Game play(Piece.Color winner, Move... moves) {
+        Player red = new Player("Red");
+        Player white = new Player("White");
+        Game game = new Game(red, white);
+        for (Move move : moves) {
+            game.validateMove(move);
+            assertTrue(game.makeMove());
+            game.setPlayerInTurn(game.isRedPlayerTurn() ? white : red);
+        }
+        if (winner != null) {
+            game.resign(winner == Piece.Color.RED ? white : red);
+        } else {
+            // drawn
+            game.setGameOver();
+        }
+        return game;
+    }
+
+    private static Move step(int fromRow, int fromCell, int toRow, int toCell) {
+        return new Move(Position.of(fromRow, fromCell), Position.of(toRow, toCell), Move.MoveType.SIMPLE);
+    }
+
+    /**
+     * Tests that the book keeps the move that scored best
+     */
+    @Test
+    public void testBuild() {
+        Move good = step(5, 2, 4, 3);
+        Move bad = step(5, 0, 4, 1);
+        Game won = play(Piece.Color.RED, good, step(2, 1, 3, 0));
+        CuT.addGame(won);
+        CuT.addGame(play(Piece.Color.WHITE, bad, step(2, 1, 3, 0)));
+        CuT.addGame(play(Piece.Color.WHITE, bad, step(2, 3, 3, 4)));
+        OpeningBook book = CuT.build();
+
+        // the start, and the positions after each first move
+        assertEquals(3, book.size());
+        long start = won.getTurnHash(0);
+        assertEquals(PackedMove.of(good), book.probe(start));
+        assertEquals(1, book.getGames(start));
+        assertEquals(PackedMove.of(step(2, 1, 3, 0)), book.probe(won.getTurnHash(1)));
+        assertEquals(-1, book.probe(start + 1));
+        assertEquals(0, book.getGames(start + 1));
+        assertEquals(-1, OpeningBook.EMPTY.probe(start));
+
+        // a move must be played in enough games
+        CuT = new OpeningBook.Builder(4, 2);
+        CuT.addGame(won);
+        CuT.addGame(play(null, bad));
+        CuT.addGame(play(null, bad));
+        book = CuT.build();
+        assertEquals(1, book.size());
+        assertEquals(PackedMove.of(bad), book.probe(start));
+        assertThrows(IllegalArgumentException.class, () -> new OpeningBook.Builder(0, 1));
+
+        // a game still going has no result
+        Game going = new Game(new Player("Red"), new Player("White"));
+        assertThrows(IllegalArgumentException.class, () -> CuT.addGame(going));
+    }
+
+    /**
+     * Tests that a book reads back as it was written
+     */
+    @Test
+    public void testWriteRead() throws IOException {
+        Game game = play(Piece.Color.RED, step(5, 2, 4, 3), step(2, 1, 3, 0));
+        CuT.addGame(game);
+        OpeningBook book = CuT.build();
+        Path file = Files.createTempDirectory("book").resolve("book.bin");
+        book.write(file);
+        OpeningBook read = OpeningBook.read(file);
+        assertEquals(book.size(), read.size());
+        assertEquals(book.probe(game.getTurnHash(0)), read.probe(game.getTurnHash(0)));
+        assertEquals(book.probe(game.getTurnHash(1)), read.probe(game.getTurnHash(1)));
+
+        Files.write(file, new byte[12]);
+        assertThrows(IOException.class, () -> OpeningBook.read(file));
+    }
+
+    /**
+     * Tests that self-play games fill a book
+     */
+    @Test
+    public void testSelfPlay() {
+        HintEngine engine = new HintEngine(4, 2_000);
+        OpeningBookGenerator.selfPlay(engine, 2, OpeningBookGenerator.DEFAULT_RANDOM_TURNS, CuT, 3);
+        OpeningBook book = CuT.build();
+        assertTrue(book.size() > 1);
+        Game game = new Game(new Player("Red"), new Player("White"));
+        assertTrue(book.probe(game.getHash()) >= 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.PackedMove;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier OpeningBookRecorder class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestOpeningBookRecorder {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private OpeningBookRecorder CuT;
+
+    private Path file;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = Files.createTempDirectory("recorder").resolve("book.bin");
+        CuT = new OpeningBookRecorder(new OpeningBook.Builder(4, 1), file, 2);
+    }
+
+    /**
+     * Plays red's first move in a game
+     */
+    private static Game open(Player red, Player white) {
+        Game game = new Game(red, white);
+        game.validateMove(new Move(Position.of(5, 2), Position.of(4, 3), Move.MoveType.SIMPLE));
+        assertTrue(game.makeMove());
+        game.setPlayerInTurn(white);
+        return game;
+    }
+
+    /**
+     * Tests that finished games are recorded and written every so many games,
+     * and unfinished ones skipped
+     */
+    @Test
+    public void testRecord() throws IOException {
+        Player red = new Player("Red");
+        Player white = new Player("White");
+        CuT.accept(open(red, white));
+        assertEquals(0, CuT.getGames());
+
+        Game won = open(red, white);
+        won.resign(white);
+        CuT.accept(won);
+        assertEquals(1, CuT.getGames());
+        assertFalse(Files.exists(file));
+
+        Game drawn = open(red, white);
+        drawn.setGameOver();
+        CuT.accept(drawn);
+        assertEquals(2, CuT.getGames());
+        assertTrue(Files.exists(file));
+
+        OpeningBook book = OpeningBook.read(file);
+        assertEquals(PackedMove.of(new Move(Position.of(5, 2), Position.of(4, 3), Move.MoveType.SIMPLE)),
+                book.probe(won.getTurnHash(0)));
+        assertEquals(2, book.getGames(won.getTurnHash(0)));
+        assertEquals(book.size(), CuT.write().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> new OpeningBookRecorder(new OpeningBook.Builder(4, 1), file, 0));
+    }
+
+    /**
+     * Tests that a game center hands its finished games to the recorder
+     */
+    @Test
+    public void testArchive() {
+        GameCenter center = new GameCenter(Tablebase.EMPTY, 1, CuT);
+        Game game = center.createGame(new Player("Red"), new Player("White"));
+        game.resign(game.getRedPlayer());
+        assertTrue(center.removeGame(game));
+        assertEquals(1, CuT.getGames());
+        center.shutdown();
+    }
+}
@@ -0,0 +1,144 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.BoardView;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier Perft class against known node counts
+ */
+@Tag("Application-tier")
+@Testable
+public class TestPerft {
+
+    /**
+     * Returns the mask of the given squares
+     *
+     * @param rowCells pairs of row and cell
+     * @return mask of the squares
+     */
+    private static int mask(int... rowCells) {
+        int mask = 0;
+        for (int i = 0; i < rowCells.length; i += 2) {
+            mask |= 1 << BoardView.squareOf(rowCells[i], rowCells[i + 1]);
+        }
+        return mask;
+    }
+
+    /**
+     * Checks the node counts from depth 1 up
+     */
+    private static void assertPerft(int red, int white, int kings, Piece.Color toMove, long... expected) {
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals(expected[depth - 1], Perft.perft(red, white, kings, toMove, depth), "depth " + depth);
+        }
+    }
+
+    /**
+     * Tests the standard counts from the starting position
+     */
+    @Test
+    public void testOpening() {
+        BoardView board = new BoardView();
+        assertPerft(board.getRedMask(), board.getWhiteMask(), board.getKingMask(), Piece.Color.RED,
+                7, 49, 302, 1469, 7361, 36768, 179740, 845931);
+    }
+
+    /**
+     * Tests counting from a game
+     */
+    @Test
+    public void testGame() {
+        Game game = new Game(new Player("Player 1"), new Player("Player 2"));
+        assertEquals(1469, Perft.perft(game, 4));
+        game.setPlayerInTurn(game.getWhitePlayer());
+        assertEquals(7, Perft.perft(game, 1));
+        assertEquals(1, Perft.perft(game, 0));
+    }
+
+    /**
+     * Tests that playing every line through a game counts the same as the
+     * masks, from the start and through branching jump chains
+     */
+    @Test
+    public void testThroughGame() {
+        BoardView board = new BoardView();
+        for (int depth = 0; depth <= 4; depth++) {
+            assertEquals(Perft.perft(board.getRedMask(), board.getWhiteMask(), board.getKingMask(),
+                    Piece.Color.RED, depth),
+                    Perft.perftThroughGame(() -> new Game(new Player("Red"), new Player("White")), depth),
+                    "depth " + depth);
+        }
+
+        int red = mask(6, 1, 7, 0);
+        int white = mask(5, 2, 3, 2, 3, 4, 1, 2, 1, 4, 1, 0, 0, 7);
+        int kings = mask(0, 7);
+        Supplier<Game> jumps = () -> {
+            Game game = new Game(new Player("Red"), new Player("White"));
+            BoardView start = game.redPlayerBoard();
+            for (int square = 0; square < BoardView.NUM_SQUARES; square++) {
+                start.removePiece(square);
+            }
+            for (int square = 0; square < BoardView.NUM_SQUARES; square++) {
+                int bit = 1 << square;
+                if (((red | white) & bit) != 0) {
+                    Piece piece = (red & bit) != 0 ? Piece.RED_SINGLE : Piece.WHITE_SINGLE;
+                    start.setPiece(BoardView.rowOf(square), BoardView.cellOf(square),
+                            (kings & bit) != 0 ? piece.crowned() : piece);
+                }
+            }
+            return game;
+        };
+        for (int depth = 1; depth <= 4; depth++) {
+            assertEquals(Perft.perft(red, white, kings, Piece.Color.RED, depth),
+                    Perft.perftThroughGame(jumps, depth), "depth " + depth);
+        }
+    }
+
+    /**
+     * Tests a red single piece with branching jump chains, one of which reaches the king row
+     */
+    @Test
+    public void testBranchingJumps() {
+        int red = mask(6, 1, 7, 0);
+        int white = mask(5, 2, 3, 2, 3, 4, 1, 2, 1, 4, 1, 0, 0, 7);
+        assertPerft(red, white, mask(0, 7), Piece.Color.RED, 2, 12, 22, 93, 319, 1506);
+    }
+
+    /**
+     * Tests kings of both colors with forced jumps
+     */
+    @Test
+    public void testKings() {
+        int red = mask(4, 3, 7, 0, 7, 2);
+        int white = mask(0, 7, 2, 3, 2, 5, 6, 5, 3, 2);
+        assertPerft(red, white, mask(4, 3, 0, 7), Piece.Color.RED, 1, 7, 43, 262, 1366, 8964);
+    }
+
+    /**
+     * Tests white to move with a multi-jump and a king able to jump backwards
+     */
+    @Test
+    public void testWhiteMultiJump() {
+        int red = mask(2, 1, 4, 1, 4, 3, 2, 3, 6, 3, 7, 0, 6, 5);
+        int white = mask(1, 0, 3, 6);
+        assertPerft(red, white, mask(7, 0, 3, 6), Piece.Color.WHITE, 3, 23, 120, 737, 3024, 17917);
+    }
+
+    /**
+     * Tests a crowded middle game where most moves are blocked
+     */
+    @Test
+    public void testCrowded() {
+        int red = mask(5, 0, 5, 2, 5, 4, 5, 6, 6, 1, 7, 4);
+        int white = mask(4, 1, 4, 3, 4, 5, 4, 7, 3, 0, 3, 2, 3, 4, 3, 6, 1, 0);
+        assertPerft(red, white, mask(7, 4, 4, 7), Piece.Color.RED, 2, 6, 21, 48, 79, 270);
+    }
+}
@@ -275,4 +275,21 @@ public class TestPlayerLobby {
         CuT.removePlayer(player3Name);
         assertEquals(0, CuT.size());
     }
+
+    /**
+     * Tests {@link PlayerLobby#addBot(String)}
+     */
+    @Test
+    public void testAddBot() {
+        Player bot = CuT.addBot("Computer");
+        assertNotNull(bot);
+        assertTrue(bot.isBot());
+        assertSame(bot, CuT.getPlayer("computer"));
+
+        // names are shared with the players
+        assertFalse(CuT.addPlayer("Computer"));
+        CuT.addPlayer(player1Name);
+        assertNull(CuT.addBot(player1Name));
+        assertFalse(CuT.getPlayer(player1Name).isBot());
+    }
 }
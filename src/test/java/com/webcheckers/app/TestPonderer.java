@@ -0,0 +1,142 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.Move;
+import com.webcheckers.model.Piece;
+import com.webcheckers.model.Player;
+import com.webcheckers.model.Position;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier Ponderer class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestPonderer {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private Ponderer CuT;
+
+    private HintEngine engine;
+    private HintCache cache;
+    private Game game;
+
+    @BeforeEach
+    public void setup() {
+        cache = new HintCache(1024);
+        engine = new HintEngine.Builder()
+                .budget(6, 20_000, Search.NO_TIME_LIMIT)
+                .table(new TranspositionTable(1))
+                .cache(cache)
+                .build();
+        CuT = new Ponderer(engine, 1);
+        game = new Game(new Player("Red"), new Player("White"));
+        playTurn(new Move(Position.of(5, 2), Position.of(4, 3), Move.MoveType.SIMPLE));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        CuT.shutdown();
+    }
+
+    /**
+     * Plays a simple move and hands the turn over
+     */
+    private void playTurn(Move move) {
+        boolean redTurn = game.isRedPlayerTurn();
+        game.validateMove(move);
+        assertTrue(game.makeMove());
+        game.setPlayerInTurn(redTurn ? game.getWhitePlayer() : game.getRedPlayer());
+    }
+
+    /**
+     * Waits until no game is being pondered
+     */
+    private void awaitPondering() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (CuT.getPondering() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Pondering did not end.");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Tests that the hints of the player in turn and of the waiting player,
+     * after the expected reply, are answered from the cache
+     */
+    @Test
+    public void testPonder() throws InterruptedException {
+        CuT.ponder(game);
+        awaitPondering();
+
+        long hits = cache.getHits();
+        SearchResult reply = engine.findHint(game);
+        assertEquals(hits + 1, cache.getHits());
+        assertEquals(0, reply.getNodes());
+
+        // the reply the engine expected
+        playTurn(reply.getMove());
+        SearchResult next = engine.findHint(game);
+        assertEquals(hits + 2, cache.getHits());
+        assertEquals(0, next.getNodes());
+    }
+
+    /**
+     * Tests that a game's pondering is given up when its turn is made
+     */
+    @Test
+    public void testCancel() throws InterruptedException {
+        engine = new HintEngine.Builder()
+                .budget(HintEngine.DEFAULT_MAX_DEPTH, Long.MAX_VALUE, 5_000)
+                .table(new TranspositionTable(1))
+                .cache(cache)
+                .build();
+        CuT.shutdown();
+        CuT = new Ponderer(engine, 1);
+        CuT.ponder(game);
+        assertEquals(1, CuT.getPondering());
+        CuT.cancel(game);
+        assertEquals(0, CuT.getPondering());
+
+        // a search given up stops early, and its result is not kept
+        int[] masks = new int[3];
+        game.pendingPosition(masks);
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stop.set(true);
+        });
+        canceller.start();
+        long start = System.nanoTime();
+        assertNull(engine.ponder(masks[0], masks[1], masks[2], Piece.Color.WHITE, stop));
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        canceller.join();
+        long budget = HintCache.budget(HintEngine.DEFAULT_MAX_DEPTH, Long.MAX_VALUE, 5_000);
+        assertNull(cache.get(game.getHash(), budget));
+    }
+
+    /**
+     * Tests that nothing is pondered without a cache or pool
+     */
+    @Test
+    public void testNone() {
+        Ponderer.NONE.ponder(game);
+        Ponderer.NONE.cancel(game);
+        assertEquals(0, Ponderer.NONE.getPondering());
+        assertThrows(IllegalArgumentException.class, () -> new Ponderer(new HintEngine(4, 100), 1));
+        assertThrows(IllegalArgumentException.class, () -> new Ponderer(engine, 0));
+    }
+}
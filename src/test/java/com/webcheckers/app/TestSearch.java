@@ -0,0 +1,179 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.BoardView;
+import com.webcheckers.model.PackedMove;
+import com.webcheckers.model.Piece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier Search class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestSearch {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private Search CuT;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new Search();
+    }
+
+    /**
+     * Returns the mask of the given squares
+     *
+     * @param rowCells pairs of row and cell
+     * @return mask of the squares
+     */
+    private static int mask(int... rowCells) {
+        int mask = 0;
+        for (int i = 0; i < rowCells.length; i += 2) {
+            mask |= 1 << BoardView.squareOf(rowCells[i], rowCells[i + 1]);
+        }
+        return mask;
+    }
+
+    /**
+     * Tests that the starting position is even
+     */
+    @Test
+    public void testEvaluate() {
+        BoardView board = new BoardView();
+        assertEquals(0, Search.evaluate(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED));
+        assertEquals(0, Search.evaluate(board.getWhiteMask(), board.getRedMask(), 0, Piece.Color.WHITE));
+        assertTrue(Search.evaluate(mask(5, 0, 5, 2), mask(2, 1), 0, Piece.Color.RED) > 0);
+    }
+
+    /**
+     * Tests that a side without moves gets no move and a lost score
+     */
+    @Test
+    public void testNoMoves() {
+        SearchResult result = CuT.search(0, mask(2, 1), 0, Piece.Color.RED, -1, 4, 1000);
+        assertEquals(-1, result.getPackedMove());
+        assertNull(result.getMove());
+        assertTrue(result.getScore() < -Search.WIN_THRESHOLD);
+    }
+
+    /**
+     * Tests that the search keeps a piece out of reach of a jump
+     */
+    @Test
+    public void testAvoidsLosingPiece() {
+        int red = mask(5, 4, 7, 0);
+        int white = mask(3, 6, 0, 1);
+        SearchResult result = CuT.search(red, white, 0, Piece.Color.RED, -1, 4, 100_000);
+
+        int hanging = PackedMove.simple(BoardView.squareOf(5, 4), BoardView.squareOf(4, 5));
+        assertNotEquals(hanging, result.getPackedMove());
+        assertTrue(result.getScore() > -50);
+        assertEquals(4, result.getDepth());
+    }
+
+    /**
+     * Tests that a forced jump is found, and that the chain is continued from where it ended
+     */
+    @Test
+    public void testJumpChain() {
+        int red = mask(6, 1, 7, 6);
+        int white = mask(5, 2, 3, 4, 0, 1);
+        SearchResult result = CuT.search(red, white, 0, Piece.Color.RED, -1, 6, 100_000);
+        assertEquals(PackedMove.jump(BoardView.squareOf(6, 1), BoardView.squareOf(4, 3), BoardView.squareOf(5, 2)),
+                result.getPackedMove());
+
+        // the piece has jumped to (4, 3) and must go on
+        red = mask(4, 3, 7, 6);
+        white = mask(3, 4, 0, 1);
+        result = CuT.search(red, white, 0, Piece.Color.RED, BoardView.squareOf(4, 3), 6, 100_000);
+        assertEquals(PackedMove.jump(BoardView.squareOf(4, 3), BoardView.squareOf(2, 5), BoardView.squareOf(3, 4)),
+                result.getPackedMove());
+    }
+
+    /**
+     * Tests that capturing the last piece is seen as a win
+     */
+    @Test
+    public void testWin() {
+        SearchResult result = CuT.search(mask(4, 3), mask(3, 4), 0, Piece.Color.RED, -1, 8, 100_000);
+        assertTrue(result.getScore() > Search.WIN_THRESHOLD);
+        assertTrue(PackedMove.isJump(result.getPackedMove()));
+    }
+
+    /**
+     * Tests that the node budget stops the search early with the last completed depth
+     */
+    @Test
+    public void testNodeBudget() {
+        BoardView board = new BoardView();
+        SearchResult result = CuT.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED,
+                -1, 40, 5000);
+        assertNotNull(result.getMove());
+        assertTrue(result.getDepth() >= 1 && result.getDepth() < 40);
+        assertTrue(result.getNodes() < 5000 + 1024);
+        assertEquals(result.getNodes(), CuT.getNodes());
+    }
+
+    /**
+     * Tests that a search stops once its stop signal is set, even in its first depth
+     */
+    @Test
+    public void testStopSignal() {
+        BoardView board = new BoardView();
+        AtomicBoolean stop = new AtomicBoolean(true);
+        SearchResult result = CuT.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED,
+                -1, 40, Long.MAX_VALUE, Search.NO_TIME_LIMIT, 8, stop);
+        assertTrue(result.getDepth() <= 8);
+        assertTrue(result.getNodes() <= 1024);
+
+        // starting deeper still finds a legal move
+        result = CuT.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED,
+                -1, 3, Long.MAX_VALUE, Search.NO_TIME_LIMIT, 2, new AtomicBoolean());
+        assertEquals(3, result.getDepth());
+        assertNotNull(result.getMove());
+    }
+
+    /**
+     * Tests that a shared table gives the same answer and saves work on a repeat search
+     */
+    @Test
+    public void testTranspositionTable() {
+        BoardView board = new BoardView();
+        TranspositionTable table = new TranspositionTable(1);
+        Search first = new Search(table);
+        Search second = new Search(table);
+
+        SearchResult plain = CuT.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED, -1, 7, 1_000_000);
+        SearchResult cold = first.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED, -1, 7, 1_000_000);
+        SearchResult warm = second.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED, -1, 7, 1_000_000);
+
+        assertEquals(plain.getScore(), cold.getScore());
+        assertEquals(cold.getScore(), warm.getScore());
+        assertTrue(cold.getNodes() < plain.getNodes());
+        assertTrue(warm.getNodes() < cold.getNodes());
+    }
+
+    /**
+     * Tests that the time budget stops the search with the depth it reached
+     */
+    @Test
+    public void testTimeBudget() {
+        BoardView board = new BoardView();
+        SearchResult result = CuT.search(board.getRedMask(), board.getWhiteMask(), 0, Piece.Color.RED,
+                -1, 100, Long.MAX_VALUE, 20);
+        assertNotNull(result.getMove());
+        assertTrue(result.getDepth() >= 1 && result.getDepth() < 100);
+        // generous, so a slow machine does not fail the test
+        assertTrue(result.getNanos() < 500_000_000L);
+        assertTrue(result.getNodesPerSecond() > 0);
+    }
+}
@@ -0,0 +1,154 @@
+package com.webcheckers.app;
+
+import com.webcheckers.model.BoardView;
+import com.webcheckers.model.PackedMove;
+import com.webcheckers.model.Piece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier Tablebase and TablebaseGenerator classes
+ */
+@Tag("Application-tier")
+@Testable
+public class TestTablebase {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private Tablebase CuT;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("tablebase");
+        CuT = new TablebaseGenerator(2, 2, directory.resolve("work")).generate(directory.resolve("table.bin"));
+    }
+
+    /**
+     * Returns the mask of one square
+     */
+    private static int bit(int row, int cell) {
+        return 1 << BoardView.squareOf(row, cell);
+    }
+
+    /**
+     * Tests that ranking a set of squares can be reversed
+     */
+    @Test
+    public void testRank() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            int mask = random.nextInt() & random.nextInt() & random.nextInt();
+            int size = Integer.bitCount(mask);
+            if (size <= Tablebase.MAX_PIECES) {
+                long rank = Tablebase.rank(mask);
+                assertTrue(rank < Tablebase.combinations(size));
+                assertEquals(mask, Tablebase.unrank(rank, size));
+            }
+        }
+        assertEquals(0, Tablebase.rank(0));
+        assertEquals(Tablebase.combinations(2) - 1, Tablebase.rank(0xC0000000));
+    }
+
+    /**
+     * Tests the values of some two piece endings
+     */
+    @Test
+    public void testProbe() {
+        assertEquals(2, CuT.getMaxPieces());
+
+        // the side to move takes the last piece
+        int red = bit(4, 3);
+        int white = bit(3, 4);
+        int value = CuT.probe(red, white, red | white, false);
+        assertTrue(Tablebase.isWin(value));
+        assertEquals(1, Tablebase.distance(value));
+        assertEquals(value, CuT.probe(white, red, red | white, Piece.Color.WHITE));
+
+        // a single piece that cannot move loses at once
+        red = bit(1, 0);
+        white = bit(0, 1);
+        value = CuT.probe(red, white, white, false);
+        assertTrue(Tablebase.isLoss(value));
+        assertEquals(0, Tablebase.distance(value));
+
+        // a king in the double corner cannot be caught
+        red = bit(0, 1);
+        white = bit(0, 7);
+        assertEquals(Tablebase.DRAW, CuT.probe(red, white, red | white, false));
+
+        // kings in the two single corners: the side to move catches the other
+        red = bit(7, 0);
+        value = CuT.probe(red, white, red | white, false);
+        assertTrue(Tablebase.isWin(value));
+        assertEquals(11, Tablebase.distance(value));
+
+        // more pieces than the table covers
+        assertEquals(Tablebase.NOT_FOUND, CuT.probe(red | bit(5, 0), white, red | white, false));
+        assertEquals(Tablebase.NOT_FOUND, Tablebase.EMPTY.probe(red, white, red | white, false));
+    }
+
+    /**
+     * Tests that the best move is the winning one
+     */
+    @Test
+    public void testBestMove() {
+        int red = bit(4, 3);
+        int white = bit(3, 4);
+        SearchResult result = CuT.bestMove(red, white, red | white, Piece.Color.RED, -1);
+        assertNotNull(result);
+        assertTrue(PackedMove.isJump(result.getPackedMove()));
+        assertTrue(result.getScore() > Search.WIN_THRESHOLD);
+        assertEquals(1, result.getDepth());
+
+        assertNull(CuT.bestMove(red | bit(5, 0), white, red | white, Piece.Color.RED, -1));
+        assertNull(Tablebase.EMPTY.bestMove(red, white, red | white, Piece.Color.RED, -1));
+    }
+
+    /**
+     * Tests that a generator picks up the slices an earlier run solved
+     */
+    @Test
+    public void testResume() throws IOException {
+        Path work = directory.resolve("work");
+        try (Stream<Path> files = Files.list(work)) {
+            assertTrue(files.anyMatch(file -> file.getFileName().toString().startsWith("slice-")));
+        }
+        Tablebase again = new TablebaseGenerator(2, 1, work).generate(directory.resolve("again.bin"));
+        assertArrayEquals(Files.readAllBytes(directory.resolve("table.bin")),
+                Files.readAllBytes(directory.resolve("again.bin")));
+        int red = bit(4, 3);
+        int white = bit(3, 4);
+        assertEquals(CuT.probe(red, white, red, true), again.probe(red, white, red, true));
+
+        // slices solved again are written where the saved ones would have been copied
+        Files.delete(work.resolve("slice-0-1-0-1.bin"));
+        new TablebaseGenerator(2, 2, work).generate(directory.resolve("partly.bin"));
+        assertArrayEquals(Files.readAllBytes(directory.resolve("table.bin")),
+                Files.readAllBytes(directory.resolve("partly.bin")));
+    }
+
+    /**
+     * Tests that bad files and settings are refused
+     */
+    @Test
+    public void testBadInput() throws IOException {
+        Path bad = directory.resolve("bad.bin");
+        Files.write(bad, new byte[64]);
+        assertThrows(IOException.class, () -> Tablebase.open(bad));
+        assertThrows(IllegalArgumentException.class, () -> new TablebaseGenerator(1, 1, directory));
+        assertThrows(IllegalArgumentException.class, () -> new TablebaseGenerator(2, 0, directory));
+    }
+}
@@ -0,0 +1,64 @@
+package com.webcheckers.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier Tournament class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestTournament {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private Tournament CuT;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new Tournament(new HintEngine(4, 2_000), new HintEngine(2, 200), 2, 2);
+    }
+
+    /**
+     * Tests that every game is counted and every search timed
+     */
+    @Test
+    public void testPlay() {
+        Tournament.Result result = CuT.play(3, 7);
+        // rounded up to two pairs
+        assertEquals(4, result.getGames());
+        assertEquals(result.getGames(), result.getWins() + result.getDraws() + result.getLosses());
+        assertTrue(result.getFirst().getCount() > 0);
+        assertTrue(result.getSecond().getCount() > 0);
+        assertTrue(result.getFirst().getNodes() > result.getSecond().getNodes());
+        assertTrue(result.getFirst().getNodesPerSecond() > 0);
+        Tournament.Searches first = result.getFirst();
+        assertTrue(first.getPercentileNanos(50) <= first.getPercentileNanos(90));
+        assertTrue(first.getPercentileNanos(90) <= first.getPercentileNanos(100));
+        assertTrue(result.getWallNanos() > 0);
+        assertTrue(result.toString().contains("4 games"));
+    }
+
+    /**
+     * Tests the score and Elo difference of a result
+     */
+    @Test
+    public void testElo() {
+        Tournament.Result result = new Tournament(new HintEngine(1, 1), new HintEngine(1, 1), 0, 1).play(0, 1);
+        assertEquals(0, result.getGames());
+        assertEquals(0.5, result.getScore());
+        assertEquals(0.0, result.getEloDifference(), 1e-9);
+
+        // the stronger engine is found whichever side it is on
+        Tournament stronger = new Tournament(new HintEngine(6, 20_000), new HintEngine(1, 1), 2, 1);
+        result = stronger.play(2, 3);
+        assertTrue(result.getScore() >= 0.5);
+        assertTrue(result.getEloDifference() >= 0);
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(new HintEngine(), new HintEngine(), -1, 1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.webcheckers.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Application-tier TranspositionTable class
+ */
+@Tag("Application-tier")
+@Testable
+public class TestTranspositionTable {
+
+    /**
+     * The component-under-test (CuT)
+     */
+    private TranspositionTable CuT;
+
+    @BeforeEach
+    public void setup() {
+        CuT = new TranspositionTable(1);
+    }
+
+    /**
+     * Tests that the size follows the memory cap
+     */
+    @Test
+    public void testCapacity() {
+        assertEquals(1024 * 1024 / TranspositionTable.ENTRY_BYTES, CuT.capacity());
+        // rounded down to a power of two
+        assertEquals(2 * 1024 * 1024 / TranspositionTable.ENTRY_BYTES, new TranspositionTable(3).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    /**
+     * Tests storing and finding an entry
+     */
+    @Test
+    public void testStoreProbe() {
+        long hash = 0x1234_5678_9ABC_DEF0L;
+        assertEquals(0, CuT.probe(hash));
+
+        CuT.store(hash, 0x0425, -12345, 7, TranspositionTable.LOWER_BOUND);
+        long entry = CuT.probe(hash);
+        assertEquals(0x0425, TranspositionTable.move(entry));
+        assertEquals(-12345, TranspositionTable.score(entry));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+
+        CuT.store(hash, -1, 0, 1, TranspositionTable.EXACT);
+        assertEquals(-1, TranspositionTable.move(CuT.probe(hash)));
+
+        CuT.clear();
+        assertEquals(0, CuT.probe(hash));
+    }
+
+    /**
+     * Tests that a deep entry is kept over shallower positions landing in its bucket
+     */
+    @Test
+    public void testReplaceByDepth() {
+        long deep = 10;
+        long other = deep + CuT.capacity();
+        long newest = deep + 2L * CuT.capacity();
+
+        CuT.store(deep, 1, 0, 9, TranspositionTable.EXACT);
+        CuT.store(other, 1, 0, 2, TranspositionTable.EXACT);
+        assertNotEquals(0, CuT.probe(deep));
+        assertNotEquals(0, CuT.probe(other));
+
+        // the shallow one is replaced, the deep one stays
+        CuT.store(newest, 1, 0, 3, TranspositionTable.EXACT);
+        assertNotEquals(0, CuT.probe(deep));
+        assertEquals(0, CuT.probe(other));
+        assertNotEquals(0, CuT.probe(newest));
+
+        // a deeper search takes over the depth-preferred entry
+        CuT.store(other, 1, 0, 12, TranspositionTable.EXACT);
+        assertEquals(0, CuT.probe(deep));
+        assertEquals(12, TranspositionTable.depth(CuT.probe(other)));
+    }
+
+    /**
+     * Tests that a deep entry left by an earlier search is replaced by a
+     * shallower entry of the current one
+     */
+    @Test
+    public void testReplaceStale() {
+        long stale = 10;
+        long other = stale + CuT.capacity();
+
+        CuT.store(stale, 1, 0, 12, TranspositionTable.EXACT);
+        CuT.newSearch();
+        CuT.store(other, 1, 0, 2, TranspositionTable.EXACT);
+        assertEquals(0, CuT.probe(stale));
+        assertEquals(2, TranspositionTable.depth(CuT.probe(other)));
+
+        // within the current search, depth decides again
+        long newest = stale + 2L * CuT.capacity();
+        CuT.store(stale, 1, 0, 1, TranspositionTable.EXACT);
+        CuT.store(newest, 1, 0, 1, TranspositionTable.EXACT);
+        assertNotEquals(0, CuT.probe(other));
+        assertEquals(0, CuT.probe(stale));
+        assertNotEquals(0, CuT.probe(newest));
+    }
+
+    /**
+     * Tests that entries read while other threads write are whole or missing
+     */
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        AtomicInteger bad = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    // every position lands in the same bucket, so threads keep writing over each other
+                    int position = i % 64 + 1;
+                    long hash = (long) position << 32 | 6;
+                    CuT.store(hash, seed + 1, position * 7, 5, TranspositionTable.EXACT);
+                    long entry = CuT.probe(hash);
+                    if (entry != 0 && TranspositionTable.score(entry) != position * 7) {
+                        bad.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, bad.get());
+    }
+}
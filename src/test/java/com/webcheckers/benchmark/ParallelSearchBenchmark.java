@@ -0,0 +1,73 @@
+package com.webcheckers.benchmark;
+
+import com.webcheckers.app.HintEngine;
+import com.webcheckers.app.Search;
+import com.webcheckers.app.SearchResult;
+import com.webcheckers.model.BoardView;
+import com.webcheckers.model.Piece;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of a hint search on one to eight threads
+ * <p>
+ * Each operation searches the starting position to a fixed {@link #depth}
+ * with an emptied table, so the time of a run over the time of the
+ * one-thread run is the speedup of the parallel search. Run with
+ * {@code mvn test-compile exec:exec@benchmark -Dbenchmarks=ParallelSearchBenchmark}.
+ *
+ * @author Anh Nguyen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+    // threads searching each hint
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    // depth to search to
+    @Param({"12", "14"})
+    public int depth;
+
+    private HintEngine engine;
+
+    private int red;
+    private int white;
+    private int kings;
+
+    @Setup
+    public void setup() {
+        engine = new HintEngine.Builder()
+                .budget(depth, Long.MAX_VALUE, Search.NO_TIME_LIMIT)
+                .threads(threads)
+                .build();
+        BoardView board = new BoardView();
+        red = board.getRedMask();
+        white = board.getWhiteMask();
+        kings = board.getKingMask();
+    }
+
+    /**
+     * Empties the table, so each search starts cold
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        engine.getTable().clear();
+    }
+
+    /**
+     * Searches the starting position to the depth
+     *
+     * @return the search result
+     */
+    @Benchmark
+    public SearchResult search() {
+        return engine.search(red, white, kings, Piece.Color.RED, -1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.webcheckers.benchmark;
+
+import com.webcheckers.app.Perft;
+import com.webcheckers.model.BoardView;
+import com.webcheckers.model.Piece;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of perft from the starting position
+ * <p>
+ * Each operation counts the whole tree to {@link #depth}, so the score times
+ * the node count is the move generation speed in nodes per second. Run with
+ * {@code mvn test-compile exec:exec@benchmark}.
+ *
+ * @author Anh Nguyen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    // depth to count to
+    @Param({"6", "8"})
+    public int depth;
+
+    private int red;
+    private int white;
+    private int kings;
+
+    @Setup
+    public void setup() {
+        BoardView board = new BoardView();
+        red = board.getRedMask();
+        white = board.getWhiteMask();
+        kings = board.getKingMask();
+    }
+
+    /**
+     * Counts the tree, reporting the nodes counted so JMH can give nodes per second
+     *
+     * @param nodes counter of the nodes counted
+     * @return number of leaf nodes
+     */
+    @Benchmark
+    public long perft(NodeCounter nodes) {
+        long count = Perft.perft(red, white, kings, Piece.Color.RED, depth);
+        nodes.nodes += count;
+        return count;
+    }
+
+    /**
+     * Counts the leaf nodes of each iteration, reported by JMH as nodes per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+}
@@ -33,4 +33,172 @@ public class TestBoardView {
         assertEquals(CuT.getNumWhitePieces(), 0);
 
     }
+
+    @Test
+    public void testSquareMapping() {
+        for (int row = 0; row < BoardView.BOARD_LENGTH; row++) {
+            for (int cell = 0; cell < BoardView.BOARD_LENGTH; cell++) {
+                int square = BoardView.squareOf(row, cell);
+                if ((row + cell) % 2 == 0) {
+                    assertEquals(-1, square);
+                } else {
+                    assertEquals(row, BoardView.rowOf(square));
+                    assertEquals(cell, BoardView.cellOf(square));
+                }
+            }
+        }
+        assertEquals(-1, BoardView.squareOf(new Position(8, 1)));
+    }
+
+    @Test
+    public void testMasks() {
+        BoardView CuT = new BoardView();
+        assertEquals(12, Integer.bitCount(CuT.getRedMask()));
+        assertEquals(12, Integer.bitCount(CuT.getWhiteMask()));
+        assertEquals(0, CuT.getKingMask());
+
+        // spaces write through to the masks
+        CuT.getRow(5).getSpace(0).setPiece(null);
+        assertEquals(11, Integer.bitCount(CuT.getRedMask()));
+        CuT.getRow(4).getSpace(1).setPiece(Piece.of(Piece.Type.KING, Piece.Color.RED));
+        assertEquals(Piece.Type.KING, CuT.getRow(4).getSpace(1).getPiece().getType());
+
+        int from = BoardView.squareOf(4, 1);
+        int to = BoardView.squareOf(3, 2);
+        CuT.movePiece(from, to);
+        assertNull(CuT.getPiece(4, 1));
+        assertEquals(Piece.Color.RED, CuT.getPiece(3, 2).getColor());
+        assertTrue(CuT.getPiece(3, 2).isKing());
+
+        CuT.removePiece(to);
+        assertNull(CuT.getPiece(3, 2));
+        assertEquals(0, CuT.getKingMask());
+    }
+
+    @Test
+    public void testLightSpace() {
+        BoardView CuT = new BoardView();
+        assertFalse(CuT.getRow(0).getSpace(0).isValid());
+        assertThrows(IllegalArgumentException.class,
+                () -> CuT.getRow(0).getSpace(0).setPiece(Piece.of(Piece.Type.SINGLE, Piece.Color.RED)));
+    }
+
+    @Test
+    public void testGetRow() {
+        BoardView CuT = new BoardView();
+        for (int i = 0; i < BoardView.BOARD_LENGTH; i++) {
+            assertEquals(i, CuT.getRow(i).getIndex());
+            assertSame(CuT.getRow(i), CuT.getRow(i));
+        }
+        assertNull(CuT.getRow(-1));
+        assertNull(CuT.getRow(BoardView.BOARD_LENGTH));
+    }
+
+    @Test
+    public void testHash() {
+        BoardView CuT = new BoardView();
+        long start = CuT.getHash();
+        assertEquals(Zobrist.hash(CuT.getRedMask(), CuT.getWhiteMask(), CuT.getKingMask(), false), start);
+
+        int from = BoardView.squareOf(5, 2);
+        int to = BoardView.squareOf(4, 3);
+        CuT.movePiece(from, to);
+        CuT.crownPiece(to);
+        CuT.removePiece(BoardView.squareOf(2, 1));
+        CuT.getRow(3).getSpace(4).setPiece(Piece.WHITE_KING);
+        CuT.switchSideToMove();
+        assertTrue(CuT.isWhiteToMove());
+        assertEquals(Zobrist.hash(CuT.getRedMask(), CuT.getWhiteMask(), CuT.getKingMask(), true), CuT.getHash());
+
+        // moving back to the same position gives back the same hash
+        CuT.getRow(3).getSpace(4).setPiece(null);
+        CuT.getRow(2).getSpace(1).setPiece(Piece.WHITE_SINGLE);
+        CuT.getRow(4).getSpace(3).setPiece(null);
+        CuT.getRow(5).getSpace(2).setPiece(Piece.RED_SINGLE);
+        CuT.switchSideToMove();
+        assertEquals(start, CuT.getHash());
+    }
+
+    @Test
+    public void testFlipped() {
+        BoardView CuT = new BoardView();
+        BoardView flipped = CuT.flipped();
+        assertEquals(CuT.getRedMask(), flipped.getRedMask());
+        assertEquals(CuT.getWhiteMask(), flipped.getWhiteMask());
+        assertEquals(CuT.getHash(), flipped.getHash());
+        assertEquals(CuT, flipped);
+
+        // the view follows changes to the board it wraps
+        int from = BoardView.squareOf(5, 2);
+        int to = BoardView.squareOf(4, 3);
+        CuT.movePiece(from, to);
+        CuT.crownPiece(to);
+        CuT.removePiece(BoardView.squareOf(2, 1));
+        CuT.decreaseNumWhitePieces();
+        CuT.switchSideToMove();
+        assertEquals(CuT.getRedMask(), flipped.getRedMask());
+        assertEquals(CuT.getWhiteMask(), flipped.getWhiteMask());
+        assertEquals(CuT.getKingMask(), flipped.getKingMask());
+        assertEquals(CuT.getHash(), flipped.getHash());
+        assertEquals(CuT.getModCount(), flipped.getModCount());
+        assertEquals(11, flipped.getNumWhitePieces());
+        assertTrue(flipped.isWhiteToMove());
+        assertEquals(Piece.RED_KING, flipped.getPiece(4, 3));
+        assertEquals(CuT, flipped);
+
+        // the rows are seen from the other side
+        assertEquals(7, flipped.getBoard().get(0).getIndex());
+        assertThrows(UnsupportedOperationException.class, () -> flipped.movePiece(to, from));
+    }
+
+    @Test
+    public void testRowsBoard() {
+        BoardView start = new BoardView();
+        BoardView CuT = new BoardView(start.flipped().getBoard());
+        assertEquals(start.getRedMask(), CuT.getRedMask());
+        assertEquals(start.getWhiteMask(), CuT.getWhiteMask());
+        assertEquals(start.getHash(), CuT.getHash());
+        assertEquals(start, CuT);
+
+        start.removePiece(BoardView.squareOf(2, 1));
+        assertNotEquals(start, CuT);
+    }
+
+    @Test
+    public void testHashCode() {
+        BoardView CuT = new BoardView();
+        BoardView other = new BoardView();
+        assertEquals(other.hashCode(), CuT.hashCode());
+        assertEquals(CuT.hashCode(), CuT.flipped().hashCode());
+
+        // the side to move does not change equality, so not the hash code either
+        CuT.switchSideToMove();
+        assertEquals(other, CuT);
+        assertEquals(other.hashCode(), CuT.hashCode());
+
+        CuT.movePiece(BoardView.squareOf(5, 2), BoardView.squareOf(4, 3));
+        other.getRow(5).getSpace(2).setPiece(null);
+        other.getRow(4).getSpace(3).setPiece(Piece.RED_SINGLE);
+        assertEquals(other, CuT);
+        assertEquals(other.hashCode(), CuT.hashCode());
+        assertEquals(CuT.hashCode(), new BoardView(CuT.getBoard()).hashCode());
+    }
+
+    @Test
+    public void testCopy() {
+        BoardView board = new BoardView();
+        board.movePiece(BoardView.squareOf(5, 2), BoardView.squareOf(4, 3));
+        board.switchSideToMove();
+        BoardView CuT = board.flipped().copy();
+        assertEquals(board, CuT);
+        assertEquals(board.getHash(), CuT.getHash());
+        assertTrue(CuT.isWhiteToMove());
+        assertEquals(Piece.RED_SINGLE, CuT.getPiece(4, 3));
+
+        // later moves do not reach the copy
+        board.movePiece(BoardView.squareOf(4, 3), BoardView.squareOf(3, 4));
+        assertNotEquals(board, CuT);
+        assertEquals(Piece.RED_SINGLE, CuT.getPiece(4, 3));
+        assertNull(CuT.getPiece(3, 4));
+    }
 }
@@ -0,0 +1,71 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Model-tier MoveGenerator class
+ */
+@Tag("Model-tier")
+@Testable
+public class TestMoveGenerator {
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Tests the moves of both sides in the opening position
+     */
+    @Test
+    public void testOpening() {
+        BoardView board = new BoardView();
+        assertEquals(7, MoveGenerator.generate(board.getRedMask(), board.getWhiteMask(), 0,
+                Piece.Color.RED, moves, false));
+        assertEquals(7, MoveGenerator.generate(board.getWhiteMask(), board.getRedMask(), 0,
+                Piece.Color.WHITE, moves, false));
+        assertEquals(0, MoveGenerator.generate(board.getRedMask(), board.getWhiteMask(), 0,
+                Piece.Color.RED, moves, true));
+    }
+
+    /**
+     * Tests that a king moves backwards and a single piece does not
+     */
+    @Test
+    public void testKing() {
+        int red = 1 << BoardView.squareOf(4, 3);
+        assertEquals(2, MoveGenerator.generate(red, 0, 0, Piece.Color.RED, moves, false));
+        assertEquals(4, MoveGenerator.generate(red, 0, red, Piece.Color.RED, moves, false));
+    }
+
+    /**
+     * Tests that jumps are forced over simple moves
+     */
+    @Test
+    public void testForcedJump() {
+        int red = 1 << BoardView.squareOf(5, 2) | 1 << BoardView.squareOf(7, 6);
+        int white = 1 << BoardView.squareOf(4, 3);
+        int count = MoveGenerator.generate(red, white, 0, Piece.Color.RED, moves, false);
+
+        assertEquals(1, count);
+        assertEquals(PackedMove.jump(BoardView.squareOf(5, 2), BoardView.squareOf(3, 4),
+                BoardView.squareOf(4, 3)), moves[0]);
+        assertEquals(3, MoveGenerator.generateSimpleMoves(red, white, 0, Piece.Color.RED, moves, 0));
+    }
+
+    /**
+     * Tests finding the pieces that can jump
+     */
+    @Test
+    public void testJumpers() {
+        int jumper = 1 << BoardView.squareOf(5, 2);
+        int red = jumper | 1 << BoardView.squareOf(7, 6);
+        int white = 1 << BoardView.squareOf(4, 3);
+
+        assertEquals(jumper, MoveGenerator.jumpers(red, white, 0, Piece.Color.RED, ~0));
+        assertEquals(0, MoveGenerator.jumpers(red, white, 0, Piece.Color.RED, ~jumper));
+        // the white piece can jump back over the red one
+        assertEquals(white, MoveGenerator.jumpers(white, red, 0, Piece.Color.WHITE, ~0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Model-tier MoveTables class
+ */
+@Tag("Model-tier")
+@Testable
+public class TestMoveTables {
+
+    /**
+     * Tests steps and jumps from a square in the middle of the board
+     */
+    @Test
+    public void testMiddleSquare() {
+        int square = BoardView.squareOf(4, 3);
+
+        assertEquals(BoardView.squareOf(3, 2), MoveTables.step(square, MoveTables.UP_LEFT));
+        assertEquals(BoardView.squareOf(3, 4), MoveTables.step(square, MoveTables.UP_RIGHT));
+        assertEquals(BoardView.squareOf(5, 2), MoveTables.step(square, MoveTables.DOWN_LEFT));
+        assertEquals(BoardView.squareOf(5, 4), MoveTables.step(square, MoveTables.DOWN_RIGHT));
+
+        assertEquals(BoardView.squareOf(2, 1), MoveTables.jump(square, MoveTables.UP_LEFT));
+        assertEquals(BoardView.squareOf(6, 5), MoveTables.jump(square, MoveTables.DOWN_RIGHT));
+        assertEquals(BoardView.squareOf(3, 2), MoveTables.captured(square, MoveTables.UP_LEFT));
+    }
+
+    /**
+     * Tests that targets off the board are -1
+     */
+    @Test
+    public void testEdgeSquare() {
+        int square = BoardView.squareOf(7, 0);
+
+        assertEquals(-1, MoveTables.step(square, MoveTables.UP_LEFT));
+        assertEquals(-1, MoveTables.step(square, MoveTables.DOWN_RIGHT));
+        assertEquals(BoardView.squareOf(6, 1), MoveTables.step(square, MoveTables.UP_RIGHT));
+        assertEquals(-1, MoveTables.jump(square, MoveTables.UP_LEFT));
+        assertEquals(-1, MoveTables.captured(square, MoveTables.UP_LEFT));
+        assertEquals(BoardView.squareOf(5, 2), MoveTables.jump(square, MoveTables.UP_RIGHT));
+    }
+
+    /**
+     * Tests the direction lookups between two squares
+     */
+    @Test
+    public void testDirections() {
+        int from = BoardView.squareOf(5, 2);
+
+        assertEquals(MoveTables.UP_RIGHT, MoveTables.stepDirection(from, BoardView.squareOf(4, 3)));
+        assertEquals(MoveTables.DOWN_LEFT, MoveTables.jumpDirection(from, BoardView.squareOf(7, 0)));
+        assertEquals(-1, MoveTables.stepDirection(from, BoardView.squareOf(3, 4)));
+        assertEquals(-1, MoveTables.jumpDirection(from, BoardView.squareOf(4, 3)));
+    }
+
+    /**
+     * Tests the directions single pieces and kings may move in
+     */
+    @Test
+    public void testPieceDirections() {
+        assertEquals(MoveTables.UP_LEFT, MoveTables.firstDirection(Piece.Color.RED, false));
+        assertEquals(MoveTables.DOWN_LEFT, MoveTables.lastDirection(Piece.Color.RED, false));
+        assertEquals(MoveTables.DOWN_LEFT, MoveTables.firstDirection(Piece.Color.WHITE, false));
+        assertEquals(MoveTables.NUM_DIRECTIONS, MoveTables.lastDirection(Piece.Color.WHITE, false));
+        assertEquals(MoveTables.UP_LEFT, MoveTables.firstDirection(Piece.Color.WHITE, true));
+        assertEquals(MoveTables.NUM_DIRECTIONS, MoveTables.lastDirection(Piece.Color.RED, true));
+    }
+
+    /**
+     * Tests the squares near a square
+     */
+    @Test
+    public void testNearby() {
+        int square = BoardView.squareOf(7, 0);
+        int expected = 1 << square | 1 << BoardView.squareOf(6, 1) | 1 << BoardView.squareOf(5, 2);
+
+        assertEquals(expected, MoveTables.nearby(square));
+        assertEquals(9, Integer.bitCount(MoveTables.nearby(BoardView.squareOf(4, 3))));
+    }
+
+    /**
+     * Tests the rows where pieces are crowned
+     */
+    @Test
+    public void testKingRow() {
+        assertNotEquals(0, MoveTables.kingRow(Piece.Color.RED) & 1 << BoardView.squareOf(0, 1));
+        assertNotEquals(0, MoveTables.kingRow(Piece.Color.WHITE) & 1 << BoardView.squareOf(7, 6));
+        assertEquals(0, MoveTables.kingRow(Piece.Color.RED) & 1 << BoardView.squareOf(7, 6));
+    }
+}
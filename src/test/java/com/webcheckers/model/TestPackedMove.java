@@ -0,0 +1,59 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Model-tier PackedMove class
+ */
+@Tag("Model-tier")
+@Testable
+public class TestPackedMove {
+
+    @Test
+    public void testSimple() {
+        int move = PackedMove.simple(22, 17);
+        assertEquals(22, PackedMove.from(move));
+        assertEquals(17, PackedMove.to(move));
+        assertFalse(PackedMove.isJump(move));
+        assertEquals(-1, PackedMove.captured(move));
+    }
+
+    @Test
+    public void testJump() {
+        int move = PackedMove.jump(31, 22, 26);
+        assertEquals(31, PackedMove.from(move));
+        assertEquals(22, PackedMove.to(move));
+        assertTrue(PackedMove.isJump(move));
+        assertEquals(26, PackedMove.captured(move));
+    }
+
+    @Test
+    public void testOf() {
+        Move simple = new Move(new Position(5, 2), new Position(4, 3), Move.MoveType.SIMPLE);
+        assertEquals(PackedMove.simple(BoardView.squareOf(5, 2), BoardView.squareOf(4, 3)), PackedMove.of(simple));
+
+        Move jump = new Move(new Position(5, 2), new Position(3, 4), Move.MoveType.JUMP);
+        int move = PackedMove.of(jump);
+        assertTrue(PackedMove.isJump(move));
+        assertEquals(BoardView.squareOf(4, 3), PackedMove.captured(move));
+
+        // not a step, or on a light space
+        assertEquals(-1, PackedMove.of(new Move(new Position(5, 2), new Position(3, 4), Move.MoveType.SIMPLE)));
+        assertEquals(-1, PackedMove.of(new Move(new Position(5, 1), new Position(4, 2), Move.MoveType.SIMPLE)));
+    }
+
+    @Test
+    public void testToMove() {
+        int move = PackedMove.jump(BoardView.squareOf(5, 2), BoardView.squareOf(3, 4), BoardView.squareOf(4, 3));
+        Move CuT = PackedMove.toMove(move);
+
+        assertSame(Position.of(5, 2), CuT.getStart());
+        assertSame(Position.of(3, 4), CuT.getEnd());
+        assertEquals(Move.MoveType.JUMP, CuT.getMoveType());
+        assertEquals(move, PackedMove.of(CuT));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Tag;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 import com.webcheckers.model.Piece.Color;
 
@@ -21,7 +22,7 @@ public class TestPiece {
     public void testGetColorRed() {
         Color CuT = Color.RED;
 
-        Piece singlePiece = new Piece(Type.SINGLE, Color.RED);
+        Piece singlePiece = Piece.of(Type.SINGLE, Color.RED);
 
         Color actualDefault = singlePiece.getColor();
 
@@ -35,7 +36,7 @@ public class TestPiece {
     public void testGetColorWhite() {
         Color CuT = Color.WHITE;
 
-        Piece kingPiece = new Piece(Type.KING, Color.WHITE);
+        Piece kingPiece = Piece.of(Type.KING, Color.WHITE);
 
         Color actualKing = kingPiece.getColor();
 
@@ -47,7 +48,7 @@ public class TestPiece {
      */
     @Test
     public void testGetTypeSingle() {
-        Piece CuT = new Piece(Type.SINGLE, Color.RED);
+        Piece CuT = Piece.of(Type.SINGLE, Color.RED);
 
         Type actual = CuT.getType();
 
@@ -59,7 +60,7 @@ public class TestPiece {
      */
     @Test
     public void testGetTypeKing() {
-        Piece CuT = new Piece(Type.KING, Color.WHITE);
+        Piece CuT = Piece.of(Type.KING, Color.WHITE);
 
         Type actual = CuT.getType();
 
@@ -71,9 +72,9 @@ public class TestPiece {
      */
     @Test
     public void testequalsSingle() {
-        Piece CuT = new Piece(Type.SINGLE, Color.RED);
+        Piece CuT = Piece.of(Type.SINGLE, Color.RED);
         
-        Piece otherPiece = new Piece(Type.SINGLE, Color.RED);
+        Piece otherPiece = Piece.of(Type.SINGLE, Color.RED);
 
         assertEquals(CuT, otherPiece);
     }
@@ -83,27 +84,39 @@ public class TestPiece {
      */
     @Test
     public void testequalsKing() {
-        Piece CuT = new Piece(Type.KING, Color.WHITE);
+        Piece CuT = Piece.of(Type.KING, Color.WHITE);
         
-        Piece otherPiece = new Piece(Type.KING, Color.WHITE);
+        Piece otherPiece = Piece.of(Type.KING, Color.WHITE);
 
         assertTrue(CuT.equals(otherPiece));
     }
 
+    /**
+     * Tests that pieces of the same type and color are the same instance
+     */
     @Test
-    public void testSetType() {
-        Piece CuT = new Piece(Type.SINGLE, Color.RED);
-        CuT.setType(Type.KING);
+    public void testOf() {
+        assertSame(Piece.RED_SINGLE, Piece.of(Type.SINGLE, Color.RED));
+        assertSame(Piece.WHITE_KING, Piece.of(Type.KING, Color.WHITE));
+        assertNotEquals(Piece.RED_SINGLE, Piece.RED_KING);
+        assertThrows(IllegalArgumentException.class, () -> Piece.of(Type.SINGLE, Color.NONE));
+    }
 
-        assertEquals(Type.KING, CuT.getType());
+    /**
+     * Tests that crowning swaps in the king of the same color
+     */
+    @Test
+    public void testCrowned() {
+        Piece CuT = Piece.of(Type.SINGLE, Color.RED);
+
+        assertSame(Piece.RED_KING, CuT.crowned());
+        assertSame(Piece.WHITE_KING, Piece.WHITE_SINGLE.crowned());
+        assertFalse(CuT.isKing());
     }
 
     @Test
     public void testIsKing() {
-        Piece CuT = new Piece(Type.SINGLE, Color.RED);
-        CuT.setType(Type.KING);
-
-        assertTrue(CuT.isKing());
+        assertTrue(Piece.of(Type.KING, Color.RED).isKing());
+        assertFalse(Piece.of(Type.SINGLE, Color.WHITE).isKing());
     }
 }
-
@@ -31,6 +31,15 @@ public class TestPlayer {
         assertFalse(actual);
     }
 
+    /**
+     * Tests {@link Player#isBot()}
+     */
+    @Test
+    public void testIsBot() {
+        assertFalse(new Player("Test").isBot());
+        assertTrue(new Player("Computer", true).isBot());
+    }
+
     /**
      * Tests {@link Player#setPlaying(boolean)}
      */
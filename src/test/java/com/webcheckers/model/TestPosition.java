@@ -52,4 +52,17 @@ public class TestPosition {
         assertFalse(Position.isInBounds(pos4));
         assertFalse(Position.isInBounds(pos5));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOf() {
+        assertSame(Position.of(5, 2), Position.of(5, 2));
+        assertEquals(new Position(5, 2), Position.of(5, 2));
+        assertFalse(Position.isInBounds(Position.of(8, 0)));
+    }
+
+    @Test
+    public void testHashCode() {
+        assertEquals(new Position(3, 4).hashCode(), Position.of(3, 4).hashCode());
+        assertNotEquals(Position.of(3, 4).hashCode(), Position.of(4, 3).hashCode());
+    }
+}
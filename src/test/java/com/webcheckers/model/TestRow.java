@@ -32,7 +32,7 @@ public class TestRow {
         Row myRow = new Row(5);
 
         // Code adding a new Space() using addSpace()
-        Space mySpace = new Space(5, true, new Piece(Piece.Type.SINGLE, Piece.Color.RED));
+        Space mySpace = new Space(5, true, Piece.of(Piece.Type.SINGLE, Piece.Color.RED));
         
         // Asserting new space is in our list by making sure to
         // call getSpaces again()
@@ -70,4 +70,19 @@ public class TestRow {
         // Asserting new the iterators are nto equal to each other.
         assertNotEquals(expectedSpaces, actualSpaces);
     }
+
+    // Spaces should be found by their cell index no matter the order they were added in
+    @Test
+    public void testGetSpaceByCell() {
+        Row myRow = new Row(2);
+        Space last = new Space(7, false, null);
+        Space first = new Space(0, false, null);
+        myRow.addSpace(last);
+        myRow.addSpace(first);
+
+        assertEquals(myRow.getSpace(7), last);
+        assertEquals(myRow.getSpace(0), first);
+        assertEquals(myRow.getSpace(8), null);
+        assertEquals(myRow.getSpace(-1), null);
+    }
 }
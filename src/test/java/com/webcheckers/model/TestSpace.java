@@ -14,7 +14,7 @@ public class TestSpace {
     @Test
     public void testValid() {
         // make a row with a new index
-        Space mySpace = new Space(0, true, new Piece(Type.SINGLE, Color.RED));
+        Space mySpace = new Space(0, true, Piece.of(Type.SINGLE, Color.RED));
 
         // assert expected index vs result form getIndex()
         assertTrue(mySpace.isValid());
@@ -23,7 +23,7 @@ public class TestSpace {
     @Test
     public void testNotValid() {
         // make a row with a new index
-        Space mySpace = new Space(1, false, new Piece(Type.SINGLE, Color.RED));
+        Space mySpace = new Space(1, false, Piece.of(Type.SINGLE, Color.RED));
 
         // assert expected index vs result form getIndex()
         assertFalse(mySpace.isValid());
@@ -32,7 +32,7 @@ public class TestSpace {
     @Test
     public void testGetPiece() {
         // make a row with a new index
-        Piece myPiece = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace = new Space(0, true, myPiece);
 
         // assert expected index vs result form getIndex()
@@ -42,7 +42,7 @@ public class TestSpace {
     @Test
     public void testGetCellIDx() {
         // make a row with a new index
-        Piece myPiece = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace = new Space(0, true, myPiece);
 
         // assert expected index vs result form getIndex()
@@ -52,7 +52,7 @@ public class TestSpace {
     @Test
     public void testEqualsSelf() {
         // make a row with a new index
-        Piece myPiece = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace = new Space(0, true, myPiece);
 
         // assert expected index vs result form getIndex()
@@ -62,7 +62,7 @@ public class TestSpace {
     @Test
     public void testEqualsOtherObject() {
         // make a row with a new index
-        Piece myPiece = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace = new Space(0, true, myPiece);
 
         // assert expected index vs result form getIndex()
@@ -72,10 +72,10 @@ public class TestSpace {
     @Test
     public void testSpaceEquals() {
         // make a row with a new index
-        Piece myPiece1 = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece1 = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace1 = new Space(0, true, myPiece1);
 
-        Piece myPiece2 = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece2 = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace2 = new Space(0, true, myPiece2);
 
         // assert expected index vs result form getIndex()
@@ -85,10 +85,10 @@ public class TestSpace {
     @Test
     public void testSpaceNotEquals() {
         // make a row with a new index
-        Piece myPiece1 = new Piece(Type.SINGLE, Color.RED);
+        Piece myPiece1 = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace1 = new Space(0, true, myPiece1);
 
-        Piece myPiece2 = new Piece(Type.SINGLE, Color.WHITE);
+        Piece myPiece2 = Piece.of(Type.SINGLE, Color.WHITE);
         Space mySpace2 = new Space(0, false, myPiece2);
 
         // assert expected index vs result form getIndex()
@@ -98,14 +98,25 @@ public class TestSpace {
     @Test
     public void testSetPieceOnSpace() {
         // make a row with a new index
-        Piece oldPiece = new Piece(Type.SINGLE, Color.RED);
+        Piece oldPiece = Piece.of(Type.SINGLE, Color.RED);
         Space mySpace = new Space(0, true, oldPiece);
-        Piece newPiece = new Piece(Type.KING, Color.RED);
+        Piece newPiece = Piece.of(Type.KING, Color.RED);
         mySpace.setPiece(newPiece);
         // assert expected index vs result form getIndex()
         assertEquals(mySpace.getPiece(), newPiece);
     }
 
+    @Test
+    public void testCrownPiece() {
+        Space mySpace = new Space(0, true, Piece.of(Type.SINGLE, Color.WHITE));
+        mySpace.crownPiece();
+        assertSame(Piece.WHITE_KING, mySpace.getPiece());
+
+        Space emptySpace = new Space(1, true, null);
+        emptySpace.crownPiece();
+        assertNull(emptySpace.getPiece());
+    }
+
     @Test
     public void testGetPieceOnSpaceNull() {
         // make a row with a new index
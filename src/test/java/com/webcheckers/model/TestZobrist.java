@@ -0,0 +1,41 @@
+package com.webcheckers.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.annotation.Testable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the Model-tier Zobrist class
+ */
+@Tag("Model-tier")
+@Testable
+public class TestZobrist {
+
+    /**
+     * Tests that every piece on every square has its own key
+     */
+    @Test
+    public void testKeysDiffer() {
+        long red = Zobrist.piece(Piece.Color.RED, false, 5);
+        assertNotEquals(red, Zobrist.piece(Piece.Color.RED, true, 5));
+        assertNotEquals(red, Zobrist.piece(Piece.Color.WHITE, false, 5));
+        assertNotEquals(red, Zobrist.piece(Piece.Color.RED, false, 6));
+        assertNotEquals(0, Zobrist.sideToMove());
+    }
+
+    /**
+     * Tests hashing a position from scratch
+     */
+    @Test
+    public void testHash() {
+        int red = 1 << 20 | 1 << 21;
+        int kings = 1 << 21;
+        long expected = Zobrist.piece(Piece.Color.RED, false, 20) ^ Zobrist.piece(Piece.Color.RED, true, 21);
+
+        assertEquals(expected, Zobrist.hash(red, 0, kings, false));
+        assertEquals(expected ^ Zobrist.sideToMove(), Zobrist.hash(red, 0, kings, true));
+        assertEquals(0, Zobrist.hash(0, 0, 0, false));
+    }
+}
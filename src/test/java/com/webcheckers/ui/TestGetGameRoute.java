@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
 import com.webcheckers.app.PlayerLobby;
 import com.webcheckers.model.Player;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +14,6 @@ import spark.*;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -33,7 +33,7 @@ public class TestGetGameRoute {
     private Session session;
     private Response response;
     private TemplateEngine templateEngine;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
     private PlayerLobby playerLobby;
     private Player p1;
@@ -62,19 +62,19 @@ public class TestGetGameRoute {
         // simulate a game created
         p1 = playerLobby.getPlayer("Player_1");
         p2 = playerLobby.getPlayer("Player_2");
-        gameMap = new HashMap<>();
+        gameCenter = new GameCenter();
 
         // create a unique CuT for each test
-        CuT = new GetGameRoute(gameMap, playerLobby, templateEngine, gson);
+        CuT = new GetGameRoute(gameCenter, playerLobby, templateEngine, gson);
     }
 
     /**
-     * Tests {@link GetGameRoute#GetGameRoute(HashMap, PlayerLobby, TemplateEngine, Gson)}
+     * Tests {@link GetGameRoute#GetGameRoute(GameCenter, PlayerLobby, TemplateEngine, Gson)}
      */
     @Test
     public void constructorTest() {
-        new GetGameRoute(gameMap, playerLobby, templateEngine, gson);
-        assertNotNull(gameMap);
+        new GetGameRoute(gameCenter, playerLobby, templateEngine, gson);
+        assertNotNull(gameCenter);
         assertNotNull(playerLobby);
         assertNotNull(templateEngine);
     }
@@ -103,7 +103,7 @@ public class TestGetGameRoute {
         }
 
         // simulate game created
-        String gameID = String.valueOf(Objects.hash(p1, p2));
+        String gameID = gameCenter.findGame(p1).getEncodedID();
         when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).
                 thenReturn(gameID);
 
@@ -111,8 +111,8 @@ public class TestGetGameRoute {
         verify(response).redirect(WebServer.GAME_URL + "?gameID=" + gameID);
 
         // game is created
-        Game game = gameMap.get(gameID);
-        assertEquals(gameMap.size(), 1);
+        Game game = gameCenter.getGame(gameID);
+        assertEquals(gameCenter.size(), 1);
         assertNotNull(game);
         assertNotNull(request.queryParams(GetGameRoute.GAME_ID_PARAM));
 
@@ -167,12 +167,12 @@ public class TestGetGameRoute {
         }
 
         // simulate game created
-        String gameID = String.valueOf(Objects.hash(p1, p2)); // (p2, p1) instead
+        String gameID = gameCenter.findGame(p2).getEncodedID();
         when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).
                 thenReturn(gameID);
 
         // game is created
-        Game game = gameMap.get(gameID);
+        Game game = gameCenter.getGame(gameID);
 
         // current user is the white player
         when(session.attribute(GetHomeRoute.CURRENT_USER_ATTR)).thenReturn(p2);
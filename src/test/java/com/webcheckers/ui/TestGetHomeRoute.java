@@ -3,9 +3,9 @@ package com.webcheckers.ui;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.HashMap;
 
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
 import com.webcheckers.app.PlayerLobby;
 import com.webcheckers.model.Player;
 
@@ -32,7 +32,7 @@ public class TestGetHomeRoute {
      * Friendly objects
      */
     private PlayerLobby playerLobby;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Player player;
 
     /**
@@ -56,24 +56,24 @@ public class TestGetHomeRoute {
         response = mock(Response.class);
         templateEngine = mock(TemplateEngine.class);
 
-        // Player, PlayerLobby, and HashMap are friendly
+        // Player, PlayerLobby, and GameCenter are friendly
         playerName = "player1";
         player = new Player(playerName);
         playerLobby = new PlayerLobby();
         playerLobby.addPlayer(player.getName());
-        gameMap = new HashMap<>();
+        gameCenter = new GameCenter();
 
         // Create a unique CuT for each test
-        CuT = new GetHomeRoute(gameMap, playerLobby, templateEngine);
+        CuT = new GetHomeRoute(gameCenter, playerLobby, templateEngine);
     }
 
     /**
-     * Tests {@link GetHomeRoute#GetHomeRoute(HashMap, PlayerLobby, TemplateEngine)}
+     * Tests {@link GetHomeRoute#GetHomeRoute(GameCenter, PlayerLobby, TemplateEngine)}
      */
     @Test
     public void constructorTest() {
-        new GetHomeRoute(gameMap, playerLobby, templateEngine);
-        assertNotNull(gameMap);
+        new GetHomeRoute(gameCenter, playerLobby, templateEngine);
+        assertNotNull(gameCenter);
         assertNotNull(playerLobby);
         assertNotNull(templateEngine);
     }
@@ -117,10 +117,9 @@ public class TestGetHomeRoute {
 
         // user is the white player and gets redirected to the game
         Player opponent = new Player("player2");
-        Game game = new Game(opponent, player);
+        Game game = gameCenter.createGame(opponent, player);
         opponent.setPlaying(true);
         player.setPlaying(true);
-        gameMap.put(String.valueOf(game.getID()), game);
 
         // redirects and halts
         try {
@@ -128,7 +127,7 @@ public class TestGetHomeRoute {
         } catch (HaltException ignored) {
         }
 
-        verify(response).redirect(WebServer.GAME_URL + "?gameID=" + game.getID());
+        verify(response).redirect(WebServer.GAME_URL + "?gameID=" + game.getEncodedID());
 
     }
 
@@ -150,10 +149,9 @@ public class TestGetHomeRoute {
 
         // players leaves lobby (GetGameRoute does this)
         // and joins the game
-        Game game = new Game(opponent, player);
-        gameMap.put(String.valueOf(game.getID()), game);
-        assertEquals(gameMap.size(), 1);
-        assertTrue(gameMap.containsKey(String.valueOf(game.getID())));
+        Game game = gameCenter.createGame(opponent, player);
+        assertEquals(gameCenter.size(), 1);
+        assertNotNull(gameCenter.getGame(game.getEncodedID()));
         assertFalse(game.isGameOver());
 
         // game is done
@@ -163,14 +161,14 @@ public class TestGetHomeRoute {
         assertTrue(game.isGameOver());
 
         // runs handle which pulls players back into lobby
-        // and removes game from the gameMap
+        // and removes game from the gameCenter
         CuT.handle(request, response);
 
         assertNotNull(playerLobby.getPlayer("player1"));
         assertNotNull(playerLobby.getPlayer("player2"));
 
-        assertEquals(gameMap.size(), 0);
-        assertFalse(gameMap.containsKey(String.valueOf(game.getID())));
+        assertEquals(gameCenter.size(), 0);
+        assertNull(gameCenter.getGame(game.getEncodedID()));
     }
 
     /**
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +14,6 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
-import java.util.HashMap;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,7 +28,7 @@ public class TestPostBackupMoveRoute {
     private PostBackupMoveRoute CuT;
 
     private Game game;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
 
     private Request request;
@@ -50,14 +50,13 @@ public class TestPostBackupMoveRoute {
 
         p1 = new Player("player1");
         p2 = new Player("player2");
-        game = new Game(p1, p2);
-        gameMap = new HashMap<>();
-        gameMap.put(String.valueOf(game.getID()), game);
+        gameCenter = new GameCenter();
+        game = gameCenter.createGame(p1, p2);
 
         gson = new Gson();
 
         // create a unique CuT for each test
-        CuT = new PostBackupMoveRoute(gameMap, gson);
+        CuT = new PostBackupMoveRoute(gameCenter, gson);
     }
 
     /**
@@ -65,7 +64,7 @@ public class TestPostBackupMoveRoute {
      */
     @Test
     public void testHandle() {
-        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(String.valueOf(game.getID()));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
 
         Object expectedError = gson.toJson(Message.error("No move to back up."));
         Object actual = CuT.handle(request, response);
@@ -76,11 +75,22 @@ public class TestPostBackupMoveRoute {
 
         when(request.queryParams("actionData")).thenReturn
                 ("{\"start\":{\"row\":5,\"cell\":2},\"end\":{\"row\":4,\"cell\":3}}");
-        PostValidateMoveRoute moveMaker = new PostValidateMoveRoute(gameMap, gson);
+        PostValidateMoveRoute moveMaker = new PostValidateMoveRoute(gameCenter, gson);
         moveMaker.handle(request, response);
         actual = CuT.handle(request, response);
 
         assertEquals(actual, expectedInfo);
 
     }
+
+    /**
+     * Tests {@link PostBackupMoveRoute#handle(Request, Response)} for a removed game
+     */
+    @Test
+    public void testRemovedGame() {
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        gameCenter.removeGame(game);
+
+        assertEquals(gson.toJson(GetGameRoute.GAME_GONE), CuT.handle(request, response));
+    }
 }
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +14,6 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
-import java.util.HashMap;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,7 +28,7 @@ public class TestPostCheckTurnRoute {
     private PostCheckTurnRoute CuT;
 
     private Game game;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
 
     private Request request;
@@ -50,14 +50,13 @@ public class TestPostCheckTurnRoute {
 
         p1 = new Player("player1");
         p2 = new Player("player2");
-        game = new Game(p1, p2);
-        gameMap = new HashMap<>();
-        gameMap.put(String.valueOf(game.getID()), game);
+        gameCenter = new GameCenter();
+        game = gameCenter.createGame(p1, p2);
 
         gson = new Gson();
 
         // create a unique CuT for each test
-        CuT = new PostCheckTurnRoute(gameMap, gson);
+        CuT = new PostCheckTurnRoute(gameCenter, gson);
     }
 
     /**
@@ -66,7 +65,7 @@ public class TestPostCheckTurnRoute {
     @Test
     public void testHandle() {
         when(session.attribute(GetHomeRoute.CURRENT_USER_ATTR)).thenReturn(p1);
-        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(String.valueOf(game.getID()));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
 
         Object expectedTrue = gson.toJson(Message.info("true"));
         Object actual = CuT.handle(request, response);
@@ -90,4 +89,17 @@ public class TestPostCheckTurnRoute {
         actual = CuT.handle(request, response);
         assertEquals(actual, expectedFalse);
     }
+
+    /**
+     * Tests {@link PostCheckTurnRoute#handle(Request, Response)} for a removed game
+     */
+    @Test
+    public void testRemovedGame() {
+        when(session.attribute(GetHomeRoute.CURRENT_USER_ATTR)).thenReturn(p2);
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        gameCenter.removeGame(game);
+
+        // the page reloads, and goes home
+        assertEquals(gson.toJson(Message.info("true")), CuT.handle(request, response));
+    }
 }
@@ -2,6 +2,8 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.HintEngine;
 import com.webcheckers.model.*;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +15,6 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
-import java.util.HashMap;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,7 +29,7 @@ public class TestPostGetHintRoute {
     private PostGetHintRoute CuT;
 
     private Game game;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
 
     private Request request;
@@ -50,14 +51,13 @@ public class TestPostGetHintRoute {
 
         p1 = new Player("player1");
         p2 = new Player("player2");
-        game = new Game(p1, p2);
-        gameMap = new HashMap<>();
-        gameMap.put(String.valueOf(game.getID()), game);
+        gameCenter = new GameCenter();
+        game = gameCenter.createGame(p1, p2);
 
         gson = new Gson();
 
         // create a unique CuT for each test
-        CuT = new PostGetHintRoute(gameMap, gson);
+        CuT = new PostGetHintRoute(gameCenter, new HintEngine(), gson);
     }
 
     /**
@@ -65,7 +65,7 @@ public class TestPostGetHintRoute {
      */
     @Test
     public void testHandle() {
-        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(String.valueOf(game.getID()));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
 
         Object value = CuT.handle(request, response);
         Message message = gson.fromJson(value.toString(), Message.class);
@@ -86,9 +86,9 @@ public class TestPostGetHintRoute {
         assertEquals(message.getText(), Message.error("No move can be found.").getText());
 
         // mock pieces on board
-        Piece redPiece = new Piece(Piece.Type.SINGLE, Piece.Color.RED);
+        Piece redPiece = Piece.of(Piece.Type.SINGLE, Piece.Color.RED);
         board.getRow(5).getSpace(0).setPiece(redPiece);
-        Piece whitePiece = new Piece(Piece.Type.SINGLE, Piece.Color.WHITE);
+        Piece whitePiece = Piece.of(Piece.Type.SINGLE, Piece.Color.WHITE);
         board.getRow(4).getSpace(3).setPiece(whitePiece);
 
         value = CuT.handle(request, response);
@@ -97,4 +97,15 @@ public class TestPostGetHintRoute {
         assertEquals(expected, message.getText().substring(0, expected.length()));
 
     }
+
+    /**
+     * Tests {@link PostGetHintRoute#handle(Request, Response)} for a removed game
+     */
+    @Test
+    public void testRemovedGame() {
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        gameCenter.removeGame(game);
+
+        assertEquals(gson.toJson(GetGameRoute.GAME_GONE), CuT.handle(request, response));
+    }
 }
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,7 +14,6 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
-import java.util.HashMap;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -28,7 +28,7 @@ public class TestPostResignGameRoute {
     private PostResignGameRoute CuT;
 
     private Game game;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
 
     private Request request;
@@ -50,14 +50,13 @@ public class TestPostResignGameRoute {
 
         p1 = new Player("player1");
         p2 = new Player("player2");
-        game = new Game(p1, p2);
-        gameMap = new HashMap<>();
-        gameMap.put(String.valueOf(game.getID()), game);
+        gameCenter = new GameCenter();
+        game = gameCenter.createGame(p1, p2);
 
         gson = new Gson();
 
         // create a unique CuT for each test
-        CuT = new PostResignGameRoute(gameMap, gson);
+        CuT = new PostResignGameRoute(gameCenter, gson);
     }
 
     /**
@@ -66,7 +65,7 @@ public class TestPostResignGameRoute {
     @Test
     public void testHandle() {
         when(session.attribute(GetHomeRoute.CURRENT_USER_ATTR)).thenReturn(p1);
-        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(String.valueOf(game.getID()));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
 
         Object value = CuT.handle(request, response);
 
@@ -74,4 +73,18 @@ public class TestPostResignGameRoute {
         assertEquals(game.getGameOverMessage(), "You won! " + p1 + " has resigned.");
         assertEquals(value, gson.toJson(Message.info("Resignation successful")));
     }
+
+    /**
+     * Tests {@link PostResignGameRoute#handle(Request, Response)} for a removed game
+     */
+    @Test
+    public void testRemovedGame() {
+        when(session.attribute(GetHomeRoute.CURRENT_USER_ATTR)).thenReturn(p1);
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        p1.setPlaying(true);
+        gameCenter.removeGame(game);
+
+        assertEquals(gson.toJson(GetGameRoute.GAME_GONE), CuT.handle(request, response));
+        assertFalse(p1.isPlaying());
+    }
 }
@@ -2,6 +2,7 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,7 +13,6 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
-import java.util.HashMap;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
@@ -28,7 +28,7 @@ public class TestPostSubmitTurnRoute {
     private PostSubmitTurnRoute CuT;
 
     private Game game;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
 
     private Request request;
@@ -50,14 +50,13 @@ public class TestPostSubmitTurnRoute {
 
         p1 = new Player("player1");
         p2 = new Player("player2");
-        game = new Game(p1, p2);
-        gameMap = new HashMap<>();
-        gameMap.put(String.valueOf(game.getID()), game);
+        gameCenter = new GameCenter();
+        game = gameCenter.createGame(p1, p2);
 
         gson = new Gson();
 
         // create a unique CuT for each test
-        CuT = new PostSubmitTurnRoute(gameMap, gson);
+        CuT = new PostSubmitTurnRoute(gameCenter, gson);
     }
 
     /**
@@ -65,7 +64,7 @@ public class TestPostSubmitTurnRoute {
      */
     @Test
     public void testHandle() {
-        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(String.valueOf(game.getID()));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
         // fake move
         when(request.queryParams("actionData")).thenReturn
                 ("{\"start\":{\"row\":5,\"cell\":2},\"end\":{\"row\":4,\"cell\":3}}");
@@ -79,7 +78,7 @@ public class TestPostSubmitTurnRoute {
         // to switch turns back to player1 (redPlayer)
         CuT.handle(request, response);
 
-        PostValidateMoveRoute movesMaker = new PostValidateMoveRoute(gameMap, gson);
+        PostValidateMoveRoute movesMaker = new PostValidateMoveRoute(gameCenter, gson);
         movesMaker.handle(request, response);
 
         actual = CuT.handle(request, response);
@@ -87,4 +86,15 @@ public class TestPostSubmitTurnRoute {
 
         assertEquals(expected, actual);
     }
+
+    /**
+     * Tests {@link PostSubmitTurnRoute#handle(Request, Response)} for a removed game
+     */
+    @Test
+    public void testRemovedGame() {
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        gameCenter.removeGame(game);
+
+        assertEquals(gson.toJson(GetGameRoute.GAME_GONE), CuT.handle(request, response));
+    }
 }
@@ -2,6 +2,8 @@ package com.webcheckers.ui;
 
 import com.google.gson.Gson;
 import com.webcheckers.app.Game;
+import com.webcheckers.app.GameCenter;
+import com.webcheckers.app.GameRemovedException;
 import com.webcheckers.model.Player;
 import com.webcheckers.util.Message;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,8 +15,8 @@ import spark.Request;
 import spark.Response;
 import spark.Session;
 
-import java.util.HashMap;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -28,7 +30,7 @@ public class TestPostValidateMoveRoute {
     private PostValidateMoveRoute CuT;
 
     private Game game;
-    private HashMap<String, Game> gameMap;
+    private GameCenter gameCenter;
     private Gson gson;
 
     private Request request;
@@ -50,14 +52,13 @@ public class TestPostValidateMoveRoute {
 
         p1 = new Player("player1");
         p2 = new Player("player2");
-        game = new Game(p1, p2);
-        gameMap = new HashMap<>();
-        gameMap.put(String.valueOf(game.getID()), game);
+        gameCenter = new GameCenter();
+        game = gameCenter.createGame(p1, p2);
 
         gson = new Gson();
 
         // create a unique CuT for each test
-        CuT = new PostValidateMoveRoute(gameMap, gson);
+        CuT = new PostValidateMoveRoute(gameCenter, gson);
     }
 
     /**
@@ -65,7 +66,7 @@ public class TestPostValidateMoveRoute {
      */
     @Test
     public void testHandle() {
-        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(String.valueOf(game.getID()));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
         // fake move
         when(request.queryParams("actionData")).thenReturn
                 ("{\"start\":{\"row\":5,\"cell\":2},\"end\":{\"row\":4,\"cell\":3}}");
@@ -75,4 +76,32 @@ public class TestPostValidateMoveRoute {
         Object expected = gson.toJson(Message.info("Valid simple move."));
         assertEquals(expected, actual);
     }
+
+    /**
+     * Tests {@link PostValidateMoveRoute#handle(Request, Response)} for a removed game
+     */
+    @Test
+    public void testRemovedGame() {
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        gameCenter.removeGame(game);
+
+        assertEquals(gson.toJson(GetGameRoute.GAME_GONE), CuT.handle(request, response));
+    }
+
+    /**
+     * Tests {@link PostValidateMoveRoute#handle(Request, Response)} for a game
+     * removed between being looked up and being updated
+     */
+    @Test
+    public void testRemovedWhileQueued() {
+        GameCenter removing = mock(GameCenter.class);
+        when(removing.getGame(game.getEncodedID())).thenReturn(game);
+        when(removing.update(any(Game.class), any())).thenThrow(new GameRemovedException(game));
+        when(request.queryParams(GetGameRoute.GAME_ID_PARAM)).thenReturn(game.getEncodedID());
+        when(request.queryParams("actionData")).thenReturn
+                ("{\"start\":{\"row\":5,\"cell\":2},\"end\":{\"row\":4,\"cell\":3}}");
+
+        CuT = new PostValidateMoveRoute(removing, gson);
+        assertEquals(gson.toJson(GetGameRoute.GAME_GONE), CuT.handle(request, response));
+    }
 }